@@ -0,0 +1,60 @@
+package com.uiplayground.automation.benchmarks;
+
+import com.uiplayground.automation.core.reporting.ReportManager;
+import com.uiplayground.automation.utils.AssertionUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of passing assertions: whitespace normalization, message formatting, logging and the report entry
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AssertionBenchmark {
+
+    private static final String TITLE = "UI Test   Automation Playground";
+
+    /**
+     * A fresh report test per iteration keeps the in-memory log from growing across the run
+     */
+    @Setup(Level.Iteration)
+    public void createTest() {
+        ReportManager.createTest("AssertionBenchmark-" + Thread.currentThread().getName());
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeTest() {
+        ReportManager.removeTest();
+    }
+
+    @Benchmark
+    public void assertTitle() {
+        AssertionUtils.assertTitle(TITLE, TITLE, "Title mismatch");
+    }
+
+    @Benchmark
+    public void assertContains() {
+        AssertionUtils.assertContains(TITLE, "Automation", "Text missing");
+    }
+
+    @Benchmark
+    public void assertElementCount() {
+        AssertionUtils.assertElementCount(3, 3, "Buttons");
+    }
+}
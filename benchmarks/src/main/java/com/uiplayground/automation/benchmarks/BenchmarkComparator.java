@@ -0,0 +1,105 @@
+package com.uiplayground.automation.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files and fails when a benchmark got slower
+ * A benchmark regresses when its score moved the wrong way by more than the threshold percentage
+ * and by more than the combined error of both runs, so noise alone does not fail the comparison.
+ */
+public final class BenchmarkComparator {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10;
+
+    /**
+     * Score of one benchmark at one thread count
+     */
+    private static final class Score {
+
+        private final String mode;
+        private final double value;
+        private final double error;
+        private final String unit;
+
+        private Score(JsonObject result) {
+            JsonObject metric = result.getAsJsonObject("primaryMetric");
+            this.mode = result.get("mode").getAsString();
+            this.value = metric.get("score").getAsDouble();
+            double scoreError = metric.get("scoreError").getAsDouble();
+            this.error = Double.isNaN(scoreError) ? 0 : scoreError;
+            this.unit = metric.get("scoreUnit").getAsString();
+        }
+
+        /**
+         * Throughput modes are better when higher, time modes when lower
+         */
+        private boolean higherIsBetter() {
+            return mode.equals("thrpt");
+        }
+    }
+
+    private BenchmarkComparator() {
+        // Utility class
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: compare <baseline.json> <current.json> [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Score> baseline = load(args[0]);
+        Map<String, Score> current = load(args[1]);
+
+        int regressions = 0;
+        System.out.println(String.format(Locale.ROOT, "%-70s %14s %14s %9s  %s",
+                "Benchmark", "Baseline", "Current", "Change", "Unit"));
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.unit.equals(now.unit)) {
+                System.out.println(String.format(Locale.ROOT, "%-70s %14s %14.3f %9s  %s",
+                        entry.getKey(), "-", now.value, "new", now.unit));
+                continue;
+            }
+            double change = before.value == 0 ? 0 : (now.value - before.value) * 100 / before.value;
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean regressed = worse > threshold && Math.abs(now.value - before.value) > before.error + now.error;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.println(String.format(Locale.ROOT, "%-70s %14.3f %14.3f %+8.1f%%  %s%s",
+                    entry.getKey(), before.value, now.value, change, now.unit, regressed ? "  REGRESSION" : ""));
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed by more than " + threshold + "%");
+            System.exit(1);
+        }
+        System.out.println("No regressions beyond " + threshold + "%");
+    }
+
+    private static Map<String, Score> load(String file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(Paths.get(file))) {
+            JsonArray results = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement element : results) {
+                JsonObject result = element.getAsJsonObject();
+                String key = result.get("benchmark").getAsString() + " [" + result.get("threads").getAsInt() + "t]";
+                scores.put(key, new Score(result));
+            }
+        }
+        return scores;
+    }
+}
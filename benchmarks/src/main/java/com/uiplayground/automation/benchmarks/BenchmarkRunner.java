@@ -0,0 +1,59 @@
+package com.uiplayground.automation.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * Runs the framework benchmarks single-threaded and contended, writing JMH JSON results per run
+ * Usage:
+ *   java -jar target/benchmarks.jar [threads] [include regex]
+ *   java -jar target/benchmarks.jar compare baseline.json current.json [threshold percent]
+ * Results go to results/yyyyMMdd_HHmmss-{threads}t.json; reports and screenshots written by the
+ * benchmarks go to target/benchmark-output so they never mix with real test output.
+ */
+public final class BenchmarkRunner {
+
+    private static final String RESULTS_DIR = "results";
+    private static final String OUTPUT_DIR = "target/benchmark-output";
+
+    private BenchmarkRunner() {
+        // Utility class
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        if (args.length > 0 && args[0].equals("compare")) {
+            BenchmarkComparator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        int contendedThreads = args.length > 0 ? Integer.parseInt(args[0])
+                : Math.max(4, Runtime.getRuntime().availableProcessors());
+        String include = args.length > 1 ? args[1] : BenchmarkRunner.class.getPackage().getName() + ".*Benchmark";
+
+        Path resultsDir = Files.createDirectories(Paths.get(RESULTS_DIR));
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        for (int threads : new int[]{1, contendedThreads}) {
+            Path resultFile = resultsDir.resolve(timestamp + "-" + threads + "t.json");
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .jvmArgsAppend("-DreportsPath=" + OUTPUT_DIR + "/reports",
+                            "-DscreenshotsPath=" + OUTPUT_DIR + "/screenshots")
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultFile.toString())
+                    .build();
+            new Runner(options).run();
+            System.out.println("Results written to: " + resultFile);
+        }
+    }
+}
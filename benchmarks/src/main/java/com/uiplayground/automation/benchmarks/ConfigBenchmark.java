@@ -0,0 +1,59 @@
+package com.uiplayground.automation.benchmarks;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of ConfigManager lookups made on every step, page and wait
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigBenchmark {
+
+    private ConfigManager config;
+
+    @Setup
+    public void setUp() {
+        config = ConfigManager.getInstance();
+    }
+
+    @Benchmark
+    public String getProperty() {
+        return config.getProperty("browser");
+    }
+
+    @Benchmark
+    public String getPropertyWithDefault() {
+        return config.getProperty("benchmark.missing.key", "default");
+    }
+
+    @Benchmark
+    public int getExplicitWait() {
+        return config.getExplicitWait();
+    }
+
+    @Benchmark
+    public boolean getBoolean() {
+        return config.getBoolean("headless", false);
+    }
+
+    @Benchmark
+    public String getBaseUrl() {
+        return config.getBaseUrl();
+    }
+}
@@ -0,0 +1,58 @@
+package com.uiplayground.automation.benchmarks;
+
+import com.uiplayground.automation.benchmarks.stub.StubWebDriver;
+import com.uiplayground.automation.core.driver.DriverManager;
+import com.uiplayground.automation.pages.base.BasePage;
+import com.uiplayground.automation.pages.playground.DynamicIdPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a page object: WebDriverWait, PageFactory proxies and the element name cache
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PageObjectBenchmark {
+
+    private DynamicIdPage page;
+    private Method cacheElementNames;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        DriverManager.setDriver(new StubWebDriver());
+        page = new DynamicIdPage();
+        cacheElementNames = BasePage.class.getDeclaredMethod("cacheElementNames");
+        cacheElementNames.setAccessible(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        DriverManager.quitDriver();
+    }
+
+    @Benchmark
+    public DynamicIdPage constructPage() {
+        return new DynamicIdPage();
+    }
+
+    @Benchmark
+    public Object cacheElementNames() throws ReflectiveOperationException {
+        return cacheElementNames.invoke(page);
+    }
+}
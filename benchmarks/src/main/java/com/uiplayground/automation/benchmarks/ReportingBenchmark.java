@@ -0,0 +1,53 @@
+package com.uiplayground.automation.benchmarks;
+
+import com.uiplayground.automation.core.reporting.ReportManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of adding step and pass entries to the shared ExtentReports instance
+ * With several threads this also measures contention on the report, which all scenarios share.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReportingBenchmark {
+
+    /**
+     * A fresh report test per iteration keeps the in-memory log from growing across the run
+     */
+    @Setup(Level.Iteration)
+    public void createTest() {
+        ReportManager.createTest("ReportingBenchmark-" + Thread.currentThread().getName());
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeTest() {
+        ReportManager.removeTest();
+    }
+
+    @Benchmark
+    public void logStepPassed() {
+        ReportManager.logStep("I click the button with dynamic ID", "passed");
+    }
+
+    @Benchmark
+    public void logPass() {
+        ReportManager.logPass("Button text matches");
+    }
+}
@@ -0,0 +1,50 @@
+package com.uiplayground.automation.benchmarks;
+
+import com.uiplayground.automation.benchmarks.stub.StubWebDriver;
+import com.uiplayground.automation.core.driver.DriverManager;
+import com.uiplayground.automation.core.reporting.ScreenshotManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cost of saving a screenshot: temp file, directory check and copy into the screenshots folder
+ * The stub returns a tiny PNG, so this measures the framework's file handling rather than image size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScreenshotBenchmark {
+
+    /** File names only have second resolution, so every call gets a unique scenario name */
+    private static final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        DriverManager.setDriver(new StubWebDriver());
+    }
+
+    @TearDown
+    public void tearDown() {
+        DriverManager.quitDriver();
+    }
+
+    @Benchmark
+    public String takeScreenshot() {
+        return ScreenshotManager.takeScreenshot("benchmark " + sequence.incrementAndGet(), "benchmark");
+    }
+}
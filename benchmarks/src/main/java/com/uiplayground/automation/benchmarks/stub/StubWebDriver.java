@@ -0,0 +1,316 @@
+package com.uiplayground.automation.benchmarks.stub;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.logging.LogEntries;
+import org.openqa.selenium.logging.Logs;
+
+import java.net.URL;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process WebDriver that answers every command immediately
+ * Lets benchmarks measure framework code alone: element lookups return stub elements,
+ * scripts return null and screenshots return a fixed 1x1 PNG. Window switches, navigation and
+ * options are accepted and ignored, so framework code that touches them runs unchanged.
+ */
+public class StubWebDriver implements WebDriver, JavascriptExecutor, TakesScreenshot {
+
+    /** Smallest valid PNG, so screenshot writes go through real file I/O */
+    static final byte[] PNG = Base64.getDecoder().decode(
+            "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAYAAAAfFcSJAAAADUlEQVR42mNkYPhfDwAChwGA60e6kgAAAABJRU5ErkJggg==");
+
+    private static final String WINDOW_HANDLE = "stub-window";
+
+    private String currentUrl = "about:blank";
+
+    @Override
+    public void get(String url) {
+        currentUrl = url;
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        return "Stub";
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return Collections.singletonList(new StubWebElement(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return new StubWebElement(by);
+    }
+
+    @Override
+    public String getPageSource() {
+        return "<html><head><title>Stub</title></head><body></body></html>";
+    }
+
+    @Override
+    public void close() {
+        // Nothing to close
+    }
+
+    @Override
+    public void quit() {
+        // Nothing to release
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return Collections.singleton(WINDOW_HANDLE);
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return WINDOW_HANDLE;
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return new StubTargetLocator();
+    }
+
+    @Override
+    public Navigation navigate() {
+        return new StubNavigation();
+    }
+
+    @Override
+    public Options manage() {
+        return new StubOptions();
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        return null;
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        return null;
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return target.convertFromPngBytes(PNG);
+    }
+
+    /**
+     * Single window with no frames or alerts; every switch stays on it
+     */
+    private class StubTargetLocator implements TargetLocator {
+
+        @Override
+        public WebDriver frame(int index) {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebDriver frame(String nameOrId) {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebDriver frame(WebElement frameElement) {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebDriver parentFrame() {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebDriver window(String nameOrHandle) {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebDriver newWindow(WindowType typeHint) {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebDriver defaultContent() {
+            return StubWebDriver.this;
+        }
+
+        @Override
+        public WebElement activeElement() {
+            return new StubWebElement(By.tagName("body"));
+        }
+
+        @Override
+        public Alert alert() {
+            throw new NoAlertPresentException("Stub driver never shows alerts");
+        }
+    }
+
+    /**
+     * Navigation that only tracks the current URL; there is no history to go back or forward in
+     */
+    private class StubNavigation implements Navigation {
+
+        @Override
+        public void back() {
+            // No history
+        }
+
+        @Override
+        public void forward() {
+            // No history
+        }
+
+        @Override
+        public void to(String url) {
+            get(url);
+        }
+
+        @Override
+        public void to(URL url) {
+            get(url.toString());
+        }
+
+        @Override
+        public void refresh() {
+            // Nothing to reload
+        }
+    }
+
+    /**
+     * Options that accept every setting and keep none: no cookies, logs or timeouts, and a fixed window
+     */
+    private static class StubOptions implements Options, Timeouts, Window {
+
+        @Override
+        public void addCookie(Cookie cookie) {
+            // Cookies are discarded
+        }
+
+        @Override
+        public void deleteCookieNamed(String name) {
+            // No cookies
+        }
+
+        @Override
+        public void deleteCookie(Cookie cookie) {
+            // No cookies
+        }
+
+        @Override
+        public void deleteAllCookies() {
+            // No cookies
+        }
+
+        @Override
+        public Set<Cookie> getCookies() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Cookie getCookieNamed(String name) {
+            return null;
+        }
+
+        @Override
+        public Timeouts timeouts() {
+            return this;
+        }
+
+        @Override
+        public Window window() {
+            return this;
+        }
+
+        @Override
+        public Logs logs() {
+            return new Logs() {
+                @Override
+                public LogEntries get(String logType) {
+                    return new LogEntries(Collections.emptyList());
+                }
+
+                @Override
+                public Set<String> getAvailableLogTypes() {
+                    return Collections.emptySet();
+                }
+            };
+        }
+
+        @Override
+        @Deprecated
+        public Timeouts implicitlyWait(long time, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        @Deprecated
+        public Timeouts setScriptTimeout(long time, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        @Deprecated
+        public Timeouts pageLoadTimeout(long time, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public Dimension getSize() {
+            return new Dimension(1920, 1080);
+        }
+
+        @Override
+        public void setSize(Dimension targetSize) {
+            // Fixed size
+        }
+
+        @Override
+        public Point getPosition() {
+            return new Point(0, 0);
+        }
+
+        @Override
+        public void setPosition(Point targetPosition) {
+            // Fixed position
+        }
+
+        @Override
+        public void maximize() {
+            // Fixed size
+        }
+
+        @Override
+        public void minimize() {
+            // Fixed size
+        }
+
+        @Override
+        public void fullscreen() {
+            // Fixed size
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.uiplayground.automation.benchmarks.stub;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Visible, enabled element returned by StubWebDriver for any locator
+ */
+public class StubWebElement implements WebElement {
+
+    private final By locator;
+
+    public StubWebElement(By locator) {
+        this.locator = locator;
+    }
+
+    @Override
+    public void click() {
+        // Nothing to click
+    }
+
+    @Override
+    public void submit() {
+        // Nothing to submit
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        // Input is discarded
+    }
+
+    @Override
+    public void clear() {
+        // Nothing to clear
+    }
+
+    @Override
+    public String getTagName() {
+        return "div";
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return null;
+    }
+
+    @Override
+    public boolean isSelected() {
+        return false;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String getText() {
+        return locator.toString();
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return Collections.singletonList(new StubWebElement(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return new StubWebElement(by);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return true;
+    }
+
+    @Override
+    public Point getLocation() {
+        return new Point(0, 0);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return new Dimension(1, 1);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return new Rectangle(getLocation(), getSize());
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return "";
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return target.convertFromPngBytes(StubWebDriver.PNG);
+    }
+
+    @Override
+    public String toString() {
+        return "StubWebElement(" + locator + ")";
+    }
+}
@@ -15,4 +15,9 @@ public final class ValidationMessages {
     
     // Count Validation
     public static final String COUNT_MISMATCH = "Expected %d %s but found %d";
+
+    // API Validation
+    public static final String STATUS_CODE_MISMATCH = "Expected status %d but got %d";
+    public static final String JSON_FIELD_MISMATCH = "Expected field '%s' to be '%s' but was '%s'";
+    public static final String CONNECTION_REUSE_FAILED = "Expected %d requests to open at most %d pooled connections but opened %d";
 }
@@ -7,6 +7,7 @@ public final class HomePageSelectors {
     
     // Main Page Elements
     public static final String PAGE_TITLE = ".container h1";
+    public static final String PAGE_TITLE_FALLBACK = "#overview h1";
     public static final String PAGE_DESCRIPTION = ".container p";
     public static final String TEST_LINKS = ".container .row .col-sm h3 a";
     
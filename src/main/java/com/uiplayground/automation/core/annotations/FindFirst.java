@@ -0,0 +1,38 @@
+package com.uiplayground.automation.core.annotations;
+
+import com.uiplayground.automation.core.locators.ByFirstMatch;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.AbstractFindByBuilder;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactoryFinder;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ordered alternative locators for a page object field; the first one that matches is used
+ * e.g. @FindFirst({@FindBy(id = "title"), @FindBy(css = "[data-testid='title']"), @FindBy(xpath = "//h1")})
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+@PageFactoryFinder(FindFirst.FindByBuilder.class)
+public @interface FindFirst {
+    FindBy[] value();
+
+    class FindByBuilder extends AbstractFindByBuilder {
+        @Override
+        public By buildIt(Object annotation, Field field) {
+            List<By> alternatives = new ArrayList<>();
+            for (FindBy findBy : ((FindFirst) annotation).value()) {
+                assertValidFindBy(findBy);
+                alternatives.add(buildByFromFindBy(findBy));
+            }
+            return new ByFirstMatch(field, alternatives);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.uiplayground.automation.core.api;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.server.ApiStubServer;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Manages the shared HTTP client for API tests
+ * All threads share one pooled, keep-alive connection manager and one base request specification,
+ * so scenarios reuse warm connections instead of opening a socket per request.
+ * Requests can be fanned out concurrently within a single step with fanOut.
+ */
+public final class ApiClient {
+
+    private static final Logger logger = LogManager.getLogger(ApiClient.class);
+    private static final ThreadLocal<Response> lastResponse = new ThreadLocal<>();
+
+    private static volatile RequestSpecification baseSpec;
+    private static ExecutorService fanOutExecutor;
+
+    private ApiClient() {
+        // Utility class
+    }
+
+    /**
+     * Start a request from the shared base specification
+     *
+     * @return Request specification with base URI, content type and pooled client applied
+     */
+    public static RequestSpecification request() {
+        return RestAssured.given().spec(getBaseSpec());
+    }
+
+    /**
+     * Start a request from the shared base specification plus a reusable specification
+     *
+     * @param spec Additional specification, e.g. headers for one service
+     * @return Combined request specification
+     */
+    public static RequestSpecification request(RequestSpecification spec) {
+        return request().spec(spec);
+    }
+
+    /**
+     * Send a request and remember the response for reporting
+     *
+     * @param method HTTP method
+     * @param path   Path relative to the base URI
+     * @return Response
+     */
+    public static Response send(String method, String path) {
+        Response response = release(request().request(method, path));
+        lastResponse.set(response);
+        logger.info("{} {} -> {} ({} ms)", method, path, response.getStatusCode(), response.getTime());
+        return response;
+    }
+
+    /**
+     * Run many requests concurrently on the shared fan-out pool and wait for all of them
+     *
+     * @param count   Number of requests
+     * @param request Builds and sends request i
+     * @return Responses in request order
+     */
+    public static List<Response> fanOut(int count, IntFunction<Response> request) {
+        ExecutorService executor = getFanOutExecutor();
+        List<Future<Response>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> release(request.apply(index))));
+        }
+        List<Response> responses = new ArrayList<>(count);
+        try {
+            for (Future<Response> future : futures) {
+                responses.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while waiting for concurrent requests", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Concurrent request failed", e.getCause());
+        }
+        if (!responses.isEmpty()) {
+            lastResponse.set(responses.get(responses.size() - 1));
+        }
+        return responses;
+    }
+
+    /**
+     * Buffer the body so the connection goes back to the pool
+     * REST Assured keeps the connection leased until the body is read, which drains the pool when
+     * callers only check the status
+     *
+     * @param response Response to buffer
+     * @return The same response
+     */
+    public static Response release(Response response) {
+        response.asByteArray();
+        return response;
+    }
+
+    /**
+     * Get the last response sent by the current thread
+     *
+     * @return Last response, or null if none was sent
+     */
+    public static Response getLastResponse() {
+        return lastResponse.get();
+    }
+
+    /**
+     * Forget the current thread's last response at the end of a scenario
+     */
+    public static void clearLastResponse() {
+        lastResponse.remove();
+    }
+
+    /**
+     * Get the base URI requests are sent to
+     * Points at the embedded stub server when api.stub.enabled is set
+     *
+     * @return Base URI
+     */
+    public static String getBaseUri() {
+        ConfigManager config = ConfigManager.getInstance();
+        if (config.getBoolean("api.stub.enabled", false)) {
+            return ApiStubServer.getBaseUrl();
+        }
+        return config.getProperty("api.baseUrl", config.getBaseUrl());
+    }
+
+    private static RequestSpecification getBaseSpec() {
+        if (baseSpec == null) {
+            synchronized (ApiClient.class) {
+                if (baseSpec == null) {
+                    baseSpec = new RequestSpecBuilder()
+                            .setBaseUri(getBaseUri())
+                            .setContentType(ContentType.JSON)
+                            .setAccept(ContentType.JSON)
+                            .setConfig(createConfig())
+                            .build();
+                    logger.info("API client initialized for {}", getBaseUri());
+                }
+            }
+        }
+        return baseSpec;
+    }
+
+    /**
+     * One pooled client instance shared by every request; the pool manager is thread safe
+     */
+    @SuppressWarnings("deprecation") // REST Assured 5 still builds on the HttpClient 4 classic API
+    private static RestAssuredConfig createConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        PoolingClientConnectionManager pool = new PoolingClientConnectionManager();
+        pool.setMaxTotal(config.getInt("api.pool.max.total", 200));
+        pool.setDefaultMaxPerRoute(config.getInt("api.pool.max.per.route", 50));
+
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params, config.getInt("api.connect.timeout.ms", 5000));
+        HttpConnectionParams.setSoTimeout(params, config.getInt("api.read.timeout.ms", 30000));
+        HttpConnectionParams.setTcpNoDelay(params, true);
+
+        DefaultHttpClient client = new DefaultHttpClient(pool, params);
+        client.addResponseInterceptor(ApiClient::releaseEmptyEntity);
+        return RestAssuredConfig.config().httpClient(HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> client));
+    }
+
+    /**
+     * REST Assured never reads a zero-length body, so its connection would stay leased forever;
+     * consume it here and hand REST Assured an equivalent in-memory entity
+     */
+    private static void releaseEmptyEntity(HttpResponse response, HttpContext context) throws IOException {
+        HttpEntity entity = response.getEntity();
+        if (entity != null && entity.getContentLength() == 0) {
+            EntityUtils.consume(entity);
+            ByteArrayEntity empty = new ByteArrayEntity(new byte[0]);
+            empty.setContentType(entity.getContentType());
+            empty.setContentEncoding(entity.getContentEncoding());
+            response.setEntity(empty);
+        }
+    }
+
+    private static synchronized ExecutorService getFanOutExecutor() {
+        if (fanOutExecutor == null) {
+            fanOutExecutor = Executors.newFixedThreadPool(ConfigManager.getInstance().getInt("api.fanout.threads", 16),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "api-fanout");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        return fanOutExecutor;
+    }
+}
@@ -0,0 +1,231 @@
+package com.uiplayground.automation.core.config;
+
+import com.uiplayground.automation.core.constants.FrameworkConstants;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Registry of every configuration key the framework understands, with its type and default
+ * Keys that are not registered here are reported as unknown when the configuration is loaded
+ */
+public final class ConfigKeys {
+
+    /**
+     * Value types a configuration key can have
+     */
+    public enum Type {
+        STRING, INT, LONG, BOOLEAN, DOUBLE
+    }
+
+    /**
+     * Type and default value of a configuration key
+     */
+    public static final class Definition {
+
+        private final Type type;
+        private final String defaultValue;
+
+        private Definition(Type type, String defaultValue) {
+            this.type = type;
+            this.defaultValue = defaultValue;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public String getDefaultValue() {
+            return defaultValue;
+        }
+    }
+
+    private static final String ENVIRONMENT_PREFIX = "UIP_";
+    private static final Map<String, Definition> DEFINITIONS = new LinkedHashMap<>();
+
+    static {
+        // Core settings
+        define("baseUrl", Type.STRING, "http://www.uitestingplayground.com");
+        define("browser", Type.STRING, FrameworkConstants.DEFAULT_BROWSER);
+        define("headless", Type.BOOLEAN, String.valueOf(FrameworkConstants.HEADLESS_MODE));
+        define("implicitWait", Type.INT, String.valueOf(FrameworkConstants.IMPLICIT_WAIT_SECONDS));
+        define("explicitWait", Type.INT, String.valueOf(FrameworkConstants.DEFAULT_TIMEOUT_SECONDS));
+        define("screenshotsPath", Type.STRING, FrameworkConstants.SCREENSHOTS_PATH);
+        define("reportsPath", Type.STRING, "reports/extent-reports");
+
+        // Cucumber
+        define("cucumber.reports.path", Type.STRING, FrameworkConstants.REPORTS_PATH);
+        define("cucumber.screenshots.organize.by.feature", Type.BOOLEAN, "false");
+        define("cucumber.parallel.execution", Type.BOOLEAN, "false");
+        define("cucumber.step.logging.enabled", Type.BOOLEAN, "true");
+
+        // Suite planning and sharding
+        define("suite.dedupe.enabled", Type.BOOLEAN, "true");
+        define("shard.index", Type.INT, "0");
+        define("shard.count", Type.INT, "1");
+        define("shard.durations.file", Type.STRING, "reports/scenario-durations.properties");
+        define("shard.durations.output", Type.STRING, "");
+
+        // Test impact analysis
+        define("impact.enabled", Type.BOOLEAN, "false");
+        define("impact.recording.enabled", Type.BOOLEAN, "true");
+        define("impact.map.file", Type.STRING, "reports/impact-map.properties");
+        define("impact.base.ref", Type.STRING, "");
+        define("impact.changed.files", Type.STRING, "");
+        define("impact.safety.tags", Type.STRING, "@smoke");
+        define("impact.selector.package", Type.STRING, "com.uiplayground.automation.constants.selectors");
+
+        // In-JVM reruns and flake quarantine
+        define("rerun.max.attempts", Type.INT, "0");
+        define("flake.stats.file", Type.STRING, "reports/flake-stats.properties");
+        define("flake.history.size", Type.INT, "20");
+        define("flake.quarantine.threshold", Type.DOUBLE, "0.2");
+        define("flake.quarantine.min.runs", Type.INT, "5");
+        define("flake.quarantine.threads", Type.INT, "2");
+
+        // Browser admission control
+        define("admission.enabled", Type.BOOLEAN, "true");
+        define("admission.browser.memory.mb", Type.LONG, "400");
+        define("admission.memory.reserve.mb", Type.LONG, "512");
+        define("admission.browsers.per.cpu", Type.DOUBLE, "1.0");
+        define("admission.max.browsers", Type.LONG, "0");
+        define("admission.poll.interval.ms", Type.LONG, "250");
+        define("admission.timeout.seconds", Type.LONG, "300");
+        define("admission.warmup.seconds", Type.LONG, "30");
+
+        // Browser contexts
+        define("browser.contexts.enabled", Type.BOOLEAN, "false");
+        define("browser.contexts.per.process", Type.INT, "4");
+        define("browser.footprint.enabled", Type.BOOLEAN, "true");
+        define("browser.footprint.file", Type.STRING, "reports/browser-footprint.properties");
+
+        // Early abort policies
+        define("abort.max.failures", Type.INT, "0");
+        define("abort.canary.tag", Type.STRING, "");
+        define("abort.skip.shared.setup", Type.BOOLEAN, "false");
+
+        // Startup
+        define("startup.cache.dir", Type.STRING, "target/startup-cache");
+
+        // Browserless static page driver (@static scenarios)
+        define("static.driver.enabled", Type.BOOLEAN, "true");
+        define("static.driver.fallback", Type.BOOLEAN, "true");
+        define("static.driver.timeout.ms", Type.LONG, "10000");
+
+        // Deep-link navigation index
+        define("navigation.index.enabled", Type.BOOLEAN, "true");
+        define("navigation.index.ttl.seconds", Type.LONG, "600");
+        define("navigation.index.timeout.ms", Type.LONG, "10000");
+
+        // Locator audit and optimizer
+        define("locator.audit.enabled", Type.BOOLEAN, "false");
+        define("locator.audit.samples", Type.INT, "20");
+        define("locator.audit.min.gain.percent", Type.DOUBLE, "20.0");
+        define("locator.optimizer.enabled", Type.BOOLEAN, "false");
+        define("locator.optimizations.file", Type.STRING, "reports/locator-optimizations.properties");
+
+        // Adaptive wait budgets
+        define("wait.adaptive.enabled", Type.BOOLEAN, "false");
+        define("wait.adaptive.percentile", Type.DOUBLE, "95.0");
+        define("wait.adaptive.margin.percent", Type.DOUBLE, "50.0");
+        define("wait.adaptive.min.ms", Type.LONG, "500");
+        define("wait.adaptive.min.samples", Type.INT, "10");
+        define("wait.history.size", Type.INT, "50");
+        define("wait.history.file", Type.STRING, "reports/wait-history.properties");
+
+        // Visual regression checks
+        define("visual.baseline.dir", Type.STRING, "src/test/resources/visual-baselines");
+        define("visual.baseline.update", Type.BOOLEAN, "false");
+        define("visual.pixel.tolerance", Type.INT, "16");
+        define("visual.max.diff.percent", Type.DOUBLE, "0.1");
+        define("visual.hash.max.distance", Type.INT, "10");
+        define("visual.tile.size", Type.INT, "128");
+
+        // WebDriver command metrics
+        define("metrics.commands.enabled", Type.BOOLEAN, "true");
+        define("metrics.commands.top.n", Type.INT, "10");
+
+        // Step timing
+        define("steps.slow.threshold.ms", Type.LONG, "5000");
+        define("steps.hotspots.top.n", Type.INT, "15");
+
+        // Java Flight Recorder
+        define("jfr.recording.enabled", Type.BOOLEAN, "false");
+        define("jfr.recording.settings", Type.STRING, "profile");
+
+        // Local fixture server
+        define("fixture.server.enabled", Type.BOOLEAN, "false");
+        define("fixture.port", Type.INT, "0");
+        define("fixture.threads", Type.INT, "8");
+        define("fixture.resource.root", Type.STRING, "fixtures/playground");
+        define("fixture.latency.ms", Type.LONG, "0");
+        define("fixture.jitter.ms", Type.LONG, "0");
+        define("fixture.bandwidth.kbps", Type.LONG, "0");
+        define("fixture.seed", Type.LONG, "42");
+
+        // Shared static asset cache
+        define("asset.cache.enabled", Type.BOOLEAN, "false");
+        define("asset.cache.proxy.port", Type.INT, "0");
+        define("asset.cache.max.mb", Type.LONG, "64");
+        define("asset.cache.max.entry.kb", Type.LONG, "2048");
+
+        // API client
+        define("api.baseUrl", Type.STRING, "http://www.uitestingplayground.com");
+        define("api.pool.max.total", Type.INT, "200");
+        define("api.pool.max.per.route", Type.INT, "50");
+        define("api.connect.timeout.ms", Type.INT, "5000");
+        define("api.read.timeout.ms", Type.INT, "30000");
+        define("api.fanout.threads", Type.INT, "16");
+        define("api.stub.enabled", Type.BOOLEAN, "false");
+        define("api.stub.port", Type.INT, "0");
+        define("api.stub.threads", Type.INT, "16");
+
+        // State seeding
+        define("state.seeding.enabled", Type.BOOLEAN, "true");
+        define("state.seeding.baseline", Type.BOOLEAN, "false");
+        define("state.seeding.origin.path", Type.STRING, "/favicon.ico");
+
+        // Shared setup prefixes (@shared-setup scenarios)
+        define("shared.setup.enabled", Type.BOOLEAN, "false");
+        define("shared.setup.tag", Type.STRING, "@shared-setup");
+
+        // Load generation (APILoadTestRunner)
+        define("load.scenario", Type.STRING, "");
+        define("load.rate", Type.DOUBLE, "0");
+        define("load.concurrency", Type.INT, "8");
+        define("load.duration.seconds", Type.LONG, "10");
+        define("load.warmup.seconds", Type.LONG, "2");
+        define("load.expected.interval.ms", Type.LONG, "0");
+        define("load.max.error.percent", Type.DOUBLE, "1.0");
+    }
+
+    private ConfigKeys() {
+        // Utility class
+    }
+
+    private static void define(String key, Type type, String defaultValue) {
+        DEFINITIONS.put(key, new Definition(type, defaultValue));
+    }
+
+    /**
+     * Get all registered keys in declaration order
+     *
+     * @return Key definitions
+     */
+    public static Map<String, Definition> getDefinitions() {
+        return Collections.unmodifiableMap(DEFINITIONS);
+    }
+
+    /**
+     * Map a configuration key to its environment variable name, e.g. explicitWait to UIP_EXPLICIT_WAIT
+     * The prefix keeps variables such as BROWSER, which desktops and CI images set for their own use, from
+     * overriding the configuration.
+     *
+     * @param key Configuration key
+     * @return Environment variable name
+     */
+    public static String toEnvironmentVariable(String key) {
+        return ENVIRONMENT_PREFIX + key.replaceAll("([a-z0-9])([A-Z])", "$1_$2").replace('.', '_').toUpperCase();
+    }
+}
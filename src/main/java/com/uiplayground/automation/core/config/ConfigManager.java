@@ -1,126 +1,213 @@
 package com.uiplayground.automation.core.config;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
+import java.util.Map;
 
+import com.uiplayground.automation.core.execution.StartupProfiler;
+import com.uiplayground.automation.core.server.FixtureServer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
  * Manages configuration properties for the framework
- * Follows Singleton pattern to ensure only one instance exists
+ * Follows Singleton pattern to ensure only one instance exists.
+ * Configuration is resolved once into an immutable ConfigSnapshot; reads never lock.
+ * A thread can replace individual keys with setThreadOverrides for matrix runs.
  */
 public class ConfigManager {
 
     private static final Logger logger = LogManager.getLogger(ConfigManager.class);
-    private static final Properties properties = new Properties();
-    private static final String CONFIG_FILE = "/config.properties";
-    private static ConfigManager instance;
+    private static final ThreadLocal<ConfigSnapshot> threadSnapshot = new ThreadLocal<>();
+
+    private final ConfigSnapshot snapshot;
+    private volatile String publishedBaseUrl;
 
     private ConfigManager() {
-        try (InputStream is = getClass().getResourceAsStream(CONFIG_FILE)) {
-            if (is != null) {
-                properties.load(is);
-                logger.info("Configuration loaded successfully from classpath: " + CONFIG_FILE);
-            } else {
-                logger.error("Configuration file not found in classpath: " + CONFIG_FILE);
-            }
-        } catch (IOException e) {
-            logger.error("Error loading configuration file: " + CONFIG_FILE, e);
-        }
+        long start = System.nanoTime();
+        snapshot = ConfigSnapshot.load();
+        StartupProfiler.record("config load", start);
+    }
+
+    /**
+     * Lazily created on first access; class initialization makes this thread safe without locking
+     */
+    private static final class Holder {
+        private static final ConfigManager INSTANCE = new ConfigManager();
     }
 
     /**
      * Get the singleton instance of ConfigManager
-     * 
+     *
      * @return ConfigManager instance
      */
-    public static synchronized ConfigManager getInstance() {
-        if (instance == null) {
-            instance = new ConfigManager();
-        }
-        return instance;
+    public static ConfigManager getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Get the configuration visible to the current thread
+     *
+     * @return Thread override snapshot if one is set, otherwise the global snapshot
+     */
+    public ConfigSnapshot getSnapshot() {
+        ConfigSnapshot override = threadSnapshot.get();
+        return override != null ? override : snapshot;
+    }
+
+    /**
+     * Replace configuration keys for the current thread only
+     *
+     * @param overrides Keys and values to replace
+     */
+    public void setThreadOverrides(Map<String, String> overrides) {
+        threadSnapshot.set(snapshot.withOverrides(overrides));
+        logger.info("Applied thread configuration overrides: {}", overrides.keySet());
+    }
+
+    /**
+     * Remove the configuration overrides of the current thread
+     */
+    public void clearThreadOverrides() {
+        threadSnapshot.remove();
     }
 
     /**
      * Get a property with default value if not found
-     * 
+     *
      * @param key Property key
      * @param defaultValue Default value if property is not found
      * @return Property value or default
      */
     public String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        String value = getSnapshot().get(key);
+        return value != null ? value : defaultValue;
     }
 
     /**
      * Get a property value by key
-     * 
+     *
      * @param key Property key
      * @return Property value
      */
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        return getSnapshot().get(key);
+    }
+
+    /**
+     * Get a registered integer property
+     *
+     * @param key Property key
+     * @param defaultValue Value used if the key is not registered
+     * @return Parsed property value
+     */
+    public int getInt(String key, int defaultValue) {
+        return getSnapshot().getInt(key, defaultValue);
+    }
+
+    /**
+     * Get a registered long property
+     *
+     * @param key Property key
+     * @param defaultValue Value used if the key is not registered
+     * @return Parsed property value
+     */
+    public long getLong(String key, long defaultValue) {
+        return getSnapshot().getLong(key, defaultValue);
+    }
+
+    /**
+     * Get a registered boolean property
+     *
+     * @param key Property key
+     * @param defaultValue Value used if the key is not registered
+     * @return Parsed property value
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        return getSnapshot().getBoolean(key, defaultValue);
+    }
+
+    /**
+     * Get a registered decimal property
+     *
+     * @param key Property key
+     * @param defaultValue Value used if the key is not registered
+     * @return Parsed property value
+     */
+    public double getDouble(String key, double defaultValue) {
+        return getSnapshot().getDouble(key, defaultValue);
     }
 
     /**
      * Get the base URL of the application
-     * 
+     * Points at the embedded fixture server while it runs, see publishBaseUrl. With fixture.server.enabled the
+     * server is started here if no listener has started it yet, e.g. in runners without the TestListener.
+     *
      * @return Base URL
      */
     public String getBaseUrl() {
-        return getProperty("baseUrl");
+        String published = publishedBaseUrl;
+        if (published != null) {
+            return published;
+        }
+        if (FixtureServer.isEnabled()) {
+            logger.info("Starting the fixture server on first use of the base URL");
+            return FixtureServer.start();
+        }
+        return getSnapshot().getBaseUrl();
+    }
+
+    /**
+     * Publish the address of a local server that replaces the configured base URL
+     *
+     * @param baseUrl Server address, or null when the server stops
+     */
+    public void publishBaseUrl(String baseUrl) {
+        publishedBaseUrl = baseUrl;
     }
 
     /**
      * Check if headless browser mode is enabled
-     * 
+     * The headless system property still overrides the file through the snapshot layers
+     *
      * @return true if headless mode is enabled
      */
     public boolean isHeadless() {
-        // Allow override via system property
-        String sysProp = System.getProperty("headless");
-        if (sysProp != null) {
-            return Boolean.parseBoolean(sysProp);
-        }
-        return Boolean.parseBoolean(getProperty("headless", "false"));
+        return getSnapshot().isHeadless();
     }
 
     /**
      * Get the implicit wait time in seconds
-     * 
+     *
      * @return Implicit wait time
      */
     public int getImplicitWait() {
-        return Integer.parseInt(getProperty("implicitWait"));
+        return getSnapshot().getImplicitWait();
     }
 
     /**
      * Get the explicit wait time in seconds
-     * 
+     *
      * @return Explicit wait time
      */
     public int getExplicitWait() {
-        return Integer.parseInt(getProperty("explicitWait"));
+        return getSnapshot().getExplicitWait();
     }
 
     /**
      * Get the path for saving screenshots
-     * 
+     *
      * @return Screenshots path
      */
     public String getScreenshotsPath() {
-        return getProperty("screenshotsPath");
+        return getSnapshot().getScreenshotsPath();
     }
 
     /**
      * Get the browser type
-     * 
+     *
      * @return Browser type (chrome, firefox, edge)
      */
     public String getBrowser() {
-        return getProperty("browser");
+        return getSnapshot().getBrowser();
     }
 
     /**
@@ -131,26 +218,25 @@ public class ConfigManager {
     }
 
     public boolean isCucumberStepLoggingEnabled() {
-        return Boolean.parseBoolean(getProperty("cucumber.step.logging.enabled"));
+        return getBoolean("cucumber.step.logging.enabled", true);
     }
 
     /**
      * Check if screenshots should be organized by feature
-     * 
+     *
      * @return true if organize by feature enabled
      */
     public boolean isOrganizeScreenshotsByFeature() {
-        return Boolean.parseBoolean(getProperty("cucumber.screenshots.organize.by.feature"));
+        return getBoolean("cucumber.screenshots.organize.by.feature", false);
     }
 
     /**
      * Check if Cucumber parallel execution is enabled
-     * 
+     *
      * @return true if parallel execution enabled
      */
     public boolean isCucumberParallelExecution() {
-        return Boolean.parseBoolean(getProperty("cucumber.parallel.execution"));
+        return getBoolean("cucumber.parallel.execution", false);
     }
 
 }
-
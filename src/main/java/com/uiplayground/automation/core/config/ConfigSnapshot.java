@@ -0,0 +1,249 @@
+package com.uiplayground.automation.core.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable, fully resolved configuration
+ * Layers, from lowest to highest precedence: key defaults, config.properties, config-&lt;profile&gt;.properties,
+ * environment variables, system properties. Typed values are parsed once when the snapshot is built,
+ * so reads are plain map lookups without locking or allocation.
+ */
+public final class ConfigSnapshot {
+
+    private static final Logger logger = LogManager.getLogger(ConfigSnapshot.class);
+    private static final String CONFIG_FILE = "/config.properties";
+    private static final String PROFILE_FILE = "/config-%s.properties";
+    private static final String PROFILE_KEY = "config.profile";
+
+    private final String profile;
+    private final Map<String, String> values;
+    private final Map<String, Object> typedValues;
+
+    // Hot path values
+    private final String baseUrl;
+    private final String browser;
+    private final boolean headless;
+    private final int implicitWait;
+    private final int explicitWait;
+    private final String screenshotsPath;
+
+    private ConfigSnapshot(String profile, Map<String, String> values) {
+        this.profile = profile;
+        this.values = Collections.unmodifiableMap(new HashMap<>(values));
+        this.typedValues = Collections.unmodifiableMap(parseTypedValues(values));
+        this.baseUrl = values.get("baseUrl");
+        this.browser = values.get("browser");
+        this.headless = (Boolean) typedValues.get("headless");
+        this.implicitWait = (Integer) typedValues.get("implicitWait");
+        this.explicitWait = (Integer) typedValues.get("explicitWait");
+        this.screenshotsPath = values.get("screenshotsPath");
+    }
+
+    /**
+     * Resolve all configuration layers into a validated snapshot
+     *
+     * @return Snapshot of the current configuration
+     * @throws IllegalStateException if any registered key has a malformed value
+     */
+    public static ConfigSnapshot load() {
+        Map<String, String> values = new LinkedHashMap<>();
+        ConfigKeys.getDefinitions().forEach((key, definition) -> values.put(key, definition.getDefaultValue()));
+
+        Properties fileProperties = loadResource(CONFIG_FILE);
+        if (fileProperties == null) {
+            logger.error("Configuration file not found in classpath: " + CONFIG_FILE);
+        } else {
+            fileProperties.stringPropertyNames().forEach(key -> values.put(key, fileProperties.getProperty(key)));
+            logger.info("Configuration loaded successfully from classpath: " + CONFIG_FILE);
+        }
+
+        String profile = firstNonNull(System.getProperty(PROFILE_KEY),
+                System.getenv(ConfigKeys.toEnvironmentVariable(PROFILE_KEY)),
+                values.get(PROFILE_KEY));
+        if (profile != null && !profile.isEmpty()) {
+            String profileFile = String.format(PROFILE_FILE, profile);
+            Properties profileProperties = loadResource(profileFile);
+            if (profileProperties == null) {
+                logger.warn("Configuration profile '{}' has no file in classpath: {}", profile, profileFile);
+            } else {
+                profileProperties.stringPropertyNames()
+                        .forEach(key -> values.put(key, profileProperties.getProperty(key)));
+                logger.info("Configuration profile '{}' applied from: {}", profile, profileFile);
+            }
+        }
+
+        // Environment variables and system properties only override keys the framework knows about
+        for (String key : new ArrayList<>(values.keySet())) {
+            String envValue = System.getenv(ConfigKeys.toEnvironmentVariable(key));
+            if (envValue != null) {
+                values.put(key, envValue);
+            }
+            String sysValue = System.getProperty(key);
+            if (sysValue != null) {
+                values.put(key, sysValue);
+            }
+        }
+
+        validate(values);
+        return new ConfigSnapshot(profile, values);
+    }
+
+    /**
+     * Create a copy of this snapshot with some keys replaced
+     *
+     * @param overrides Keys and values to replace
+     * @return New snapshot
+     * @throws IllegalStateException if an override has a malformed value
+     */
+    public ConfigSnapshot withOverrides(Map<String, String> overrides) {
+        Map<String, String> merged = new LinkedHashMap<>(values);
+        merged.putAll(overrides);
+        validate(overrides);
+        return new ConfigSnapshot(profile, merged);
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public Map<String, String> asMap() {
+        return values;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Object value = typedValues.get(key);
+        return value instanceof Integer ? (Integer) value : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Object value = typedValues.get(key);
+        return value instanceof Long ? (Long) value : defaultValue;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = typedValues.get(key);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        Object value = typedValues.get(key);
+        return value instanceof Double ? (Double) value : defaultValue;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    public int getImplicitWait() {
+        return implicitWait;
+    }
+
+    public int getExplicitWait() {
+        return explicitWait;
+    }
+
+    public String getScreenshotsPath() {
+        return screenshotsPath;
+    }
+
+    /**
+     * Report unknown keys and reject malformed values of registered keys
+     */
+    private static void validate(Map<String, String> values) {
+        List<String> errors = new ArrayList<>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            ConfigKeys.Definition definition = ConfigKeys.getDefinitions().get(entry.getKey());
+            if (definition == null) {
+                if (!PROFILE_KEY.equals(entry.getKey())) {
+                    logger.warn("Unknown configuration key: {}", entry.getKey());
+                }
+                continue;
+            }
+            try {
+                parse(definition.getType(), entry.getValue());
+            } catch (IllegalArgumentException e) {
+                errors.add(String.format("%s=%s is not a valid %s", entry.getKey(), entry.getValue(),
+                        definition.getType().name().toLowerCase()));
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid configuration: " + String.join("; ", errors));
+        }
+    }
+
+    private static Map<String, Object> parseTypedValues(Map<String, String> values) {
+        Map<String, Object> typed = new HashMap<>();
+        ConfigKeys.getDefinitions().forEach((key, definition) -> {
+            String value = values.get(key);
+            if (value != null) {
+                typed.put(key, parse(definition.getType(), value));
+            }
+        });
+        return typed;
+    }
+
+    private static Object parse(ConfigKeys.Type type, String value) {
+        String trimmed = value.trim();
+        switch (type) {
+            case INT:
+                return Integer.parseInt(trimmed);
+            case LONG:
+                return Long.parseLong(trimmed);
+            case DOUBLE:
+                return Double.parseDouble(trimmed);
+            case BOOLEAN:
+                if (!"true".equalsIgnoreCase(trimmed) && !"false".equalsIgnoreCase(trimmed)) {
+                    throw new IllegalArgumentException("Not a boolean: " + value);
+                }
+                return Boolean.parseBoolean(trimmed);
+            default:
+                return value;
+        }
+    }
+
+    private static Properties loadResource(String resource) {
+        try (InputStream is = ConfigSnapshot.class.getResourceAsStream(resource)) {
+            if (is == null) {
+                return null;
+            }
+            Properties properties = new Properties();
+            properties.load(is);
+            return properties;
+        } catch (IOException e) {
+            logger.error("Error loading configuration file: " + resource, e);
+            return null;
+        }
+    }
+
+    private static String firstNonNull(String... candidates) {
+        for (String candidate : candidates) {
+            if (candidate != null) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,285 @@
+package com.uiplayground.automation.core.driver;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits new browser sessions only while the machine has room for them
+ * Memory and CPU limits are read from cgroups when running in a container and from the host otherwise.
+ * Where free memory cannot be read, i.e. outside Linux, only the CPU and admission.max.browsers limits apply.
+ * Limits are re-evaluated on every admission decision so the budget follows the live state of the machine.
+ * Browsers admitted within admission.warmup.seconds still count as needing their memory, since a burst of
+ * launches would otherwise all see the same free memory.
+ */
+public final class BrowserAdmissionController {
+
+    private static final Logger logger = LogManager.getLogger(BrowserAdmissionController.class);
+    private static final long MB = 1024L * 1024L;
+
+    private static final Path CGROUP_V2_MEMORY_MAX = Paths.get("/sys/fs/cgroup/memory.max");
+    private static final Path CGROUP_V2_MEMORY_CURRENT = Paths.get("/sys/fs/cgroup/memory.current");
+    private static final Path CGROUP_V2_CPU_MAX = Paths.get("/sys/fs/cgroup/cpu.max");
+    private static final Path CGROUP_V1_MEMORY_LIMIT = Paths.get("/sys/fs/cgroup/memory/memory.limit_in_bytes");
+    private static final Path CGROUP_V1_MEMORY_USAGE = Paths.get("/sys/fs/cgroup/memory/memory.usage_in_bytes");
+    private static final Path CGROUP_V1_CPU_QUOTA = Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_quota_us");
+    private static final Path CGROUP_V1_CPU_PERIOD = Paths.get("/sys/fs/cgroup/cpu/cpu.cfs_period_us");
+    private static final Path PROC_MEMINFO = Paths.get("/proc/meminfo");
+
+    private static final ReentrantLock lock = new ReentrantLock(true);
+    private static final Condition released = lock.newCondition();
+    private static final AtomicInteger liveBrowsers = new AtomicInteger();
+    private static final AtomicInteger queuedScenarios = new AtomicInteger();
+    private static final AtomicLong totalWaitMillis = new AtomicLong();
+    private static final AtomicLong maxWaitMillis = new AtomicLong();
+    // Admission times of browsers that may not have allocated their memory yet, oldest first
+    private static final Deque<Long> recentAdmissions = new ArrayDeque<>();
+    private static final ThreadLocal<Long> lastWaitMillis = ThreadLocal.withInitial(() -> 0L);
+
+    private BrowserAdmissionController() {
+        // Utility class
+    }
+
+    /**
+     * Block until a new browser fits in the current resource budget
+     *
+     * @throws IllegalStateException if no slot became available within admission.timeout.seconds
+     */
+    public static void acquire() {
+        if (!isEnabled()) {
+            lastWaitMillis.set(0L);
+            liveBrowsers.incrementAndGet();
+            return;
+        }
+        long start = System.nanoTime();
+        long timeoutNanos = TimeUnit.SECONDS.toNanos(getLong("admission.timeout.seconds", 300));
+        long pollMillis = getLong("admission.poll.interval.ms", 250);
+        boolean queued = false;
+
+        lock.lock();
+        try {
+            while (!hasCapacity()) {
+                if (!queued) {
+                    queued = true;
+                    queuedScenarios.incrementAndGet();
+                    long available = availableMemoryBytes();
+                    logger.info("Browser admission queued: {} live browsers, {} MB available", liveBrowsers.get(),
+                            available < 0 ? "unknown" : String.valueOf(available / MB));
+                }
+                if (System.nanoTime() - start > timeoutNanos) {
+                    throw new IllegalStateException("Timed out waiting for browser admission after "
+                            + TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) + "s");
+                }
+                // Wake up on release, but also poll so the budget adapts to memory freed elsewhere
+                released.await(pollMillis, TimeUnit.MILLISECONDS);
+            }
+            liveBrowsers.incrementAndGet();
+            recentAdmissions.addLast(System.nanoTime());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for browser admission", e);
+        } finally {
+            if (queued) {
+                queuedScenarios.decrementAndGet();
+            }
+            lock.unlock();
+        }
+
+        long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        lastWaitMillis.set(waited);
+        totalWaitMillis.addAndGet(waited);
+        maxWaitMillis.accumulateAndGet(waited, Math::max);
+        if (queued) {
+            logger.info("Browser admitted after waiting {} ms ({} live)", waited, liveBrowsers.get());
+        }
+    }
+
+    /**
+     * Return a browser slot after the session has quit
+     */
+    public static void release() {
+        liveBrowsers.updateAndGet(count -> Math.max(0, count - 1));
+        lock.lock();
+        try {
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the time the current thread waited for its last admission
+     *
+     * @return Wait time in milliseconds
+     */
+    public static long getLastWaitMillis() {
+        return lastWaitMillis.get();
+    }
+
+    /**
+     * Get the total admission wait time across all threads
+     *
+     * @return Wait time in milliseconds
+     */
+    public static long getTotalWaitMillis() {
+        return totalWaitMillis.get();
+    }
+
+    /**
+     * Get the longest single admission wait
+     *
+     * @return Wait time in milliseconds
+     */
+    public static long getMaxWaitMillis() {
+        return maxWaitMillis.get();
+    }
+
+    /**
+     * Get the number of browsers currently admitted
+     *
+     * @return Live browser count
+     */
+    public static int getLiveBrowsers() {
+        return liveBrowsers.get();
+    }
+
+    /**
+     * Get the number of scenarios currently waiting for admission
+     *
+     * @return Queued scenario count
+     */
+    public static int getQueuedScenarios() {
+        return queuedScenarios.get();
+    }
+
+    private static boolean hasCapacity() {
+        int live = liveBrowsers.get();
+        if (live == 0) {
+            // Always let one browser through, otherwise a small machine would deadlock
+            return true;
+        }
+        long maxBrowsers = getLong("admission.max.browsers", 0);
+        if (maxBrowsers > 0 && live >= maxBrowsers) {
+            return false;
+        }
+        double browsersPerCpu = ConfigManager.getInstance().getDouble("admission.browsers.per.cpu", 1.0);
+        if (live >= Math.max(1, (int) (availableCpus() * browsersPerCpu))) {
+            return false;
+        }
+        long available = availableMemoryBytes();
+        if (available < 0) {
+            // No reliable reading, so no memory limit
+            return true;
+        }
+        long browserMemory = getLong("admission.browser.memory.mb", 400) * MB;
+        long required = browserMemory * (1 + startingBrowsers(live)) + getLong("admission.memory.reserve.mb", 512) * MB;
+        return available >= required;
+    }
+
+    /**
+     * Count browsers admitted within admission.warmup.seconds; their memory is not yet visible as used
+     * Called with the lock held.
+     */
+    private static int startingBrowsers(int live) {
+        long cutoff = System.nanoTime() - TimeUnit.SECONDS.toNanos(getLong("admission.warmup.seconds", 30));
+        while (!recentAdmissions.isEmpty() && recentAdmissions.peekFirst() - cutoff < 0) {
+            recentAdmissions.pollFirst();
+        }
+        return Math.min(recentAdmissions.size(), live);
+    }
+
+    private static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("admission.enabled", true);
+    }
+
+    private static long getLong(String key, long defaultValue) {
+        return ConfigManager.getInstance().getLong(key, defaultValue);
+    }
+
+    /**
+     * Available memory, honoring the cgroup limit when one is set
+     *
+     * @return Bytes available, or -1 if unknown
+     */
+    static long availableMemoryBytes() {
+        long cgroupLimit = readLong(CGROUP_V2_MEMORY_MAX);
+        long cgroupUsage = readLong(CGROUP_V2_MEMORY_CURRENT);
+        if (cgroupLimit <= 0) {
+            cgroupLimit = readLong(CGROUP_V1_MEMORY_LIMIT);
+            cgroupUsage = readLong(CGROUP_V1_MEMORY_USAGE);
+        }
+        long hostAvailable = hostAvailableMemoryBytes();
+        // cgroup v1 reports "unlimited" as a huge number, taking the minimum with the host handles that
+        if (cgroupLimit > 0 && cgroupUsage >= 0) {
+            long cgroupAvailable = Math.max(0, cgroupLimit - cgroupUsage);
+            return hostAvailable > 0 ? Math.min(cgroupAvailable, hostAvailable) : cgroupAvailable;
+        }
+        return hostAvailable;
+    }
+
+    /**
+     * Available CPUs, honoring the cgroup CPU quota when one is set
+     */
+    static double availableCpus() {
+        double cpus = Runtime.getRuntime().availableProcessors();
+        try {
+            if (Files.isReadable(CGROUP_V2_CPU_MAX)) {
+                String[] parts = Files.readAllLines(CGROUP_V2_CPU_MAX).get(0).trim().split("\\s+");
+                if (!"max".equals(parts[0])) {
+                    cpus = Math.min(cpus, Double.parseDouble(parts[0]) / Double.parseDouble(parts[1]));
+                }
+            } else {
+                long quota = readLong(CGROUP_V1_CPU_QUOTA);
+                long period = readLong(CGROUP_V1_CPU_PERIOD);
+                if (quota > 0 && period > 0) {
+                    cpus = Math.min(cpus, (double) quota / period);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Could not read cgroup CPU quota", e);
+        }
+        return cpus;
+    }
+
+    private static long hostAvailableMemoryBytes() {
+        try {
+            if (Files.isReadable(PROC_MEMINFO)) {
+                List<String> lines = Files.readAllLines(PROC_MEMINFO);
+                for (String line : lines) {
+                    if (line.startsWith("MemAvailable:")) {
+                        return Long.parseLong(line.replaceAll("\\D", "")) * 1024L;
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Could not read /proc/meminfo", e);
+        }
+        // Free physical memory elsewhere excludes reclaimable caches and would block admission on an idle machine
+        return -1;
+    }
+
+    private static long readLong(Path path) {
+        try {
+            if (Files.isReadable(path)) {
+                String value = Files.readAllLines(path).get(0).trim();
+                return "max".equals(value) ? -1 : Long.parseLong(value);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Could not read " + path, e);
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,484 @@
+package com.uiplayground.automation.core.driver;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs several scenarios in isolated browser contexts of one Chrome process
+ * A host session owns each Chrome process. Each scenario gets a new browser context in a host with fewer than
+ * browser.contexts.per.process contexts: created over the browser's DevTools endpoint, with its own cookies,
+ * storage and cache, and opened in a ChromeDriver session attached to the host by debuggerAddress. Releasing the
+ * lease disposes the context and everything in it; hosts stay up until shutdown. A new host is launched outside
+ * the pool lock: scenarios that reserved a slot in it wait until it is up, and move to a slot that is released
+ * in a running host meanwhile. A host whose DevTools connection breaks is taken out of the pool and quit once its
+ * last lease is released.
+ */
+public final class BrowserContextPool {
+
+    private static final Logger logger = LogManager.getLogger(BrowserContextPool.class);
+    private static final Json JSON = new Json();
+
+    /**
+     * One browser process and its browser level DevTools connection, or a reservation for one being launched
+     */
+    private static final class Host {
+
+        private WebDriver session;
+        private String debuggerAddress;
+        private DevToolsConnection devTools;
+        private int contexts;
+        private boolean evicted;
+
+        private boolean isStarted() {
+            return session != null;
+        }
+    }
+
+    /**
+     * Browser context leased to one scenario
+     */
+    static final class Lease {
+
+        private final Host host;
+        private final String browserContextId;
+        private final WebDriver session;
+
+        private Lease(Host host, String browserContextId, WebDriver session) {
+            this.host = host;
+            this.browserContextId = browserContextId;
+            this.session = session;
+        }
+
+        WebDriver getSession() {
+            return session;
+        }
+    }
+
+    private static final List<Host> hosts = new ArrayList<>();
+    private static final ReentrantLock lock = new ReentrantLock();
+    private static final Condition hostsChanged = lock.newCondition();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> quitHosts(true), "browser-context-pool-shutdown"));
+    }
+
+    private BrowserContextPool() {
+        // Utility class
+    }
+
+    /**
+     * Check whether Chrome scenarios share browser processes
+     *
+     * @return true if browser.contexts.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("browser.contexts.enabled", false);
+    }
+
+    /**
+     * Lease a new browser context, launching a host if all hosts are full
+     *
+     * @param hostLauncher Starts a Chrome session that owns its browser process
+     * @param attacher     Starts a ChromeDriver session attached to a debugger address
+     * @return Lease whose session is switched to the new context's page
+     */
+    static Lease lease(Supplier<WebDriver> hostLauncher, Function<String, WebDriver> attacher) {
+        Host host = reserveHost(hostLauncher);
+        String browserContextId = null;
+        try {
+            browserContextId = (String) send(host, "Target.createBrowserContext",
+                    Map.of("disposeOnDetach", false)).get("browserContextId");
+            String targetId = (String) send(host, "Target.createTarget", Map.of("url", "about:blank",
+                    "browserContextId", browserContextId, "width", 1920, "height", 1080)).get("targetId");
+            WebDriver session = attacher.apply(host.debuggerAddress);
+            try {
+                session.switchTo().window(findWindowHandle(session, targetId));
+            } catch (RuntimeException e) {
+                session.quit();
+                throw e;
+            }
+            logger.debug("Leased browser context {} in Chrome at {}", browserContextId, host.debuggerAddress);
+            return new Lease(host, browserContextId, session);
+        } catch (RuntimeException e) {
+            if (browserContextId != null) {
+                disposeQuietly(host, browserContextId);
+            }
+            releaseSlot(host);
+            throw e;
+        }
+    }
+
+    /**
+     * Dispose a leased context after its session has quit
+     *
+     * @param lease Lease
+     */
+    static void release(Lease lease) {
+        disposeQuietly(lease.host, lease.browserContextId);
+        releaseSlot(lease.host);
+    }
+
+    /**
+     * Quit the host browsers that have no leased contexts
+     * Hosts still in use by another runner stay up; the rest are quit when the JVM exits.
+     */
+    public static void quitIdleHosts() {
+        quitHosts(false);
+    }
+
+    private static void quitHosts(boolean all) {
+        List<Host> idle = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Iterator<Host> iterator = hosts.iterator(); iterator.hasNext(); ) {
+                Host host = iterator.next();
+                // A host still being launched has no browser yet; its launcher holds a slot in it
+                if (host.isStarted() && (all || host.contexts == 0)) {
+                    iterator.remove();
+                    idle.add(host);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Host host : idle) {
+            quit(host);
+        }
+        if (!idle.isEmpty()) {
+            logger.info("Quit {} shared browser processes", idle.size());
+        }
+    }
+
+    /**
+     * Take a context slot in a host with room, launching a new host if there is none
+     * Only the reservation is made under the lock; admission and the browser launch happen outside it.
+     */
+    private static Host reserveHost(Supplier<WebDriver> hostLauncher) {
+        int perProcess = Math.max(1, ConfigManager.getInstance().getInt("browser.contexts.per.process", 4));
+        Host reserved = null;
+        lock.lock();
+        try {
+            while (true) {
+                Host started = findHostWithRoom(perProcess, true);
+                if (started != null) {
+                    if (reserved != null) {
+                        reserved.contexts--;
+                    }
+                    started.contexts++;
+                    return started;
+                }
+                if (reserved != null && reserved.isStarted()) {
+                    return reserved;
+                }
+                if (reserved == null || !hosts.contains(reserved)) {
+                    // Nothing reserved yet, or the launch we waited for failed
+                    reserved = findHostWithRoom(perProcess, false);
+                    if (reserved == null) {
+                        reserved = new Host();
+                        reserved.contexts++;
+                        hosts.add(reserved);
+                        break;
+                    }
+                    reserved.contexts++;
+                }
+                try {
+                    hostsChanged.await();
+                } catch (InterruptedException e) {
+                    reserved.contexts--;
+                    Thread.currentThread().interrupt();
+                    throw new WebDriverException("Interrupted while waiting for a shared browser process", e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return launch(reserved, hostLauncher, perProcess);
+    }
+
+    /**
+     * Start the browser process of a reserved host and wake the scenarios waiting for it
+     */
+    private static Host launch(Host host, Supplier<WebDriver> hostLauncher, int perProcess) {
+        WebDriver session = null;
+        try {
+            session = hostLauncher.get();
+            String debuggerAddress = getDebuggerAddress(session);
+            DevToolsConnection devTools = DevToolsConnection.open(debuggerAddress);
+            lock.lock();
+            try {
+                host.session = session;
+                host.debuggerAddress = debuggerAddress;
+                host.devTools = devTools;
+                hostsChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            logger.info("Started shared browser process at {} for up to {} contexts", debuggerAddress, perProcess);
+            return host;
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                hosts.remove(host);
+                hostsChanged.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (session != null) {
+                session.quit();
+                BrowserAdmissionController.release();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * First host with a free context slot; call with the lock held
+     *
+     * @param started true for running hosts, false for hosts still being launched
+     */
+    private static Host findHostWithRoom(int perProcess, boolean started) {
+        for (Host host : hosts) {
+            if (host.isStarted() == started && host.contexts < perProcess) {
+                return host;
+            }
+        }
+        return null;
+    }
+
+    private static void releaseSlot(Host host) {
+        boolean quit;
+        lock.lock();
+        try {
+            host.contexts--;
+            quit = host.evicted && host.contexts == 0;
+            hostsChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (quit) {
+            quit(host);
+            logger.info("Quit broken shared browser process at {}", host.debuggerAddress);
+        }
+    }
+
+    /**
+     * Send a DevTools command to a host, taking the host out of the pool if its connection broke
+     */
+    private static Map<String, Object> send(Host host, String method, Map<String, Object> params) {
+        try {
+            return host.devTools.send(method, params);
+        } catch (RuntimeException e) {
+            if (!host.devTools.isOpen()) {
+                evict(host);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stop leasing contexts in a host; it is quit when its last lease is released
+     */
+    private static void evict(Host host) {
+        lock.lock();
+        try {
+            if (hosts.remove(host)) {
+                host.evicted = true;
+                hostsChanged.signalAll();
+                logger.warn("Removed shared browser process at {} from the pool: its DevTools connection broke",
+                        host.debuggerAddress);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void quit(Host host) {
+        host.devTools.close();
+        try {
+            host.session.quit();
+        } catch (WebDriverException e) {
+            logger.warn("Could not quit host browser at {}: {}", host.debuggerAddress, e.getMessage());
+        }
+        BrowserAdmissionController.release();
+    }
+
+    private static String getDebuggerAddress(WebDriver session) {
+        Object options = ((HasCapabilities) session).getCapabilities().getCapability("goog:chromeOptions");
+        Object address = options instanceof Map ? ((Map<?, ?>) options).get("debuggerAddress") : null;
+        if (address == null) {
+            throw new WebDriverException("Chrome session reports no debuggerAddress");
+        }
+        return address.toString();
+    }
+
+    /**
+     * ChromeDriver names windows by DevTools target id
+     */
+    private static String findWindowHandle(WebDriver session, String targetId) {
+        for (String handle : session.getWindowHandles()) {
+            if (handle.toUpperCase().endsWith(targetId.toUpperCase())) {
+                return handle;
+            }
+        }
+        throw new WebDriverException("Attached session does not see the page of its browser context: " + targetId);
+    }
+
+    private static void disposeQuietly(Host host, String browserContextId) {
+        try {
+            send(host, "Target.disposeBrowserContext", Map.of("browserContextId", browserContextId));
+        } catch (RuntimeException e) {
+            logger.warn("Could not dispose browser context {}: {}", browserContextId, e.getMessage());
+        }
+    }
+
+    /**
+     * Minimal client for the browser level DevTools WebSocket, which owns browser contexts
+     */
+    private static final class DevToolsConnection implements WebSocket.Listener {
+
+        private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+        private final Map<Integer, CompletableFuture<Map<String, Object>>> pending = new ConcurrentHashMap<>();
+        private final AtomicInteger ids = new AtomicInteger();
+        private final StringBuilder message = new StringBuilder();
+        private WebSocket socket;
+        private volatile Throwable failure;
+
+        static DevToolsConnection open(String debuggerAddress) {
+            HttpClient client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+            DevToolsConnection connection = new DevToolsConnection();
+            try {
+                String version = client.send(HttpRequest.newBuilder(URI.create("http://" + debuggerAddress
+                        + "/json/version")).timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofString()).body();
+                Object url = JSON.<Map<String, Object>>toType(version, Json.MAP_TYPE).get("webSocketDebuggerUrl");
+                if (url == null) {
+                    throw new WebDriverException("No browser DevTools endpoint at " + debuggerAddress);
+                }
+                connection.socket = client.newWebSocketBuilder().connectTimeout(TIMEOUT)
+                        .buildAsync(URI.create(url.toString()), connection)
+                        .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                return connection;
+            } catch (IOException | ExecutionException | TimeoutException e) {
+                throw new WebDriverException("Could not connect to browser DevTools at " + debuggerAddress, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException("Interrupted while connecting to browser DevTools", e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> send(String method, Map<String, Object> params) {
+            int id = ids.incrementAndGet();
+            CompletableFuture<Map<String, Object>> response = new CompletableFuture<>();
+            pending.put(id, response);
+            // Checked after registering, so a connection failing now still completes this response
+            Throwable broken = failure;
+            if (broken != null) {
+                pending.remove(id);
+                throw new WebDriverException(method + " failed: DevTools connection is broken", broken);
+            }
+            Map<String, Object> command = new HashMap<>();
+            command.put("id", id);
+            command.put("method", method);
+            command.put("params", params);
+            try {
+                // A WebSocket accepts one outstanding send at a time
+                synchronized (this) {
+                    socket.sendText(JSON.toJson(command), true).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                }
+                Map<String, Object> reply = response.get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                if (reply.containsKey("error")) {
+                    throw new WebDriverException(method + " failed: " + reply.get("error"));
+                }
+                Object result = reply.get("result");
+                return result instanceof Map ? (Map<String, Object>) result : Map.of();
+            } catch (ExecutionException | TimeoutException e) {
+                // The connection can no longer be trusted to deliver replies
+                fail(e);
+                socket.abort();
+                throw new WebDriverException(method + " failed", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException("Interrupted during " + method, e);
+            } finally {
+                pending.remove(id);
+            }
+        }
+
+        boolean isOpen() {
+            return failure == null;
+        }
+
+        void close() {
+            if (socket != null) {
+                socket.abort();
+            }
+        }
+
+        private void fail(Throwable error) {
+            if (failure == null) {
+                failure = error;
+            }
+            pending.values().forEach(response -> response.completeExceptionally(error));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            message.append(data);
+            if (last) {
+                Map<String, Object> reply = JSON.toType(message.toString(), Json.MAP_TYPE);
+                message.setLength(0);
+                Object id = reply.get("id");
+                if (id instanceof Number) {
+                    CompletableFuture<Map<String, Object>> response = pending.get(((Number) id).intValue());
+                    if (response != null) {
+                        response.complete(reply);
+                    }
+                }
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            fail(new WebDriverException("Browser DevTools connection closed: " + statusCode + " " + reason));
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            fail(error);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.uiplayground.automation.core.driver;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.load.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Measures what a browser session costs in the current browser mode: one browser process per scenario
+ * ("process") or isolated contexts in shared processes ("contexts")
+ * Session start latency is recorded for every browser session. Memory is the proportional set size of all
+ * browser and driver processes below this JVM divided by the live sessions, sampled when a session ends; the
+ * sample at the highest concurrency is kept. Each mode's figures are saved to browser.footprint.file so a run
+ * in one mode is reported next to the last run in the other.
+ */
+public final class BrowserFootprint {
+
+    private static final Logger logger = LogManager.getLogger(BrowserFootprint.class);
+    private static final String DEFAULT_FOOTPRINT_FILE = "reports/browser-footprint.properties";
+    private static final String[] MODES = {"process", "contexts"};
+    private static final long KB = 1024L;
+
+    private static final LatencyHistogram startMillis = new LatencyHistogram();
+    private static final AtomicInteger liveSessions = new AtomicInteger();
+    private static final AtomicInteger peakSampledSessions = new AtomicInteger();
+    private static final AtomicLong peakSampleBytesPerSession = new AtomicLong();
+    private static volatile String mode;
+
+    private BrowserFootprint() {
+        // Utility class
+    }
+
+    /**
+     * Record a browser session that just became usable
+     *
+     * @param sessionMode "process" or "contexts"
+     * @param startNanos  System.nanoTime() when the session was requested
+     */
+    public static void sessionStarted(String sessionMode, long startNanos) {
+        mode = sessionMode;
+        liveSessions.incrementAndGet();
+        startMillis.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    /**
+     * Sample memory per live session, then count the session as ended
+     * Call before the session quits so its memory is still included.
+     */
+    public static void sessionEnded() {
+        int sessions = liveSessions.getAndDecrement();
+        if (sessions <= 0 || !ConfigManager.getInstance().getBoolean("browser.footprint.enabled", true)) {
+            return;
+        }
+        synchronized (BrowserFootprint.class) {
+            if (sessions < peakSampledSessions.get()) {
+                return;
+            }
+            long bytes = sampleBrowserMemory();
+            if (bytes > 0) {
+                peakSampledSessions.set(sessions);
+                peakSampleBytesPerSession.set(bytes / sessions);
+            }
+        }
+    }
+
+    /**
+     * Describe the cost per session of this run, next to the last run in the other mode
+     *
+     * @return Summary, or null if no browser session was started
+     */
+    public static String getSummary() {
+        String current = mode;
+        if (current == null) {
+            return null;
+        }
+        StringBuilder summary = new StringBuilder(current).append(": ").append(describe(currentFigures()));
+        Properties saved = load();
+        for (String other : MODES) {
+            if (!other.equals(current) && saved.getProperty(other + ".sessions") != null) {
+                summary.append("; last ").append(other).append(" run: ").append(describe(figuresOf(saved, other)));
+            }
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Save this run's figures for its mode to the footprint file
+     */
+    public static synchronized void save() {
+        String current = mode;
+        if (current == null) {
+            return;
+        }
+        Properties footprint = load();
+        currentFigures().forEach((key, value) -> footprint.setProperty(current + "." + key, (String) value));
+        Path file = getFootprintFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream os = Files.newOutputStream(file)) {
+                footprint.store(os, "Browser session cost per mode, from the last run in that mode");
+            }
+            logger.info("Saved {} mode browser footprint to: {}", current, file);
+        } catch (IOException e) {
+            logger.error("Failed to save browser footprint", e);
+        }
+    }
+
+    private static Properties currentFigures() {
+        Properties figures = new Properties();
+        figures.setProperty("sessions", String.valueOf(startMillis.getTotalCount()));
+        figures.setProperty("start.p50.ms", String.valueOf(startMillis.getValueAtPercentile(50)));
+        figures.setProperty("start.p95.ms", String.valueOf(startMillis.getValueAtPercentile(95)));
+        figures.setProperty("memory.mb.per.session", String.valueOf(peakSampleBytesPerSession.get() / (KB * KB)));
+        figures.setProperty("concurrent.sessions", String.valueOf(peakSampledSessions.get()));
+        return figures;
+    }
+
+    private static Properties figuresOf(Properties saved, String savedMode) {
+        Properties figures = new Properties();
+        saved.stringPropertyNames().stream().filter(key -> key.startsWith(savedMode + "."))
+                .forEach(key -> figures.setProperty(key.substring(savedMode.length() + 1), saved.getProperty(key)));
+        return figures;
+    }
+
+    private static String describe(Properties figures) {
+        String description = String.format(Locale.ROOT, "%s sessions, start p50 %s ms p95 %s ms",
+                figures.getProperty("sessions", "0"), figures.getProperty("start.p50.ms", "?"),
+                figures.getProperty("start.p95.ms", "?"));
+        if (!"0".equals(figures.getProperty("memory.mb.per.session", "0"))) {
+            description += String.format(Locale.ROOT, ", %s MB per session at %s concurrent",
+                    figures.getProperty("memory.mb.per.session"), figures.getProperty("concurrent.sessions"));
+        }
+        return description;
+    }
+
+    /**
+     * Sum the proportional set size of all processes started below this JVM
+     * PSS splits pages shared between browser processes fairly, so shared processes are not counted twice.
+     *
+     * @return Bytes, or 0 where /proc is not available
+     */
+    private static long sampleBrowserMemory() {
+        try (Stream<ProcessHandle> processes = ProcessHandle.current().descendants()) {
+            return processes.mapToLong(process -> memoryOf(process.pid())).sum();
+        }
+    }
+
+    private static long memoryOf(long pid) {
+        long rss = 0;
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc", String.valueOf(pid), "smaps_rollup"))) {
+                if (line.startsWith("Pss:")) {
+                    return parseKb(line) * KB;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Older kernels have no smaps_rollup; fall back to the resident set size
+        }
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    rss = parseKb(line) * KB;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // The process exited or /proc is not available
+        }
+        return rss;
+    }
+
+    private static long parseKb(String line) {
+        return Long.parseLong(line.replaceAll("[^0-9]", ""));
+    }
+
+    private static Properties load() {
+        Properties footprint = new Properties();
+        Path file = getFootprintFile();
+        if (Files.exists(file)) {
+            try (InputStream is = Files.newInputStream(file)) {
+                footprint.load(is);
+            } catch (IOException e) {
+                logger.warn("Could not read browser footprint from: {}", file);
+            }
+        }
+        return footprint;
+    }
+
+    private static Path getFootprintFile() {
+        return Paths.get(ConfigManager.getInstance().getProperty("browser.footprint.file", DEFAULT_FOOTPRINT_FILE));
+    }
+}
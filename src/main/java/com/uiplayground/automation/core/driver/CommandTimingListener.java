@@ -0,0 +1,67 @@
+package com.uiplayground.automation.core.driver;
+
+import com.uiplayground.automation.core.metrics.CommandMetrics;
+import com.uiplayground.automation.pages.base.BasePage;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Times every WebDriver, element, navigation and options command of one session
+ * Failed commands are timed too, since failing lookups inside waits are often where the time goes.
+ * A session is only used by the thread that created it, so no synchronization is needed.
+ */
+class CommandTimingListener implements WebDriverListener {
+
+    private static final String NO_PAGE = "-";
+    private static final StackWalker stackWalker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final Deque<Long> startTimes = new ArrayDeque<>();
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (isCommand(method)) {
+            startTimes.push(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method);
+    }
+
+    private void finish(Method method) {
+        if (isCommand(method) && !startTimes.isEmpty()) {
+            long elapsed = System.nanoTime() - startTimes.pop();
+            CommandMetrics.record(method.getDeclaringClass().getSimpleName() + "." + method.getName(),
+                    currentPage(), elapsed);
+        }
+    }
+
+    /**
+     * equals and hashCode are called by element caches, not by tests
+     */
+    private static boolean isCommand(Method method) {
+        return method.getDeclaringClass() != Object.class;
+    }
+
+    /**
+     * Innermost page object on the call stack, e.g. HomePage for a lookup made by HomePage.getPageTitleText
+     */
+    private static String currentPage() {
+        return stackWalker.walk(frames -> frames
+                .map(StackWalker.StackFrame::getDeclaringClass)
+                .filter(type -> type != BasePage.class && BasePage.class.isAssignableFrom(type))
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElse(NO_PAGE));
+    }
+}
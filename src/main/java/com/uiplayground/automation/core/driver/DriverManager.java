@@ -1,6 +1,7 @@
 package com.uiplayground.automation.core.driver;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.Proxy;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
@@ -8,8 +9,20 @@ import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
 
 import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.execution.ImpactAnalyzer;
+import com.uiplayground.automation.core.execution.StartupProfiler;
+import com.uiplayground.automation.core.jfr.DriverEvent;
+import com.uiplayground.automation.core.metrics.CommandMetrics;
+import com.uiplayground.automation.core.server.AssetCacheProxy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -21,7 +34,13 @@ import org.apache.logging.log4j.Logger;
 public class DriverManager {
 
     private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> admitted = ThreadLocal.withInitial(() -> false);
+    private static final ThreadLocal<BrowserContextPool.Lease> contextLease = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> launched = ThreadLocal.withInitial(() -> false);
     private static final Logger logger = LogManager.getLogger(DriverManager.class);
+    private static final Set<String> resolvedBrowsers = ConcurrentHashMap.newKeySet();
+    // Chromium skips the proxy for localhost unless loopback is removed from the implicit bypass list
+    private static final String PROXY_LOOPBACK = "--proxy-bypass-list=<-loopback>";
 
     private DriverManager() {
         // Private constructor to prevent instantiation
@@ -39,12 +58,71 @@ public class DriverManager {
         return driver.get();
     }
 
+    /**
+     * Use an externally created driver for the current thread, e.g. a stub in benchmarks
+     * The driver does not take a browser admission slot
+     *
+     * @param webDriver Driver to use
+     */
+    public static void setDriver(WebDriver webDriver) {
+        driver.set(webDriver);
+        admitted.set(false);
+    }
+
     /**
      * Initialize a new WebDriver instance based on browser configuration
      */
     public static void initializeDriver() {
         logger.info("Initializing WebDriver");
+        DriverEvent event = new DriverEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            driver.set(instrument(launchBrowser()));
+            succeeded = true;
+        } finally {
+            commitEvent(event, "launch", ConfigManager.getInstance().getBrowser(), succeeded);
+        }
+        logger.info("WebDriver initialized successfully");
+    }
 
+    /**
+     * Initialize the browserless static page driver for the current thread
+     * It takes no admission slot until an unsupported command makes it start a real browser.
+     */
+    public static void initializeStaticDriver() {
+        logger.info("Initializing static page driver");
+        DriverEvent event = new DriverEvent();
+        event.begin();
+        setDriver(instrument(new StaticPageDriver(DriverManager::launchBrowser)));
+        commitEvent(event, "launch", "static", true);
+    }
+
+    /**
+     * Time every command of the session when metrics.commands.enabled is set and report the locators
+     * it looks up when impact.recording.enabled is set
+     */
+    private static WebDriver instrument(WebDriver webDriver) {
+        List<WebDriverListener> listeners = new ArrayList<>();
+        if (CommandMetrics.isEnabled()) {
+            listeners.add(new CommandTimingListener());
+        }
+        if (ImpactAnalyzer.isRecording()) {
+            listeners.add(new LocatorUsageListener());
+        }
+        if (listeners.isEmpty()) {
+            return webDriver;
+        }
+        return new EventFiringDecorator<>(listeners.toArray(new WebDriverListener[0])).decorate(webDriver);
+    }
+
+    /**
+     * Start a browser session for the current thread, holding an admission slot until quitDriver
+     * With browser.contexts.enabled, a Chrome session is an isolated context in a shared browser process instead.
+     *
+     * @return Browser session
+     */
+    private static WebDriver launchBrowser() {
         String browser = ConfigManager.getInstance().getBrowser();
         boolean headless = ConfigManager.getInstance().isHeadless();
 
@@ -55,47 +133,159 @@ public class DriverManager {
         browser = browser.toLowerCase();
         logger.info("Initializing WebDriver for browser: {} (headless: {})", browser, headless);
 
+        resolveDriverBinary(browser);
+        long start = System.nanoTime();
+        if (BrowserContextPool.isEnabled()) {
+            if ("chrome".equals(browser)) {
+                WebDriver webDriver = leaseContext(headless);
+                BrowserFootprint.sessionStarted("contexts", start);
+                launched.set(true);
+                return webDriver;
+            }
+            logger.warn("Browser contexts are only supported for Chrome; starting a {} process", browser);
+        }
+        BrowserAdmissionController.acquire();
+        admitted.set(true);
+        WebDriver webDriver = null;
+        try {
+            webDriver = createDriver(browser, headless);
+            webDriver.manage().window().maximize();
+            BrowserFootprint.sessionStarted("process", start);
+            launched.set(true);
+            return webDriver;
+        } catch (RuntimeException e) {
+            logger.error("Failed to initialize WebDriver", e);
+            if (webDriver != null) {
+                webDriver.quit();
+            }
+            admitted.set(false);
+            BrowserAdmissionController.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Open a new browser context in a shared Chrome process
+     * The host process takes the admission slot; the context sessions inside it do not.
+     */
+    private static WebDriver leaseContext(boolean headless) {
+        try {
+            BrowserContextPool.Lease lease = BrowserContextPool.lease(() -> {
+                BrowserAdmissionController.acquire();
+                try {
+                    return createDriver("chrome", headless);
+                } catch (RuntimeException e) {
+                    BrowserAdmissionController.release();
+                    throw e;
+                }
+            }, debuggerAddress -> {
+                ChromeOptions attachOptions = new ChromeOptions();
+                attachOptions.setExperimentalOption("debuggerAddress", debuggerAddress);
+                return new ChromeDriver(attachOptions);
+            });
+            contextLease.set(lease);
+            return lease.getSession();
+        } catch (RuntimeException e) {
+            logger.error("Failed to open a browser context", e);
+            throw e;
+        }
+    }
+
+    /**
+     * Resolve the driver binary once per browser type per JVM
+     * WebDriverManager version resolution is too slow to repeat for every scenario
+     */
+    private static void resolveDriverBinary(String browser) {
+        if (resolvedBrowsers.contains(browser)) {
+            return;
+        }
+        synchronized (resolvedBrowsers) {
+            if (resolvedBrowsers.contains(browser)) {
+                return;
+            }
+            long start = System.nanoTime();
+            switch (browser) {
+                case "firefox":
+                    WebDriverManager.firefoxdriver().setup();
+                    break;
+                case "edge":
+                    WebDriverManager.edgedriver().setup();
+                    break;
+                default:
+                    WebDriverManager.chromedriver().setup();
+            }
+            resolvedBrowsers.add(browser);
+            StartupProfiler.record("driver resolver", start);
+        }
+    }
+
+    /**
+     * Create the browser session
+     */
+    private static WebDriver createDriver(String browser, boolean headless) {
+        Proxy proxy = getAssetCacheProxy();
         switch (browser) {
             case "firefox":
-                WebDriverManager.firefoxdriver().setup();
+                FirefoxOptions firefoxOptions = new FirefoxOptions();
                 if (headless) {
-                    FirefoxOptions firefoxOptions = new FirefoxOptions();
                     firefoxOptions.addArguments("--headless");
-                    driver.set(new FirefoxDriver(firefoxOptions));
+                }
+                if (proxy != null) {
+                    firefoxOptions.setProxy(proxy);
+                    firefoxOptions.addPreference("network.proxy.allow_hijacking_localhost", true);
+                }
+                FirefoxDriver firefoxDriver = new FirefoxDriver(firefoxOptions);
+                if (headless) {
                     logger.info("Firefox started in headless mode");
-                } else {
-                    driver.set(new FirefoxDriver());
                 }
-                break;
+                return firefoxDriver;
 
             case "edge":
-                WebDriverManager.edgedriver().setup();
+                EdgeOptions edgeOptions = new EdgeOptions();
                 if (headless) {
-                    EdgeOptions edgeOptions = new EdgeOptions();
                     edgeOptions.addArguments("--headless");
-                    driver.set(new EdgeDriver(edgeOptions));
+                }
+                if (proxy != null) {
+                    edgeOptions.setProxy(proxy);
+                    edgeOptions.addArguments(PROXY_LOOPBACK);
+                }
+                EdgeDriver edgeDriver = new EdgeDriver(edgeOptions);
+                if (headless) {
                     logger.info("Edge started in headless mode");
-                } else {
-                    driver.set(new EdgeDriver());
                 }
-                break;
+                return edgeDriver;
 
             default: // Chrome
-                WebDriverManager.chromedriver().setup();
+                ChromeOptions chromeOptions = new ChromeOptions();
                 if (headless) {
-                    ChromeOptions chromeOptions = new ChromeOptions();
                     chromeOptions.addArguments("--headless");
                     chromeOptions.addArguments("--disable-gpu"); // Recommended for headless
                     chromeOptions.addArguments("--window-size=1920,1080"); // Set resolution
-                    driver.set(new ChromeDriver(chromeOptions));
+                }
+                if (proxy != null) {
+                    chromeOptions.setProxy(proxy);
+                    chromeOptions.addArguments(PROXY_LOOPBACK);
+                }
+                ChromeDriver chromeDriver = new ChromeDriver(chromeOptions);
+                if (headless) {
                     logger.info("Chrome started in headless mode");
-                } else {
-                    driver.set(new ChromeDriver());
                 }
+                return chromeDriver;
         }
+    }
 
-        driver.get().manage().window().maximize();
-        logger.info("WebDriver initialized successfully");
+    /**
+     * Route the browser through the shared static asset cache when asset.cache.enabled is set
+     * createDriver also routes loopback traffic through it, so fixture server pages are cached too
+     *
+     * @return Proxy capability, or null to connect directly
+     */
+    private static Proxy getAssetCacheProxy() {
+        if (!AssetCacheProxy.isEnabled()) {
+            return null;
+        }
+        String address = AssetCacheProxy.start();
+        return new Proxy().setHttpProxy(address).setSslProxy(address);
     }
 
     /**
@@ -104,9 +294,40 @@ public class DriverManager {
     public static void quitDriver() {
         logger.info("Quitting WebDriver");
         if (driver.get() != null) {
-            driver.get().quit();
-            driver.remove();
+            DriverEvent event = new DriverEvent();
+            event.begin();
+            boolean succeeded = false;
+            if (launched.get()) {
+                launched.set(false);
+                BrowserFootprint.sessionEnded();
+            }
+            try {
+                driver.get().quit();
+                succeeded = true;
+            } finally {
+                driver.remove();
+                BrowserContextPool.Lease lease = contextLease.get();
+                if (lease != null) {
+                    contextLease.remove();
+                    BrowserContextPool.release(lease);
+                }
+                if (admitted.get()) {
+                    admitted.set(false);
+                    BrowserAdmissionController.release();
+                }
+                commitEvent(event, "quit", ConfigManager.getInstance().getBrowser(), succeeded);
+            }
             logger.info("WebDriver quit successfully");
         }
     }
+
+    private static void commitEvent(DriverEvent event, String action, String browser, boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.driver = browser;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
 }
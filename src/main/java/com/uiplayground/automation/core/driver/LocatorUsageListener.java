@@ -0,0 +1,23 @@
+package com.uiplayground.automation.core.driver;
+
+import com.uiplayground.automation.core.execution.ImpactAnalyzer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+
+/**
+ * Reports every locator a session looks up, on the driver or below an element, to the impact analysis
+ * The typed beforeFindElement callbacks are invoked reflectively and cannot reach a package-private
+ * listener, so lookups are picked out of beforeAnyCall.
+ */
+class LocatorUsageListener implements WebDriverListener {
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (method.getName().startsWith("findElement") && args != null && args.length == 1
+                && args[0] instanceof By) {
+            ImpactAnalyzer.recordLocator((By) args[0]);
+        }
+    }
+}
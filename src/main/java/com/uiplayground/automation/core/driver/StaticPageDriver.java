@@ -0,0 +1,333 @@
+package com.uiplayground.automation.core.driver;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Selector;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Browserless WebDriver for scenarios that only read server-rendered HTML
+ * Pages are fetched over HTTP and parsed in the JVM, so @static scenarios need no browser process.
+ * Reads (find, text, attributes, visibility) are answered from the parsed DOM. Anything else, such as
+ * clicks, typing, scripts, screenshots, window management or locators the parser cannot handle, starts a
+ * real browser on the current URL and every later command goes to it (static.driver.fallback).
+ * Page scripts never run, so content rendered client-side is not visible to this driver.
+ */
+public final class StaticPageDriver implements WebDriver, TakesScreenshot, JavascriptExecutor {
+
+    private static final Logger logger = LogManager.getLogger(StaticPageDriver.class);
+    private static final String WINDOW_HANDLE = "static-page";
+
+    private static final LongAdder sessions = new LongAdder();
+    private static final LongAdder fallbacks = new LongAdder();
+    private static volatile HttpClient httpClient;
+
+    private final Supplier<WebDriver> browserLauncher;
+    private Document document;
+    private String currentUrl = "about:blank";
+    private WebDriver browser;
+
+    /**
+     * @param browserLauncher Starts the real browser used once an unsupported command is reached
+     */
+    StaticPageDriver(Supplier<WebDriver> browserLauncher) {
+        this.browserLauncher = browserLauncher;
+        sessions.increment();
+    }
+
+    /**
+     * Check whether @static scenarios should use this driver
+     *
+     * @return true if static.driver.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("static.driver.enabled", true);
+    }
+
+    /**
+     * Describe how many static sessions ran and how many needed a browser
+     *
+     * @return Summary, or null if no static session ran
+     */
+    public static String getSummary() {
+        long total = sessions.sum();
+        if (total == 0) {
+            return null;
+        }
+        return String.format(Locale.ROOT, "%d sessions, %d fell back to a browser", total, fallbacks.sum());
+    }
+
+    /**
+     * Check whether a driver is a static session that has not started a browser
+     * Optional browser-side work, such as highlighting or in-page lookups, should be skipped for it.
+     *
+     * @param context Driver, possibly decorated
+     * @return true if scripts or screenshots would start a browser
+     */
+    public static boolean isBrowserless(SearchContext context) {
+        SearchContext driver = context instanceof WrapsDriver ? ((WrapsDriver) context).getWrappedDriver() : context;
+        return driver instanceof StaticPageDriver && !((StaticPageDriver) driver).isBrowserStarted();
+    }
+
+    /**
+     * Check whether this session has switched to a real browser
+     *
+     * @return true after a fallback
+     */
+    public boolean isBrowserStarted() {
+        return browser != null;
+    }
+
+    @Override
+    public void get(String url) {
+        if (browser != null) {
+            browser.get(url);
+            return;
+        }
+        long timeoutMillis = ConfigManager.getInstance().getLong("static.driver.timeout.ms", 10000);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .header("Accept", "text/html,application/xhtml+xml")
+                .GET()
+                .build();
+        try {
+            HttpResponse<String> response = getHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+            currentUrl = response.uri().toString();
+            document = Jsoup.parse(response.body(), currentUrl);
+            logger.debug("Loaded {} ({}) without a browser", currentUrl, response.statusCode());
+        } catch (IOException e) {
+            throw new WebDriverException("Failed to load " + url, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while loading " + url, e);
+        }
+    }
+
+    @Override
+    public String getCurrentUrl() {
+        return browser != null ? browser.getCurrentUrl() : currentUrl;
+    }
+
+    @Override
+    public String getTitle() {
+        if (browser != null) {
+            return browser.getTitle();
+        }
+        return document == null ? "" : document.title();
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        if (browser != null) {
+            return browser.findElements(by);
+        }
+        if (!(by instanceof By.Remotable)) {
+            // Composite locators (ByChained, ByAll, @FindFirst) resolve through their parts
+            return by.findElements(this);
+        }
+        Elements matches = select(document, by, "findElements");
+        if (browser != null) {
+            return browser.findElements(by);
+        }
+        return wrap(null, by, matches);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        List<WebElement> elements = findElements(by);
+        if (elements.isEmpty()) {
+            throw new NoSuchElementException("No element matches " + by + " on " + currentUrl);
+        }
+        return elements.get(0);
+    }
+
+    @Override
+    public String getPageSource() {
+        if (browser != null) {
+            return browser.getPageSource();
+        }
+        return document == null ? "" : document.outerHtml();
+    }
+
+    @Override
+    public void close() {
+        quit();
+    }
+
+    @Override
+    public void quit() {
+        if (browser != null) {
+            browser.quit();
+            browser = null;
+        }
+        document = null;
+    }
+
+    @Override
+    public Set<String> getWindowHandles() {
+        return browser != null ? browser.getWindowHandles() : Collections.singleton(WINDOW_HANDLE);
+    }
+
+    @Override
+    public String getWindowHandle() {
+        return browser != null ? browser.getWindowHandle() : WINDOW_HANDLE;
+    }
+
+    @Override
+    public TargetLocator switchTo() {
+        return startBrowser("switchTo").switchTo();
+    }
+
+    @Override
+    public Navigation navigate() {
+        return startBrowser("navigate").navigate();
+    }
+
+    @Override
+    public Options manage() {
+        return startBrowser("manage").manage();
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return ((TakesScreenshot) startBrowser("getScreenshotAs")).getScreenshotAs(target);
+    }
+
+    @Override
+    public Object executeScript(String script, Object... args) {
+        return ((JavascriptExecutor) startBrowser("executeScript")).executeScript(script, args);
+    }
+
+    @Override
+    public Object executeAsyncScript(String script, Object... args) {
+        return ((JavascriptExecutor) startBrowser("executeAsyncScript")).executeAsyncScript(script, args);
+    }
+
+    /**
+     * Find elements below a root in the parsed DOM, starting the browser if the locator is unsupported
+     *
+     * @param root    Document or element to search from, null before the first page load
+     * @param by      Locator
+     * @param command Command name for the fallback log
+     * @return Matches, empty after a fallback
+     */
+    Elements select(Element root, By by, String command) {
+        if (root == null) {
+            return new Elements();
+        }
+        if (by instanceof By.Remotable) {
+            By.Remotable.Parameters parameters = ((By.Remotable) by).getRemoteParameters();
+            String value = String.valueOf(parameters.value());
+            try {
+                switch (parameters.using()) {
+                    case "css selector":
+                        return root.select(value);
+                    case "xpath":
+                        return root.selectXpath(value);
+                    case "tag name":
+                        return root.getElementsByTag(value);
+                    case "link text":
+                        return links(root, value, true);
+                    case "partial link text":
+                        return links(root, value, false);
+                    default:
+                        break;
+                }
+            } catch (Selector.SelectorParseException | IllegalArgumentException e) {
+                logger.debug("Static parser cannot evaluate {}: {}", by, e.getMessage());
+            }
+        }
+        startBrowser(command + " " + by);
+        return new Elements();
+    }
+
+    /**
+     * Wrap parsed elements, remembering how to find each of them again in a real browser
+     */
+    List<WebElement> wrap(StaticPageElement parent, By by, Elements matches) {
+        List<WebElement> elements = new ArrayList<>(matches.size());
+        for (int i = 0; i < matches.size(); i++) {
+            elements.add(new StaticPageElement(this, parent, by, i, matches.get(i)));
+        }
+        return elements;
+    }
+
+    /**
+     * Switch this session to a real browser on the current page
+     *
+     * @param command Unsupported command that caused the switch
+     * @return Browser session
+     * @throws UnsupportedCommandException if static.driver.fallback is disabled
+     */
+    WebDriver startBrowser(String command) {
+        if (browser != null) {
+            return browser;
+        }
+        if (!ConfigManager.getInstance().getBoolean("static.driver.fallback", true)) {
+            throw new UnsupportedCommandException(command + " is not supported without a browser");
+        }
+        logger.warn("Static page driver cannot handle '{}' on {}, starting a browser", command, currentUrl);
+        fallbacks.increment();
+        browser = browserLauncher.get();
+        if (document != null) {
+            browser.get(currentUrl);
+        }
+        document = null;
+        return browser;
+    }
+
+    private static Elements links(Element root, String text, boolean exact) {
+        Elements links = new Elements();
+        for (Element link : root.getElementsByTag("a")) {
+            String linkText = link.text().trim();
+            if (exact ? linkText.equals(text) : linkText.contains(text)) {
+                links.add(link);
+            }
+        }
+        return links;
+    }
+
+    private static HttpClient getHttpClient() {
+        if (httpClient == null) {
+            synchronized (StaticPageDriver.class) {
+                if (httpClient == null) {
+                    httpClient = HttpClient.newBuilder()
+                            .followRedirects(HttpClient.Redirect.NORMAL)
+                            .connectTimeout(Duration.ofMillis(
+                                    ConfigManager.getInstance().getLong("static.driver.timeout.ms", 10000)))
+                            .build();
+                }
+            }
+        }
+        return httpClient;
+    }
+}
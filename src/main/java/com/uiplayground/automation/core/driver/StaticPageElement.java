@@ -0,0 +1,227 @@
+package com.uiplayground.automation.core.driver;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Element of a page parsed by StaticPageDriver
+ * Keeps the locator path it was found by, so after a fallback the same element can be found again in the
+ * real browser and the command is sent there.
+ */
+final class StaticPageElement implements WebElement {
+
+    private static final Set<String> NON_RENDERED_TAGS = Set.of("head", "script", "style", "template", "noscript");
+    private static final Set<String> FORM_CONTROLS = Set.of("button", "input", "select", "textarea", "option",
+            "optgroup", "fieldset");
+    private static final Set<String> BOOLEAN_ATTRIBUTES = Set.of("checked", "selected", "disabled", "readonly",
+            "required", "multiple", "hidden");
+    private static final Pattern HIDDEN_STYLE = Pattern.compile("(display\\s*:\\s*none|visibility\\s*:\\s*hidden)");
+
+    private final StaticPageDriver driver;
+    private final StaticPageElement parent;
+    private final By by;
+    private final int index;
+    private final Element element;
+    private WebElement browserElement;
+
+    StaticPageElement(StaticPageDriver driver, StaticPageElement parent, By by, int index, Element element) {
+        this.driver = driver;
+        this.parent = parent;
+        this.by = by;
+        this.index = index;
+        this.element = element;
+    }
+
+    @Override
+    public void click() {
+        inBrowser("click").click();
+    }
+
+    @Override
+    public void submit() {
+        inBrowser("submit").submit();
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        inBrowser("sendKeys").sendKeys(keysToSend);
+    }
+
+    @Override
+    public void clear() {
+        inBrowser("clear").clear();
+    }
+
+    @Override
+    public String getTagName() {
+        return driver.isBrowserStarted() ? browserElement().getTagName() : element.tagName();
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        if (driver.isBrowserStarted()) {
+            return browserElement().getAttribute(name);
+        }
+        String attribute = name.toLowerCase(Locale.ROOT);
+        if (!element.hasAttr(attribute)) {
+            return null;
+        }
+        if (BOOLEAN_ATTRIBUTES.contains(attribute)) {
+            return "true";
+        }
+        if (attribute.equals("href") || attribute.equals("src")) {
+            return element.absUrl(attribute);
+        }
+        return element.attr(attribute);
+    }
+
+    @Override
+    public boolean isSelected() {
+        if (driver.isBrowserStarted()) {
+            return browserElement().isSelected();
+        }
+        return element.hasAttr("checked") || element.hasAttr("selected");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        if (driver.isBrowserStarted()) {
+            return browserElement().isEnabled();
+        }
+        return !FORM_CONTROLS.contains(element.tagName()) || !element.hasAttr("disabled");
+    }
+
+    /**
+     * Visible text; whitespace is collapsed as the parser has no layout to preserve line breaks from
+     */
+    @Override
+    public String getText() {
+        if (driver.isBrowserStarted()) {
+            return browserElement().getText();
+        }
+        return isDisplayed() ? element.text() : "";
+    }
+
+    @Override
+    public List<WebElement> findElements(By locator) {
+        if (driver.isBrowserStarted()) {
+            return browserElement().findElements(locator);
+        }
+        if (!(locator instanceof By.Remotable)) {
+            return locator.findElements(this);
+        }
+        Elements matches = driver.select(element, locator, "findElements");
+        if (driver.isBrowserStarted()) {
+            return browserElement().findElements(locator);
+        }
+        return driver.wrap(this, locator, matches);
+    }
+
+    @Override
+    public WebElement findElement(By locator) {
+        List<WebElement> elements = findElements(locator);
+        if (elements.isEmpty()) {
+            throw new NoSuchElementException("No element matches " + locator + " below " + by);
+        }
+        return elements.get(0);
+    }
+
+    /**
+     * Approximated from markup: hidden attributes, inline display/visibility styles and non-rendered tags.
+     * Stylesheets are not evaluated.
+     */
+    @Override
+    public boolean isDisplayed() {
+        if (driver.isBrowserStarted()) {
+            return browserElement().isDisplayed();
+        }
+        if (element.tagName().equals("input") && element.attr("type").equalsIgnoreCase("hidden")) {
+            return false;
+        }
+        for (Element current = element; current != null; current = current.parent()) {
+            if (NON_RENDERED_TAGS.contains(current.tagName()) || current.hasAttr("hidden")
+                    || HIDDEN_STYLE.matcher(current.attr("style").toLowerCase(Locale.ROOT)).find()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Point getLocation() {
+        return inBrowser("getLocation").getLocation();
+    }
+
+    @Override
+    public Dimension getSize() {
+        return inBrowser("getSize").getSize();
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return inBrowser("getRect").getRect();
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return inBrowser("getCssValue").getCssValue(propertyName);
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return inBrowser("getScreenshotAs").getScreenshotAs(target);
+    }
+
+    /**
+     * Same parsed node, so page objects can key caches by element as they do with browser elements
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof StaticPageElement && ((StaticPageElement) other).element == element;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(element);
+    }
+
+    @Override
+    public String toString() {
+        return "StaticPageElement(" + by + ")";
+    }
+
+    private WebElement inBrowser(String command) {
+        driver.startBrowser(command + " on " + by);
+        return browserElement();
+    }
+
+    /**
+     * Find this element again in the real browser by its locator path and index
+     */
+    private WebElement browserElement() {
+        if (browserElement == null) {
+            List<WebElement> candidates = parent == null
+                    ? driver.startBrowser("findElements").findElements(by)
+                    : parent.browserElement().findElements(by);
+            if (index >= candidates.size()) {
+                throw new StaleElementReferenceException("Element " + by + " [" + index
+                        + "] is not present in the browser");
+            }
+            browserElement = candidates.get(index);
+        }
+        return browserElement;
+    }
+}
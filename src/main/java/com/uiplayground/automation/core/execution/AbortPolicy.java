@@ -0,0 +1,154 @@
+package com.uiplayground.automation.core.execution;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestStep;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Decides whether a scenario should be skipped before it acquires a browser
+ * Supported policies:
+ * - abort.max.failures: stop after N failed scenarios (0 disables)
+ * - abort.canary.tag: abort the run when a scenario with this tag fails
+ * - abort.skip.shared.setup: skip scenarios whose setup steps include a setup step that already failed (off by default)
+ */
+public final class AbortPolicy {
+
+    private static final Logger logger = LogManager.getLogger(AbortPolicy.class);
+
+    private static final AtomicInteger failedScenarios = new AtomicInteger();
+    private static final AtomicInteger skippedScenarios = new AtomicInteger();
+    private static final AtomicReference<String> abortReason = new AtomicReference<>();
+    private static final Set<String> failedSetupSteps = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<String> skipReason = new ThreadLocal<>();
+
+    private AbortPolicy() {
+        // Utility class
+    }
+
+    /**
+     * Evaluate the policies for a scenario that is about to start
+     * The decision is kept for the current thread until the next scenario starts
+     *
+     * @param testCase Scenario about to run
+     */
+    public static void evaluate(TestCase testCase) {
+        String reason = abortReason.get();
+        // A retry deliberately runs the failed setup step again
+        if (reason == null && isSkipSharedSetupEnabled() && RerunPolicy.getAttemptLabel() == null) {
+            for (String step : getSetupSteps(testCase)) {
+                if (failedSetupSteps.contains(step)) {
+                    reason = "shares failing setup step '" + step + "'";
+                    break;
+                }
+            }
+        }
+        skipReason.set(reason);
+        if (reason != null) {
+            skippedScenarios.incrementAndGet();
+            logger.warn("Skipping scenario '{}': {}", testCase.getName(), reason);
+        }
+    }
+
+    /**
+     * Get the reason the current thread's scenario should be skipped
+     *
+     * @return Skip reason, or null if the scenario should run
+     */
+    public static String getSkipReason() {
+        return skipReason.get();
+    }
+
+    /**
+     * Record a failed setup step so scenarios sharing it can be skipped
+     *
+     * @param testCase Scenario the step belongs to
+     * @param testStep Step that failed
+     */
+    public static void recordStepFailure(TestCase testCase, TestStep testStep) {
+        if (!(testStep instanceof PickleStepTestStep)) {
+            return;
+        }
+        String stepText = ((PickleStepTestStep) testStep).getStep().getText();
+        if (getSetupSteps(testCase).contains(stepText) && failedSetupSteps.add(stepText)) {
+            logger.warn("Setup step failed, scenarios sharing it will be skipped: {}", stepText);
+        }
+    }
+
+    /**
+     * Record the outcome of a scenario and trigger an abort when a policy is met
+     *
+     * @param testCase Finished scenario
+     * @param failed   true if the scenario failed
+     */
+    public static void recordScenarioFinished(TestCase testCase, boolean failed) {
+        if (!failed || skipReason.get() != null) {
+            return;
+        }
+        int failures = failedScenarios.incrementAndGet();
+        int maxFailures = ConfigManager.getInstance().getInt("abort.max.failures", 0);
+        String canaryTag = ConfigManager.getInstance().getProperty("abort.canary.tag", "");
+
+        if (!canaryTag.isEmpty() && testCase.getTags().contains(canaryTag)) {
+            abort("canary scenario '" + testCase.getName() + "' (" + canaryTag + ") failed");
+        } else if (maxFailures > 0 && failures >= maxFailures) {
+            abort("failure limit of " + maxFailures + " reached");
+        }
+    }
+
+    /**
+     * Get the reason the run was aborted
+     *
+     * @return Abort reason, or null if the run was not aborted
+     */
+    public static String getAbortReason() {
+        return abortReason.get();
+    }
+
+    /**
+     * Get the number of scenarios skipped by the abort policies
+     *
+     * @return Skipped scenario count
+     */
+    public static int getSkippedScenarios() {
+        return skippedScenarios.get();
+    }
+
+    private static void abort(String reason) {
+        if (abortReason.compareAndSet(null, "run aborted: " + reason)) {
+            logger.error("Aborting remaining scenarios: {}", reason);
+        }
+    }
+
+    private static boolean isSkipSharedSetupEnabled() {
+        return ConfigManager.getInstance().getBoolean("abort.skip.shared.setup", false);
+    }
+
+    /**
+     * Setup steps are the Background and Given steps before the first When or Then
+     */
+    private static List<String> getSetupSteps(TestCase testCase) {
+        List<String> setupSteps = new ArrayList<>();
+        for (TestStep testStep : testCase.getTestSteps()) {
+            if (!(testStep instanceof PickleStepTestStep)) {
+                continue;
+            }
+            PickleStepTestStep step = (PickleStepTestStep) testStep;
+            String keyword = step.getStep().getKeyword().trim();
+            if ("When".equals(keyword) || "Then".equals(keyword)) {
+                break;
+            }
+            setupSteps.add(step.getStep().getText());
+        }
+        return setupSteps;
+    }
+}
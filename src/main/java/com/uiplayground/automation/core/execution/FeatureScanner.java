@@ -0,0 +1,276 @@
+package com.uiplayground.automation.core.execution;
+
+import io.cucumber.core.feature.FeatureParser;
+import io.cucumber.core.feature.FeaturePath;
+import io.cucumber.core.gherkin.Feature;
+import com.uiplayground.automation.core.config.ConfigManager;
+import io.cucumber.core.gherkin.Pickle;
+import io.cucumber.core.gherkin.Step;
+import io.cucumber.core.resource.Resource;
+import io.cucumber.tagexpressions.Expression;
+import io.cucumber.tagexpressions.TagExpressionParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Parses Cucumber feature files outside of a Cucumber runtime
+ * Used by the suite level planners to see which pickles a runner will select
+ */
+public final class FeatureScanner {
+
+    private static final Logger logger = LogManager.getLogger(FeatureScanner.class);
+    private static final String FEATURE_EXTENSION = ".feature";
+    private static final String CLASSPATH_SCHEME = "classpath";
+    private static final String CACHE_FILE = "feature-scan.ser";
+
+    private static Map<String, CachedFeature> cache;
+
+    private FeatureScanner() {
+        // Utility class
+    }
+
+    /**
+     * Parse all pickles found under the given feature paths
+     * Parsed files are cached by content hash so unchanged features are not parsed again
+     *
+     * @param featurePaths Feature paths as written in @CucumberOptions
+     * @return Scenarios in file and line order
+     */
+    public static List<ScenarioInfo> scan(String[] featurePaths) {
+        long start = System.nanoTime();
+        List<ScenarioInfo> scenarios = new ArrayList<>();
+        boolean changed = false;
+        Map<String, CachedFeature> cache = getCache();
+        for (String featurePath : featurePaths) {
+            for (Path file : resolveFeatureFiles(featurePath)) {
+                String hash = contentHash(file);
+                if (hash == null) {
+                    // Unreadable now: parse whatever can be read and keep it out of the cache
+                    changed |= cache.remove(file.toString()) != null;
+                    scenarios.addAll(parse(file));
+                    continue;
+                }
+                CachedFeature cached = cache.get(file.toString());
+                if (cached == null || !cached.hash.equals(hash)) {
+                    cached = new CachedFeature(hash, parse(file));
+                    cache.put(file.toString(), cached);
+                    changed = true;
+                }
+                scenarios.addAll(cached.scenarios);
+            }
+        }
+        if (changed) {
+            saveCache();
+        }
+        StartupProfiler.record("feature scan (planners)", start);
+        return scenarios;
+    }
+
+    /**
+     * Parse the pickles under the given feature paths that match a tag expression
+     *
+     * @param tagExpression Cucumber tag expression, null or empty selects everything
+     * @param featurePaths  Feature paths as written in @CucumberOptions
+     * @return Matching scenarios in file and line order
+     */
+    public static List<ScenarioInfo> scan(String tagExpression, String[] featurePaths) {
+        if (tagExpression == null || tagExpression.trim().isEmpty()) {
+            return scan(featurePaths);
+        }
+        Expression expression = TagExpressionParser.parse(tagExpression);
+        return scan(featurePaths).stream()
+                .filter(scenario -> expression.evaluate(scenario.getTags()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Build a stable key for a scenario that is the same whether the feature was
+     * referenced through the file system or the classpath
+     *
+     * @param uri  Feature URI
+     * @param line Pickle line
+     * @return Scenario key in the form path:line
+     */
+    public static String scenarioKey(URI uri, int line) {
+        return normalize(uri) + ":" + line;
+    }
+
+    private static String normalize(URI uri) {
+        if (CLASSPATH_SCHEME.equals(uri.getScheme())) {
+            Path file = classpathToFile(uri.getSchemeSpecificPart());
+            return file != null ? file.toString() : uri.getSchemeSpecificPart();
+        }
+        if ("file".equals(uri.getScheme())) {
+            return Paths.get(uri).toAbsolutePath().normalize().toString();
+        }
+        return uri.toString();
+    }
+
+    private static List<Path> resolveFeatureFiles(String featurePath) {
+        URI uri = FeaturePath.parse(featurePath);
+        Path root = CLASSPATH_SCHEME.equals(uri.getScheme())
+                ? classpathToFile(uri.getSchemeSpecificPart())
+                : Paths.get(uri);
+
+        if (root == null || !Files.exists(root)) {
+            logger.warn("Feature path does not exist: {}", featurePath);
+            return Collections.emptyList();
+        }
+        if (Files.isRegularFile(root)) {
+            return Collections.singletonList(root.toAbsolutePath().normalize());
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(file -> file.toString().endsWith(FEATURE_EXTENSION))
+                    .map(file -> file.toAbsolutePath().normalize())
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.error("Failed to scan feature path: " + featurePath, e);
+            return Collections.emptyList();
+        }
+    }
+
+    private static Path classpathToFile(String resourcePath) {
+        String name = resourcePath.startsWith("/") ? resourcePath.substring(1) : resourcePath;
+        URL url = Thread.currentThread().getContextClassLoader().getResource(name);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(url.toURI()).toAbsolutePath().normalize();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    private static List<ScenarioInfo> parse(Path file) {
+        FeatureParser parser = new FeatureParser(UUID::randomUUID);
+        List<ScenarioInfo> scenarios = new ArrayList<>();
+        for (Pickle pickle : parser.parseResource(new FileResource(file))
+                .map(Feature::getPickles)
+                .orElse(Collections.emptyList())) {
+            List<String> keywords = new ArrayList<>();
+            List<String> texts = new ArrayList<>();
+            for (Step step : pickle.getSteps()) {
+                keywords.add(step.getKeyword().trim());
+                texts.add(step.getText());
+            }
+            scenarios.add(new ScenarioInfo(pickle.getUri(), pickle.getLocation().getLine(),
+                    pickle.getName(), pickle.getTags(), keywords, texts));
+        }
+        return scenarios;
+    }
+
+    /**
+     * @return SHA-256 of the file content, or null if the file cannot be read
+     */
+    private static String contentHash(Path file) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(Files.readAllBytes(file));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return null;
+        }
+    }
+
+    private static synchronized Map<String, CachedFeature> getCache() {
+        if (cache == null) {
+            cache = new ConcurrentHashMap<>();
+            Path cacheFile = getCacheFile();
+            if (Files.exists(cacheFile)) {
+                try (ObjectInputStream in = new ObjectInputStream(Files.newInputStream(cacheFile))) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, CachedFeature> stored = (Map<String, CachedFeature>) in.readObject();
+                    cache.putAll(stored);
+                } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                    logger.debug("Ignoring unreadable feature cache: {}", cacheFile);
+                }
+            }
+        }
+        return cache;
+    }
+
+    private static synchronized void saveCache() {
+        Path cacheFile = getCacheFile();
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            try (ObjectOutputStream out = new ObjectOutputStream(Files.newOutputStream(cacheFile))) {
+                out.writeObject(new HashMap<>(cache));
+            }
+        } catch (IOException e) {
+            logger.debug("Could not write feature cache: {}", cacheFile);
+        }
+    }
+
+    private static Path getCacheFile() {
+        return Paths.get(ConfigManager.getInstance().getProperty("startup.cache.dir", "target/startup-cache"),
+                CACHE_FILE);
+    }
+
+    /**
+     * Parsed scenarios of one feature file together with the hash of its content
+     */
+    private static final class CachedFeature implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String hash;
+        private final List<ScenarioInfo> scenarios;
+
+        private CachedFeature(String hash, List<ScenarioInfo> scenarios) {
+            this.hash = hash;
+            this.scenarios = scenarios;
+        }
+    }
+
+    /**
+     * Feature file backed by the local file system
+     */
+    private static final class FileResource implements Resource {
+
+        private final Path file;
+
+        private FileResource(Path file) {
+            this.file = file;
+        }
+
+        @Override
+        public URI getUri() {
+            return file.toUri();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(file);
+        }
+    }
+}
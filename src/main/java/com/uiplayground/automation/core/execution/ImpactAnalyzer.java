@@ -0,0 +1,500 @@
+package com.uiplayground.automation.core.execution;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.pages.base.BasePage;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records which code each scenario depends on and selects the scenarios impacted by a change
+ * While scenarios run, the step definition classes, page object classes and selector constants they
+ * actually use are recorded and merged into impact.map.file. With impact.enabled the runners then only
+ * provide scenarios whose dependencies or feature file changed, scenarios tagged with impact.safety.tags
+ * and scenarios the map does not know yet. A changed file the map cannot attribute, such as framework
+ * code, configuration or the pom, selects every scenario.
+ */
+public final class ImpactAnalyzer {
+
+    private static final Logger logger = LogManager.getLogger(ImpactAnalyzer.class);
+    private static final String DEFAULT_MAP_FILE = "reports/impact-map.properties";
+    private static final String STEP = "step:";
+    private static final String PAGE = "page:";
+    private static final String SELECTOR = "selector:";
+    private static final List<String> SOURCE_ROOTS = Arrays.asList("src/main/java/", "src/test/java/");
+    private static final Pattern CONSTANT_LINE = Pattern.compile("static\\s+final\\s+[\\w<>\\[\\]]+\\s+(\\w+)\\s*=");
+
+    private static final ThreadLocal<Set<String>> scenarioDependencies = ThreadLocal.withInitial(TreeSet::new);
+    private static final Map<String, Set<String>> recordedDependencies = new ConcurrentHashMap<>();
+    private static volatile Properties dependencyMap;
+    private static volatile Map<String, List<String>> selectorIndex;
+
+    private ImpactAnalyzer() {
+        // Utility class
+    }
+
+    /**
+     * Check whether runners should only provide impacted scenarios
+     *
+     * @return true if impact.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("impact.enabled", false);
+    }
+
+    /**
+     * Check whether scenario dependencies are recorded
+     *
+     * @return true unless impact.recording.enabled is set to false
+     */
+    public static boolean isRecording() {
+        return ConfigManager.getInstance().getBoolean("impact.recording.enabled", true);
+    }
+
+    /**
+     * Start recording the dependencies of a new scenario on the current thread
+     */
+    public static void scenarioStarted() {
+        scenarioDependencies.get().clear();
+    }
+
+    /**
+     * Record the class of a step definition the current scenario ran
+     *
+     * @param codeLocation Step definition method, e.g. com.example.HomePageSteps.openHomePage()
+     */
+    public static void recordStepDefinition(String codeLocation) {
+        if (codeLocation == null || !isRecording()) {
+            return;
+        }
+        String method = codeLocation.contains("(") ? codeLocation.substring(0, codeLocation.indexOf('(')) : codeLocation;
+        if (method.lastIndexOf('.') > 0) {
+            scenarioDependencies.get().add(STEP + method.substring(0, method.lastIndexOf('.')));
+        }
+    }
+
+    /**
+     * Record a page object the current scenario created
+     *
+     * @param pageClass Page object class
+     */
+    public static void recordPage(Class<?> pageClass) {
+        if (isRecording()) {
+            scenarioDependencies.get().add(PAGE + pageClass.getName());
+        }
+    }
+
+    /**
+     * Record the selector constants whose value matches a locator the current scenario looked up
+     * Constants are inlined by the compiler, so they are matched by value against impact.selector.package.
+     *
+     * @param locator Locator passed to findElement or findElements
+     */
+    public static void recordLocator(By locator) {
+        if (!(locator instanceof By.Remotable) || !isRecording()) {
+            return;
+        }
+        Object value = ((By.Remotable) locator).getRemoteParameters().value();
+        List<String> constants = getSelectorIndex().get(String.valueOf(value));
+        if (constants != null) {
+            scenarioDependencies.get().addAll(constants);
+        }
+    }
+
+    /**
+     * Keep the dependencies recorded for a finished scenario
+     * A passed scenario replaces its previous entry; any other result only adds to it, since the
+     * scenario may have stopped before reaching the rest of its code.
+     *
+     * @param uri    Feature URI
+     * @param line   Scenario line
+     * @param passed Whether the scenario passed
+     */
+    public static void scenarioFinished(URI uri, int line, boolean passed) {
+        Set<String> dependencies = scenarioDependencies.get();
+        if (!isRecording() || dependencies.isEmpty()) {
+            return;
+        }
+        String key = ShardPlanner.portableKey(uri, line);
+        Set<String> merged = new TreeSet<>(dependencies);
+        if (!passed) {
+            merged.addAll(split(getDependencyMap().getProperty(key)));
+        }
+        recordedDependencies.put(key, merged);
+        dependencies.clear();
+    }
+
+    /**
+     * Merge the dependencies recorded in this run into the dependency map file
+     * Entries of scenarios that did not run are kept as they are.
+     */
+    public static synchronized void saveDependencies() {
+        if (recordedDependencies.isEmpty()) {
+            return;
+        }
+        Properties map = new Properties();
+        map.putAll(getDependencyMap());
+        recordedDependencies.forEach((key, dependencies) -> map.setProperty(key, String.join(",", dependencies)));
+
+        Path file = getMapFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream os = Files.newOutputStream(file)) {
+                map.store(os, "Step definitions, page objects and selector constants used by each scenario");
+            }
+            logger.info("Saved dependencies of {} scenarios ({} updated) to: {}",
+                    map.size(), recordedDependencies.size(), file);
+        } catch (IOException e) {
+            logger.error("Failed to save scenario dependencies", e);
+        }
+    }
+
+    /**
+     * Keep only the scenarios impacted by the changed files
+     * Changed files are taken from impact.changed.files, or from git diff against impact.base.ref.
+     *
+     * @param scenarios Data provider rows of PickleWrapper and FeatureWrapper
+     * @return Impacted rows, or all rows if the change cannot be narrowed down
+     */
+    public static Object[][] filterScenarios(Object[][] scenarios) {
+        if (!isEnabled()) {
+            return scenarios;
+        }
+        List<String> changedFiles = getChangedFiles();
+        if (changedFiles == null) {
+            return scenarios;
+        }
+
+        Properties map = getDependencyMap();
+        Set<String> changedFeatures = new LinkedHashSet<>();
+        Set<String> changedDependencies = new LinkedHashSet<>();
+        for (String file : changedFiles) {
+            if (file.endsWith(".feature")) {
+                changedFeatures.add(file);
+            } else if (file.endsWith(".java") && toClassName(file) != null) {
+                String className = toClassName(file);
+                if (!isMapped(map, className) && isRecordedKind(className)) {
+                    // Page objects and selectors are always recorded, so no mapped scenario uses this one
+                    continue;
+                }
+                if (!isMapped(map, className)) {
+                    logger.info("Running all {} scenarios: {} is not in the dependency map", scenarios.length, file);
+                    return scenarios;
+                }
+                // Only uses of selector classes are recorded per constant; any other class counts as a whole
+                Set<String> constants = className.startsWith(getSelectorPackage() + ".")
+                        ? getChangedConstants(file) : Collections.emptySet();
+                if (constants.isEmpty()) {
+                    changedDependencies.add(className);
+                } else {
+                    constants.forEach(constant -> changedDependencies.add(SELECTOR + className + "#" + constant));
+                }
+            } else if (file.startsWith("src/") || file.equals("pom.xml")) {
+                logger.info("Running all {} scenarios: {} affects every scenario", scenarios.length, file);
+                return scenarios;
+            }
+        }
+
+        Set<String> safetyTags = new LinkedHashSet<>(split(
+                ConfigManager.getInstance().getProperty("impact.safety.tags", "@smoke")));
+        List<Object[]> impacted = new ArrayList<>();
+        int unmapped = 0;
+        int safety = 0;
+        for (Object[] row : scenarios) {
+            Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+            String key = ShardPlanner.portableKey(pickle.getUri(), pickle.getLine());
+            String dependencies = map.getProperty(key);
+            if (dependencies == null) {
+                unmapped++;
+                impacted.add(row);
+            } else if (changedFeatures.contains(key.substring(0, key.lastIndexOf(':')))
+                    || dependsOn(split(dependencies), changedDependencies)) {
+                impacted.add(row);
+            } else if (!Collections.disjoint(pickle.getTags(), safetyTags)) {
+                safety++;
+                impacted.add(row);
+            }
+        }
+        logger.info("Impact analysis of {} changed files: running {} of {} scenarios ({} not yet mapped, {} safety)",
+                changedFiles.size(), impacted.size(), scenarios.length, unmapped, safety);
+        return impacted.toArray(new Object[0][]);
+    }
+
+    private static boolean dependsOn(List<String> dependencies, Set<String> changed) {
+        for (String dependency : dependencies) {
+            if (changed.contains(dependency) || changed.contains(dependencyClass(dependency))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isMapped(Properties map, String className) {
+        for (String key : map.stringPropertyNames()) {
+            for (String dependency : split(map.getProperty(key))) {
+                if (dependencyClass(dependency).equals(className)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether uses of a class are always recorded: page objects and selector constant classes
+     */
+    private static boolean isRecordedKind(String className) {
+        if (className.startsWith(getSelectorPackage() + ".")) {
+            return true;
+        }
+        try {
+            Class<?> type = Class.forName(className, false, Thread.currentThread().getContextClassLoader());
+            return BasePage.class.isAssignableFrom(type) && type != BasePage.class;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Class a dependency belongs to, e.g. com.example.HomePageSelectors for selector:com.example.HomePageSelectors#TITLE
+     */
+    private static String dependencyClass(String dependency) {
+        String name = dependency.substring(dependency.indexOf(':') + 1);
+        return name.contains("#") ? name.substring(0, name.indexOf('#')) : name;
+    }
+
+    /**
+     * Fully qualified class of a Java source file, or null if it is not below a source root
+     */
+    private static String toClassName(String file) {
+        for (String root : SOURCE_ROOTS) {
+            if (file.startsWith(root)) {
+                return file.substring(root.length(), file.length() - ".java".length()).replace('/', '.');
+            }
+        }
+        return null;
+    }
+
+    private static String getSelectorPackage() {
+        return ConfigManager.getInstance().getProperty(
+                "impact.selector.package", "com.uiplayground.automation.constants.selectors");
+    }
+
+    /**
+     * Changed files relative to the working directory, or null if neither source of changes is configured
+     * With impact.base.ref, files git does not track yet count as changed too.
+     */
+    private static List<String> getChangedFiles() {
+        String configured = ConfigManager.getInstance().getProperty("impact.changed.files", "");
+        if (!configured.isBlank()) {
+            List<String> files = new ArrayList<>();
+            for (String file : split(configured)) {
+                files.add(file.replace('\\', '/'));
+            }
+            return files;
+        }
+        String baseRef = ConfigManager.getInstance().getProperty("impact.base.ref", "");
+        if (baseRef.isBlank()) {
+            logger.warn("impact.enabled is set without impact.changed.files or impact.base.ref, running all scenarios");
+            return null;
+        }
+        List<String> changed = git("diff", "--name-only", "--relative", baseRef);
+        List<String> untracked = git("ls-files", "--others", "--exclude-standard");
+        if (changed == null || untracked == null) {
+            return null;
+        }
+        Set<String> files = new LinkedHashSet<>(changed);
+        files.addAll(untracked);
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Names of the constants a change to a file adds, removes or edits
+     * Empty if the change is not limited to constant declarations, so the whole class counts as changed.
+     */
+    private static Set<String> getChangedConstants(String file) {
+        String baseRef = ConfigManager.getInstance().getProperty("impact.base.ref", "");
+        if (baseRef.isBlank()) {
+            return Collections.emptySet();
+        }
+        List<String> diff = git("diff", "-U0", "--relative", baseRef, "--", file);
+        if (diff == null) {
+            return Collections.emptySet();
+        }
+        Set<String> constants = new TreeSet<>();
+        for (String line : diff) {
+            if (line.startsWith("+++") || line.startsWith("---")
+                    || !(line.startsWith("+") || line.startsWith("-"))) {
+                continue;
+            }
+            String code = line.substring(1).trim();
+            if (code.isEmpty() || code.startsWith("//") || code.startsWith("*") || code.startsWith("/*")) {
+                continue;
+            }
+            Matcher matcher = CONSTANT_LINE.matcher(code);
+            if (!matcher.find()) {
+                return Collections.emptySet();
+            }
+            constants.add(matcher.group(1));
+        }
+        return constants;
+    }
+
+    private static List<String> git(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            List<String> lines = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        lines.add(line);
+                    }
+                }
+            }
+            if (process.waitFor() != 0) {
+                logger.warn("{} failed, running all scenarios: {}", String.join(" ", command), lines);
+                return null;
+            }
+            return lines;
+        } catch (IOException e) {
+            logger.warn("Could not run git, running all scenarios", e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Selector constants by value, from the String constants of every class in impact.selector.package
+     */
+    private static Map<String, List<String>> getSelectorIndex() {
+        if (selectorIndex == null) {
+            synchronized (ImpactAnalyzer.class) {
+                if (selectorIndex == null) {
+                    Map<String, List<String>> index = new HashMap<>();
+                    for (Class<?> type : findClasses(getSelectorPackage())) {
+                        for (Field field : type.getDeclaredFields()) {
+                            int modifiers = field.getModifiers();
+                            if (field.getType() != String.class
+                                    || !Modifier.isStatic(modifiers) || !Modifier.isFinal(modifiers)) {
+                                continue;
+                            }
+                            try {
+                                field.setAccessible(true);
+                                index.computeIfAbsent((String) field.get(null), value -> new ArrayList<>())
+                                        .add(SELECTOR + type.getName() + "#" + field.getName());
+                            } catch (IllegalAccessException | RuntimeException e) {
+                                logger.debug("Could not read selector constant {}", field, e);
+                            }
+                        }
+                    }
+                    selectorIndex = index;
+                }
+            }
+        }
+        return selectorIndex;
+    }
+
+    /**
+     * Top level classes of a package compiled to a directory on the classpath
+     */
+    private static List<Class<?>> findClasses(String packageName) {
+        List<Class<?>> classes = new ArrayList<>();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(packageName.replace('.', '/'));
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                if (!"file".equals(resource.getProtocol())) {
+                    continue;
+                }
+                File[] files = new File(resource.toURI()).listFiles((dir, name) ->
+                        name.endsWith(".class") && !name.contains("$"));
+                for (File file : files == null ? new File[0] : files) {
+                    String name = file.getName();
+                    classes.add(Class.forName(packageName + "." + name.substring(0, name.length() - 6),
+                            false, classLoader));
+                }
+            }
+        } catch (IOException | ReflectiveOperationException | URISyntaxException e) {
+            logger.warn("Could not scan selector package {}", packageName, e);
+        }
+        return classes;
+    }
+
+    private static Properties getDependencyMap() {
+        if (dependencyMap == null) {
+            synchronized (ImpactAnalyzer.class) {
+                if (dependencyMap == null) {
+                    Properties map = new Properties();
+                    Path file = getMapFile();
+                    if (Files.exists(file)) {
+                        try (InputStream is = Files.newInputStream(file)) {
+                            map.load(is);
+                        } catch (IOException e) {
+                            logger.warn("Could not read scenario dependencies from: {}", file);
+                        }
+                    }
+                    dependencyMap = map;
+                }
+            }
+        }
+        return dependencyMap;
+    }
+
+    private static Path getMapFile() {
+        return Paths.get(ConfigManager.getInstance().getProperty("impact.map.file", DEFAULT_MAP_FILE));
+    }
+
+    private static List<String> split(String value) {
+        List<String> parts = new ArrayList<>();
+        if (value != null) {
+            for (String part : value.split(",")) {
+                if (!part.isBlank()) {
+                    parts.add(part.trim());
+                }
+            }
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,210 @@
+package com.uiplayground.automation.core.execution;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Retries failed scenarios within the run and keeps flake statistics per scenario across runs
+ * Each run of a scenario is recorded as one outcome: passed on the first attempt, flaky (failed, then
+ * passed on a retry) or failed on every attempt. Scenarios whose flake rate over the last
+ * flake.history.size runs reaches flake.quarantine.threshold are moved to the quarantine lane, where
+ * they still run and are still tracked but their failures do not fail the build.
+ */
+public final class RerunPolicy {
+
+    private static final Logger logger = LogManager.getLogger(RerunPolicy.class);
+    private static final String DEFAULT_STATS_FILE = "reports/flake-stats.properties";
+
+    /**
+     * Outcome of one run of a scenario, stored as one character of its history
+     */
+    public enum Outcome {
+        PASSED('P'), FLAKY('F'), FAILED('X');
+
+        private final char code;
+
+        Outcome(char code) {
+            this.code = code;
+        }
+    }
+
+    private static final Map<String, Outcome> recordedOutcomes = new ConcurrentHashMap<>();
+    private static final AtomicInteger retriedScenarios = new AtomicInteger();
+    private static final AtomicInteger quarantinedScenarios = new AtomicInteger();
+    private static final ThreadLocal<String> attemptLabel = new ThreadLocal<>();
+    private static volatile Properties flakeStats;
+
+    private RerunPolicy() {
+        // Utility class
+    }
+
+    /**
+     * Get how often a failed scenario is retried at the end of its runner
+     *
+     * @return Retry attempts, 0 disables retries
+     */
+    public static int getMaxRetries() {
+        return ConfigManager.getInstance().getInt("rerun.max.attempts", 0);
+    }
+
+    /**
+     * Check whether a scenario belongs in the quarantine lane
+     *
+     * @param pickleWrapper Scenario
+     * @return true if its flake rate reached flake.quarantine.threshold over at least flake.quarantine.min.runs runs
+     */
+    public static boolean isQuarantined(PickleWrapper pickleWrapper) {
+        double threshold = ConfigManager.getInstance().getDouble("flake.quarantine.threshold", 0.2);
+        int minRuns = ConfigManager.getInstance().getInt("flake.quarantine.min.runs", 5);
+        String history = getFlakeStats().getProperty(keyOf(pickleWrapper), "");
+        return threshold > 0 && history.length() >= Math.max(1, minRuns) && flakeRate(history) >= threshold;
+    }
+
+    /**
+     * Label the scenarios the current thread runs next in the report, e.g. "Retry 1 of 2"
+     *
+     * @param label Label, or null for a regular run
+     */
+    public static void setAttemptLabel(String label) {
+        attemptLabel.set(label);
+    }
+
+    /**
+     * Get the label of the scenario running on the current thread
+     *
+     * @return Label such as "Retry 1 of 2" or "Quarantine", or null for a regular run
+     */
+    public static String getAttemptLabel() {
+        return attemptLabel.get();
+    }
+
+    /**
+     * Check whether the scenario on the current thread runs in the quarantine lane
+     *
+     * @return true inside the quarantine lane
+     */
+    public static boolean isQuarantineLane() {
+        String label = attemptLabel.get();
+        return label != null && label.startsWith("Quarantine");
+    }
+
+    /**
+     * Count a scenario that failed and was queued for a retry
+     */
+    public static void retryQueued() {
+        retriedScenarios.incrementAndGet();
+    }
+
+    /**
+     * Count a scenario that runs in the quarantine lane
+     */
+    public static void quarantined() {
+        quarantinedScenarios.incrementAndGet();
+    }
+
+    /**
+     * Record the final outcome of a scenario in this run
+     *
+     * @param pickleWrapper Scenario
+     * @param outcome       Outcome after all attempts
+     */
+    public static void recordOutcome(PickleWrapper pickleWrapper, Outcome outcome) {
+        recordedOutcomes.put(keyOf(pickleWrapper), outcome);
+        if (outcome == Outcome.FLAKY) {
+            logger.warn("Scenario '{}' passed on a retry and is counted as flaky",
+                    pickleWrapper.getPickle().getName());
+        }
+    }
+
+    /**
+     * Describe the retries and quarantine of this run
+     *
+     * @return Summary, or null if nothing was retried or quarantined
+     */
+    public static String getSummary() {
+        if (retriedScenarios.get() == 0 && quarantinedScenarios.get() == 0) {
+            return null;
+        }
+        long flaky = recordedOutcomes.values().stream().filter(outcome -> outcome == Outcome.FLAKY).count();
+        return String.format(Locale.ROOT, "%d retried, %d passed on a retry, %d quarantined",
+                retriedScenarios.get(), flaky, quarantinedScenarios.get());
+    }
+
+    /**
+     * Append this run's outcomes to the flake statistics file
+     */
+    public static synchronized void saveFlakeStats() {
+        if (recordedOutcomes.isEmpty()) {
+            return;
+        }
+        int historySize = Math.max(1, ConfigManager.getInstance().getInt("flake.history.size", 20));
+        Properties stats = getFlakeStats();
+        recordedOutcomes.forEach((key, outcome) -> {
+            String history = stats.getProperty(key, "") + outcome.code;
+            stats.setProperty(key, history.substring(Math.max(0, history.length() - historySize)));
+        });
+        recordedOutcomes.clear();
+
+        Path file = getStatsFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream os = Files.newOutputStream(file)) {
+                stats.store(os, "Recent outcomes per scenario, oldest first: P passed, F flaky, X failed");
+            }
+            logger.info("Saved flake statistics of {} scenarios to: {}", stats.size(), file);
+        } catch (IOException e) {
+            logger.error("Failed to save flake statistics", e);
+        }
+    }
+
+    private static double flakeRate(String history) {
+        long flaky = history.chars().filter(code -> code == Outcome.FLAKY.code).count();
+        return (double) flaky / history.length();
+    }
+
+    private static Properties getFlakeStats() {
+        if (flakeStats == null) {
+            synchronized (RerunPolicy.class) {
+                if (flakeStats == null) {
+                    Properties stats = new Properties();
+                    Path file = getStatsFile();
+                    if (Files.exists(file)) {
+                        try (InputStream is = Files.newInputStream(file)) {
+                            stats.load(is);
+                        } catch (IOException e) {
+                            logger.warn("Could not read flake statistics from: {}", file);
+                        }
+                    }
+                    flakeStats = stats;
+                }
+            }
+        }
+        return flakeStats;
+    }
+
+    private static Path getStatsFile() {
+        return Paths.get(ConfigManager.getInstance().getProperty("flake.stats.file", DEFAULT_STATS_FILE));
+    }
+
+    private static String keyOf(PickleWrapper pickleWrapper) {
+        Pickle pickle = pickleWrapper.getPickle();
+        return ShardPlanner.portableKey(pickle.getUri(), pickle.getLine());
+    }
+}
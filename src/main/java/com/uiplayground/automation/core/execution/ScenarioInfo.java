@@ -0,0 +1,75 @@
+package com.uiplayground.automation.core.execution;
+
+import java.io.Serializable;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lightweight, cacheable description of a parsed Cucumber pickle
+ */
+public final class ScenarioInfo implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String uri;
+    private final int line;
+    private final String name;
+    private final List<String> tags;
+    private final List<String> stepKeywords;
+    private final List<String> stepTexts;
+
+    public ScenarioInfo(URI uri, int line, String name, List<String> tags,
+            List<String> stepKeywords, List<String> stepTexts) {
+        this.uri = uri.toString();
+        this.line = line;
+        this.name = name;
+        this.tags = new ArrayList<>(tags);
+        this.stepKeywords = new ArrayList<>(stepKeywords);
+        this.stepTexts = new ArrayList<>(stepTexts);
+    }
+
+    public URI getUri() {
+        return URI.create(uri);
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getTags() {
+        return Collections.unmodifiableList(tags);
+    }
+
+    /**
+     * Step keywords in execution order, including Background steps
+     *
+     * @return Keywords such as "Given", "When", "And"
+     */
+    public List<String> getStepKeywords() {
+        return Collections.unmodifiableList(stepKeywords);
+    }
+
+    /**
+     * Step texts in execution order, including Background steps
+     *
+     * @return Step texts without keywords
+     */
+    public List<String> getStepTexts() {
+        return Collections.unmodifiableList(stepTexts);
+    }
+
+    /**
+     * Get the key that identifies this scenario across planners
+     *
+     * @return Scenario key in the form path:line
+     */
+    public String getKey() {
+        return FeatureScanner.scenarioKey(getUri(), line);
+    }
+}
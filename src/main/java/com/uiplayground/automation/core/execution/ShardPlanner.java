@@ -0,0 +1,247 @@
+package com.uiplayground.automation.core.execution;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Splits the scenarios of a runner across CI nodes
+ * Enabled with -Dshard.index=N -Dshard.count=M. Scenarios with a recorded duration are balanced
+ * longest-first onto the least loaded shard; scenarios without history are placed by key hash.
+ * The same inputs always produce the same assignment on every node.
+ * shard.durations.file is only read, so every shard plans from the same history; each run writes the durations
+ * it measured to shard.durations.output, and mergeDurations folds those back into the history.
+ */
+public final class ShardPlanner {
+
+    private static final Logger logger = LogManager.getLogger(ShardPlanner.class);
+    private static final String DEFAULT_DURATIONS_FILE = "reports/scenario-durations.properties";
+    private static final String OUTPUT_FILE_NAME = "scenario-durations.properties";
+
+    private static final Map<String, Long> recordedDurations = new ConcurrentHashMap<>();
+    private static volatile Properties historicalDurations;
+
+    private ShardPlanner() {
+        // Utility class
+    }
+
+    /**
+     * Check whether this JVM runs a single shard
+     *
+     * @return true if shard.count is greater than one
+     */
+    public static boolean isSharded() {
+        return getShardCount() > 1;
+    }
+
+    /**
+     * Get the shard this JVM runs
+     *
+     * @return Zero based shard index
+     */
+    public static int getShardIndex() {
+        return ConfigManager.getInstance().getInt("shard.index", 0);
+    }
+
+    /**
+     * Get the total number of shards
+     *
+     * @return Shard count, 1 when sharding is off
+     */
+    public static int getShardCount() {
+        return ConfigManager.getInstance().getInt("shard.count", 1);
+    }
+
+    /**
+     * Keep only the scenarios assigned to this shard
+     *
+     * @param scenarios Data provider rows of PickleWrapper and FeatureWrapper
+     * @return Rows for the current shard
+     */
+    public static Object[][] filterScenarios(Object[][] scenarios) {
+        int shardCount = getShardCount();
+        if (shardCount <= 1) {
+            return scenarios;
+        }
+        int shardIndex = getShardIndex();
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException(String.format(
+                    "shard.index must be between 0 and %d but was %d", shardCount - 1, shardIndex));
+        }
+
+        Properties history = getHistoricalDurations();
+        List<Object[]> timed = new ArrayList<>();
+        List<Object[]> untimed = new ArrayList<>();
+        for (Object[] row : scenarios) {
+            (history.containsKey(keyOf(row)) ? timed : untimed).add(row);
+        }
+
+        // Longest processing time first onto the least loaded shard
+        timed.sort(Comparator.<Object[]>comparingLong(row -> durationOf(history, row)).reversed()
+                .thenComparing(ShardPlanner::keyOf));
+        long[] load = new long[shardCount];
+        List<Object[]> assigned = new ArrayList<>();
+        for (Object[] row : timed) {
+            int target = 0;
+            for (int shard = 1; shard < shardCount; shard++) {
+                if (load[shard] < load[target]) {
+                    target = shard;
+                }
+            }
+            load[target] += durationOf(history, row);
+            if (target == shardIndex) {
+                assigned.add(row);
+            }
+        }
+        for (Object[] row : untimed) {
+            if (Math.floorMod(keyOf(row).hashCode(), shardCount) == shardIndex) {
+                assigned.add(row);
+            }
+        }
+
+        logger.info("Shard {}/{}: running {} of {} scenarios ({} ms planned from history)",
+                shardIndex + 1, shardCount, assigned.size(), scenarios.length, load[shardIndex]);
+        return assigned.toArray(new Object[0][]);
+    }
+
+    /**
+     * Record how long a scenario took so future runs can balance shards
+     *
+     * @param uri      Feature URI
+     * @param line     Scenario line
+     * @param duration Scenario duration
+     */
+    public static void recordDuration(URI uri, int line, Duration duration) {
+        recordedDurations.put(portableKey(uri, line), duration.toMillis());
+    }
+
+    /**
+     * Write the durations measured in this run to shard.durations.output
+     * The shard's output directory then carries them to ShardReportMerger.
+     */
+    public static synchronized void saveDurations() {
+        if (recordedDurations.isEmpty()) {
+            return;
+        }
+        Properties durations = new Properties();
+        recordedDurations.forEach((key, millis) -> durations.setProperty(key, String.valueOf(millis)));
+        store(durations, getOutputFile(), "Scenario durations in milliseconds measured by this run");
+    }
+
+    /**
+     * Fold the durations measured by shard runs into the durations history
+     *
+     * @param outputs Duration files written by the shards
+     * @param target  File to write the merged history to, e.g. the next run's shard.durations.file
+     */
+    public static void mergeDurations(List<Path> outputs, Path target) {
+        Properties durations = new Properties();
+        durations.putAll(getHistoricalDurations());
+        for (Path output : outputs) {
+            durations.putAll(load(output));
+        }
+        store(durations, target, "Scenario durations in milliseconds, used for shard balancing");
+    }
+
+    /**
+     * Check whether a file is a durations output written by saveDurations
+     *
+     * @param file File in a shard output directory
+     * @return true if the file holds scenario durations
+     */
+    public static boolean isDurationsOutput(Path file) {
+        return OUTPUT_FILE_NAME.equals(file.getFileName().toString());
+    }
+
+    private static void store(Properties durations, Path file, String comment) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream os = Files.newOutputStream(file)) {
+                durations.store(os, comment);
+            }
+            logger.info("Saved {} scenario durations to: {}", durations.size(), file);
+        } catch (IOException e) {
+            logger.error("Failed to save scenario durations", e);
+        }
+    }
+
+    private static Properties load(Path file) {
+        Properties durations = new Properties();
+        if (Files.exists(file)) {
+            try (InputStream is = Files.newInputStream(file)) {
+                durations.load(is);
+            } catch (IOException e) {
+                logger.warn("Could not read scenario durations from: {}", file);
+            }
+        }
+        return durations;
+    }
+
+    private static Properties getHistoricalDurations() {
+        if (historicalDurations == null) {
+            synchronized (ShardPlanner.class) {
+                if (historicalDurations == null) {
+                    historicalDurations = load(getDurationsFile());
+                }
+            }
+        }
+        return historicalDurations;
+    }
+
+    private static Path getDurationsFile() {
+        return Paths.get(ConfigManager.getInstance().getProperty("shard.durations.file", DEFAULT_DURATIONS_FILE));
+    }
+
+    /**
+     * Durations output, by default next to the Cucumber reports a shard's output directory is copied from
+     */
+    private static Path getOutputFile() {
+        String output = ConfigManager.getInstance().getProperty("shard.durations.output", "");
+        return output.isBlank() ? Paths.get(ConfigManager.getInstance().getCucumberReportsPath(), OUTPUT_FILE_NAME)
+                : Paths.get(output);
+    }
+
+    private static long durationOf(Properties history, Object[] row) {
+        try {
+            return Long.parseLong(history.getProperty(keyOf(row)));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    private static String keyOf(Object[] row) {
+        Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+        return portableKey(pickle.getUri(), pickle.getLine());
+    }
+
+    /**
+     * Scenario key relative to the working directory so it matches on every CI node
+     */
+    static String portableKey(URI uri, int line) {
+        String key = FeatureScanner.scenarioKey(uri, line);
+        String workingDir = Paths.get("").toAbsolutePath().toString();
+        if (key.startsWith(workingDir)) {
+            key = key.substring(workingDir.length() + 1);
+        }
+        return key.replace('\\', '/');
+    }
+}
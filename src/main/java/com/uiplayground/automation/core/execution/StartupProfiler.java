@@ -0,0 +1,82 @@
+package com.uiplayground.automation.core.execution;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records where time goes before the first step of a run executes
+ * Phases are accumulated across runner classes and written as startup-profile.txt next to the Extent report
+ */
+public final class StartupProfiler {
+
+    private static final Logger logger = LogManager.getLogger(StartupProfiler.class);
+    private static final String PROFILE_FILE = "startup-profile.txt";
+
+    // Wall clock time between JVM start and this class being loaded (JVM, Surefire, TestNG and log4j bootstrap)
+    private static final long BOOTSTRAP_MILLIS =
+            System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    private static final Map<String, LongAdder> phaseNanos = new ConcurrentSkipListMap<>();
+    private static final Map<String, LongAdder> phaseCounts = new ConcurrentHashMap<>();
+    private static final AtomicLong firstStepMillis = new AtomicLong(-1);
+
+    private StartupProfiler() {
+        // Utility class
+    }
+
+    /**
+     * Add the time since start to a phase
+     *
+     * @param phase      Phase name
+     * @param startNanos Value of System.nanoTime() when the phase started
+     */
+    public static void record(String phase, long startNanos) {
+        phaseNanos.computeIfAbsent(phase, k -> new LongAdder()).add(System.nanoTime() - startNanos);
+        phaseCounts.computeIfAbsent(phase, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Mark that a step is about to execute; only the first call in the JVM is kept
+     */
+    public static void firstStepStarted() {
+        if (firstStepMillis.get() < 0) {
+            firstStepMillis.compareAndSet(-1,
+                    System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime());
+        }
+    }
+
+    /**
+     * Write the startup profile broken down by phase
+     */
+    public static void writeReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-45s %10s %6s%n", "Phase", "Total ms", "Count"));
+        report.append(String.format("%-45s %10d %6d%n", "jvm and framework bootstrap", BOOTSTRAP_MILLIS, 1));
+        phaseNanos.forEach((phase, nanos) -> report.append(String.format("%-45s %10d %6d%n",
+                phase, TimeUnit.NANOSECONDS.toMillis(nanos.sum()), phaseCounts.get(phase).sum())));
+        report.append(String.format("%-45s %10d%n", "time to first step (since jvm start)", firstStepMillis.get()));
+        logger.info("Startup profile:{}{}", System.lineSeparator(), report);
+
+        String reportsPath = ConfigManager.getInstance().getProperty("reportsPath", "reports/extent-reports");
+        Path profileFile = Paths.get(reportsPath, PROFILE_FILE);
+        try {
+            Files.createDirectories(profileFile.getParent());
+            Files.write(profileFile, report.toString().getBytes());
+        } catch (IOException e) {
+            logger.error("Failed to write startup profile", e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.uiplayground.automation.core.execution;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.PickleWrapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds one deduplicated scenario plan for all Cucumber runners in a TestNG suite
+ * Each pickle is owned by the first runner (in suite order) that selects it and runs only there;
+ * the other runners that select it are recorded so the result can be attributed to all of them
+ */
+public final class SuitePlanner {
+
+    private static final Logger logger = LogManager.getLogger(SuitePlanner.class);
+    private static final String TAGS_PROPERTY = "cucumber.filter.tags";
+    private static final String SUMMARY_FILE = "suite-plan.txt";
+
+    private static volatile Map<String, List<String>> plan;
+    private static final Map<String, String> results = new ConcurrentHashMap<>();
+
+    private SuitePlanner() {
+        // Utility class
+    }
+
+    /**
+     * Resolve the feature paths and tag expressions of every runner in the suite
+     * and build the scenario plan. Only the first call per JVM does any work.
+     *
+     * @param suite TestNG suite definition
+     */
+    public static synchronized void planSuite(XmlSuite suite) {
+        if (plan != null) {
+            return;
+        }
+        Map<String, List<String>> newPlan = new LinkedHashMap<>();
+        for (XmlTest test : suite.getTests()) {
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                Class<?> runnerClass = xmlClass.getSupportClass();
+                CucumberOptions options = runnerClass.getAnnotation(CucumberOptions.class);
+                if (options == null) {
+                    continue;
+                }
+                String tags = resolveTags(test, options);
+                for (ScenarioInfo scenario : FeatureScanner.scan(tags, options.features())) {
+                    List<String> runners = newPlan.computeIfAbsent(scenario.getKey(), k -> new ArrayList<>());
+                    if (!runners.contains(runnerClass.getSimpleName())) {
+                        runners.add(runnerClass.getSimpleName());
+                    }
+                }
+            }
+        }
+        plan = newPlan;
+        long shared = newPlan.values().stream().filter(runners -> runners.size() > 1).count();
+        logger.info("Suite plan built: {} unique scenarios, {} selected by more than one runner",
+                newPlan.size(), shared);
+    }
+
+    /**
+     * Check whether deduplication is enabled
+     *
+     * @return true unless suite.dedupe.enabled is set to false
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("suite.dedupe.enabled", true);
+    }
+
+    /**
+     * Remove the scenarios another runner in the suite already owns
+     *
+     * @param runnerClass Runner providing the scenarios
+     * @param scenarios   Data provider rows of PickleWrapper and FeatureWrapper
+     * @return Rows this runner should execute
+     */
+    public static Object[][] filterScenarios(Class<?> runnerClass, Object[][] scenarios) {
+        if (plan == null || !isEnabled()) {
+            return scenarios;
+        }
+        List<Object[]> owned = new ArrayList<>();
+        for (Object[] row : scenarios) {
+            io.cucumber.testng.Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+            List<String> runners = plan.get(FeatureScanner.scenarioKey(pickle.getUri(), pickle.getLine()));
+            if (runners == null || runners.get(0).equals(runnerClass.getSimpleName())) {
+                owned.add(row);
+            } else {
+                logger.info("Skipping '{}' in {}: already planned for {}",
+                        pickle.getName(), runnerClass.getSimpleName(), runners.get(0));
+            }
+        }
+        return owned.toArray(new Object[0][]);
+    }
+
+    /**
+     * Get every runner in the suite that selected a scenario
+     *
+     * @param uri  Feature URI
+     * @param line Scenario line
+     * @return Runner simple names in suite order, empty if no plan was built
+     */
+    public static List<String> getSelectingRunners(URI uri, int line) {
+        if (plan == null) {
+            return Collections.emptyList();
+        }
+        return plan.getOrDefault(FeatureScanner.scenarioKey(uri, line), Collections.emptyList());
+    }
+
+    /**
+     * Record the outcome of a planned scenario
+     *
+     * @param uri    Feature URI
+     * @param line   Scenario line
+     * @param status Cucumber status name
+     */
+    public static void recordResult(URI uri, int line, String status) {
+        results.put(FeatureScanner.scenarioKey(uri, line), status);
+    }
+
+    /**
+     * Write the plan with per scenario attribution and results to the Cucumber reports directory
+     */
+    public static void writeSummary() {
+        if (plan == null) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<String, List<String>> entry : plan.entrySet()) {
+            summary.append(entry.getKey())
+                    .append(" | ").append(results.getOrDefault(entry.getKey(), "NOT_RUN"))
+                    .append(" | ").append(String.join(", ", entry.getValue()))
+                    .append(System.lineSeparator());
+        }
+        String reportsPath = ConfigManager.getInstance().getProperty("cucumber.reports.path", "target/cucumber-reports");
+        Path summaryFile = Paths.get(reportsPath, SUMMARY_FILE);
+        try {
+            Files.createDirectories(summaryFile.getParent());
+            Files.write(summaryFile, summary.toString().getBytes());
+            logger.info("Suite plan summary written to: {}", summaryFile);
+        } catch (IOException e) {
+            logger.error("Failed to write suite plan summary", e);
+        }
+    }
+
+    private static String resolveTags(XmlTest test, CucumberOptions options) {
+        String tags = test.getParameter(TAGS_PROPERTY);
+        if (tags == null) {
+            tags = System.getProperty(TAGS_PROPERTY);
+        }
+        return tags != null ? tags : options.tags();
+    }
+}
@@ -0,0 +1,27 @@
+package com.uiplayground.automation.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Launch or quit of a WebDriver session
+ */
+@Name("uiplayground.Driver")
+@Label("Driver Lifecycle")
+@Category({"UI Playground", "WebDriver"})
+@Description("WebDriver session launch and quit, including browser admission")
+@StackTrace(false)
+public class DriverEvent extends jdk.jfr.Event {
+
+    @Label("Action")
+    public String action;
+
+    @Label("Driver")
+    public String driver;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,67 @@
+package com.uiplayground.automation.core.jfr;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+/**
+ * Manages the optional Java Flight Recorder recording of a test run
+ * With jfr.recording.enabled the framework events (scenarios, steps, driver lifecycle, page actions,
+ * screenshots) are recorded together with the JVM's GC, thread and I/O events and written to
+ * run.jfr in the Cucumber reports directory. Without a recording the events cost next to nothing.
+ */
+public final class FlightRecording {
+
+    private static final Logger logger = LogManager.getLogger(FlightRecording.class);
+    private static final String RECORDING_FILE = "run.jfr";
+
+    private static Recording recording;
+
+    private FlightRecording() {
+        // Utility class
+    }
+
+    /**
+     * Check whether the run should be recorded
+     *
+     * @return true if jfr.recording.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("jfr.recording.enabled", false);
+    }
+
+    /**
+     * Start the recording if it is not already running
+     * It is written when the JVM exits, since TestNG contexts and Cucumber runners finish one at a time
+     * and none of them marks the end of the whole run.
+     */
+    public static synchronized void start() {
+        if (recording != null) {
+            return;
+        }
+        ConfigManager config = ConfigManager.getInstance();
+        String settings = config.getProperty("jfr.recording.settings", "profile");
+        Path destination = Paths.get(config.getCucumberReportsPath(), RECORDING_FILE);
+        try {
+            Files.createDirectories(destination.getParent());
+            Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+            newRecording.setName("uiplayground-run");
+            newRecording.setToDisk(true);
+            newRecording.setDumpOnExit(true);
+            newRecording.setDestination(destination);
+            newRecording.start();
+            recording = newRecording;
+            logger.info("Flight recording started with '{}' settings, writing to {}", settings, destination);
+        } catch (IOException | ParseException e) {
+            logger.error("Failed to start flight recording", e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.uiplayground.automation.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Wait or element action performed by a page object
+ */
+@Name("uiplayground.PageAction")
+@Label("Page Action")
+@Category({"UI Playground", "Page Objects"})
+@Description("Explicit waits and element actions of BasePage")
+@StackTrace(false)
+public class PageActionEvent extends jdk.jfr.Event {
+
+    @Label("Action")
+    public String action;
+
+    @Label("Page")
+    public String page;
+
+    @Label("Element")
+    public String element;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
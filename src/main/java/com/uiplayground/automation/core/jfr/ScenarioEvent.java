@@ -0,0 +1,30 @@
+package com.uiplayground.automation.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One Cucumber scenario, from TestCaseStarted to TestCaseFinished
+ */
+@Name("uiplayground.Scenario")
+@Label("Scenario")
+@Category({"UI Playground", "Cucumber"})
+@Description("Cucumber scenario execution")
+@StackTrace(false)
+public class ScenarioEvent extends jdk.jfr.Event {
+
+    @Label("Name")
+    public String name;
+
+    @Label("Feature")
+    public String uri;
+
+    @Label("Line")
+    public int line;
+
+    @Label("Status")
+    public String status;
+}
@@ -0,0 +1,26 @@
+package com.uiplayground.automation.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Capture and write of one screenshot
+ */
+@Name("uiplayground.Screenshot")
+@Label("Screenshot")
+@Category({"UI Playground", "Reporting"})
+@Description("Screenshot capture and file write")
+@StackTrace(false)
+public class ScreenshotEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,27 @@
+package com.uiplayground.automation.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One Cucumber step, from TestStepStarted to TestStepFinished
+ */
+@Name("uiplayground.Step")
+@Label("Step")
+@Category({"UI Playground", "Cucumber"})
+@Description("Cucumber step execution")
+@StackTrace(false)
+public class StepEvent extends jdk.jfr.Event {
+
+    @Label("Step")
+    public String text;
+
+    @Label("Scenario")
+    public String scenario;
+
+    @Label("Status")
+    public String status;
+}
@@ -0,0 +1,159 @@
+package com.uiplayground.automation.core.load;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with a fixed relative precision, in the style of HdrHistogram
+ * Values are bucketed by powers of two, each split into 1024 linear sub-buckets by default, so any recorded
+ * value is reported within 0.1% of its true value. Recording is safe from any number of threads.
+ */
+public final class LatencyHistogram {
+
+    private static final int DEFAULT_PRECISION_BITS = 10;
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+
+    private final int subBucketBits;
+    private final int subBucketCount;
+    private final int subBucketHalfCount;
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    public LatencyHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * Histogram with 2^precisionBits sub-buckets per power of two, i.e. a relative precision of 2^-precisionBits
+     * Each step down halves the memory: 10 bits take 256 KB, 5 bits (3%) about 9 KB.
+     *
+     * @param precisionBits Between 1 and 10
+     */
+    public LatencyHistogram(int precisionBits) {
+        if (precisionBits < 1 || precisionBits > DEFAULT_PRECISION_BITS) {
+            throw new IllegalArgumentException("precisionBits must be between 1 and 10: " + precisionBits);
+        }
+        subBucketBits = precisionBits + 1;
+        subBucketCount = 1 << subBucketBits;
+        subBucketHalfCount = subBucketCount / 2;
+        counts = new AtomicLongArray((MAX_VALUE_BITS - precisionBits) * subBucketHalfCount + subBucketCount);
+    }
+
+    /**
+     * Record a value
+     *
+     * @param value Value, clamped to the range 0 to 2^40 - 1
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, MAX_VALUE));
+        counts.incrementAndGet(indexOf(clamped));
+        totalCount.incrementAndGet();
+        maxValue.accumulateAndGet(clamped, Math::max);
+    }
+
+    /**
+     * Record a value and back-fill the samples a stalled closed-loop caller failed to issue
+     * When a request takes longer than the expected interval between requests, the requests that should
+     * have been sent meanwhile would have waited too; recording them corrects for coordinated omission.
+     *
+     * @param value            Value
+     * @param expectedInterval Expected interval between samples, 0 to disable correction
+     */
+    public void recordWithExpectedInterval(long value, long expectedInterval) {
+        record(value);
+        if (expectedInterval <= 0) {
+            return;
+        }
+        for (long missing = value - expectedInterval; missing >= expectedInterval; missing -= expectedInterval) {
+            record(missing);
+        }
+    }
+
+    /**
+     * Add all values recorded by another histogram, e.g. to merge per-thread histograms
+     *
+     * @param other Histogram to add, with the same precision
+     */
+    public void add(LatencyHistogram other) {
+        if (other.subBucketBits != subBucketBits) {
+            throw new IllegalArgumentException("Cannot add a histogram of a different precision");
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count > 0) {
+                counts.addAndGet(i, count);
+                totalCount.addAndGet(count);
+            }
+        }
+        maxValue.accumulateAndGet(other.maxValue.get(), Math::max);
+    }
+
+    /**
+     * Get the value at a percentile
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return Highest value equivalent to the bucket holding the percentile, 0 if empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    public long getTotalCount() {
+        return totalCount.get();
+    }
+
+    public long getMaxValue() {
+        return maxValue.get();
+    }
+
+    /**
+     * Get the mean of the recorded values
+     *
+     * @return Mean, 0 if empty
+     */
+    public double getMean() {
+        long total = 0;
+        double sum = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                total += count;
+                sum += (double) count * lowestEquivalentValue(i);
+            }
+        }
+        return total == 0 ? 0 : sum / total;
+    }
+
+    private int indexOf(long value) {
+        int bucket = 63 - Long.numberOfLeadingZeros(value | (subBucketCount - 1)) - (subBucketBits - 1);
+        int subBucket = (int) (value >>> bucket);
+        return bucket * subBucketHalfCount + subBucket;
+    }
+
+    private int bucketOf(int index) {
+        return index < subBucketCount ? 0 : (index - subBucketCount) / subBucketHalfCount + 1;
+    }
+
+    private long lowestEquivalentValue(int index) {
+        int bucket = bucketOf(index);
+        return (long) (index - bucket * subBucketHalfCount) << bucket;
+    }
+
+    private long highestEquivalentValue(int index) {
+        return lowestEquivalentValue(index) + (1L << bucketOf(index)) - 1;
+    }
+}
@@ -0,0 +1,241 @@
+package com.uiplayground.automation.core.load;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a workload repeatedly for a fixed duration and measures its latency
+ * Two models are supported:
+ * - load.rate > 0: open model. Iterations are scheduled at a fixed rate and latency is measured from the
+ *   intended start time, so queueing behind slow iterations is counted (no coordinated omission).
+ * - load.rate = 0: closed model. load.concurrency workers run back to back; set load.expected.interval.ms to
+ *   back-fill the samples a stalled worker would have issued.
+ * Samples taken during load.warmup.seconds are discarded.
+ */
+public final class LoadGenerator {
+
+    private static final Logger logger = LogManager.getLogger(LoadGenerator.class);
+    private static final String REPORT_FILE = "load-report.txt";
+
+    /**
+     * One iteration of the load, e.g. running a Cucumber scenario
+     */
+    @FunctionalInterface
+    public interface Workload {
+        void run() throws Throwable;
+    }
+
+    /**
+     * Outcome of a load run
+     */
+    public static final class Result {
+
+        private final String name;
+        private final String model;
+        private final long elapsedNanos;
+        private final long errors;
+        private final LatencyHistogram responseTime;
+        private final LatencyHistogram serviceTime;
+
+        private Result(String name, String model, long elapsedNanos, long errors,
+                       LatencyHistogram responseTime, LatencyHistogram serviceTime) {
+            this.name = name;
+            this.model = model;
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+            this.responseTime = responseTime;
+            this.serviceTime = serviceTime;
+        }
+
+        /**
+         * Latency including time spent waiting to start, corrected for coordinated omission
+         */
+        public LatencyHistogram getResponseTime() {
+            return responseTime;
+        }
+
+        /**
+         * Latency from the actual start of each iteration
+         */
+        public LatencyHistogram getServiceTime() {
+            return serviceTime;
+        }
+
+        public long getIterations() {
+            return serviceTime.getTotalCount();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getThroughput() {
+            return getIterations() / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        public double getErrorPercent() {
+            return getIterations() == 0 ? 0 : errors * 100.0 / getIterations();
+        }
+
+        /**
+         * Format the result as a plain text table with latencies in milliseconds
+         *
+         * @return Report text
+         */
+        public String format() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format(Locale.ROOT, "Workload:   %s%n", name));
+            report.append(String.format(Locale.ROOT, "Model:      %s%n", model));
+            report.append(String.format(Locale.ROOT, "Iterations: %d in %.1f s (%.1f/s), %d errors (%.2f%%)%n",
+                    getIterations(), elapsedNanos / 1_000_000_000.0, getThroughput(), errors, getErrorPercent()));
+            report.append(String.format(Locale.ROOT, "%n%-16s %9s %9s %9s %9s %9s %9s%n",
+                    "Latency (ms)", "mean", "p50", "p90", "p99", "p99.9", "max"));
+            appendRow(report, "response time", responseTime);
+            appendRow(report, "service time", serviceTime);
+            return report.toString();
+        }
+
+        private static void appendRow(StringBuilder report, String label, LatencyHistogram histogram) {
+            report.append(String.format(Locale.ROOT, "%-16s %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", label,
+                    histogram.getMean() / 1000.0,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0));
+        }
+    }
+
+    private LoadGenerator() {
+        // Utility class
+    }
+
+    /**
+     * Run a workload with the load.* settings
+     *
+     * @param name     Workload name for the report
+     * @param workload Iteration to repeat
+     * @return Measured result
+     */
+    public static Result run(String name, Workload workload) {
+        ConfigManager config = ConfigManager.getInstance();
+        double rate = config.getDouble("load.rate", 0);
+        int concurrency = Math.max(1, config.getInt("load.concurrency", 8));
+        long durationNanos = TimeUnit.SECONDS.toNanos(config.getLong("load.duration.seconds", 10));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(config.getLong("load.warmup.seconds", 0));
+        long expectedIntervalMicros = TimeUnit.MILLISECONDS.toMicros(config.getLong("load.expected.interval.ms", 0));
+
+        // Platform threads: virtual threads need Java 21 and this build targets Java 11
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "load-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        LatencyHistogram responseTime = new LatencyHistogram();
+        LatencyHistogram serviceTime = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+
+        // One untimed iteration loads classes and clients before the workers contend for them
+        iterate(workload, System.nanoTime(), false, 0, responseTime, serviceTime, errors);
+        long start = System.nanoTime();
+        long recordFrom = start + warmupNanos;
+        long end = recordFrom + durationNanos;
+
+        String model;
+        if (rate > 0) {
+            model = String.format(Locale.ROOT, "open, %.1f iterations/s on up to %d workers", rate, concurrency);
+            logger.info("Running '{}' ({}) for {} s", name, model, TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+            long periodNanos = (long) (1_000_000_000L / rate);
+            for (long intended = start; intended < end; intended += periodNanos) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long intendedStart = intended;
+                workers.execute(() -> iterate(workload, intendedStart, intendedStart >= recordFrom, 0,
+                        responseTime, serviceTime, errors));
+            }
+        } else {
+            model = String.format(Locale.ROOT, "closed, %d concurrent workers", concurrency);
+            logger.info("Running '{}' ({}) for {} s", name, model, TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+            for (int i = 0; i < concurrency; i++) {
+                workers.execute(() -> {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        iterate(workload, now, now >= recordFrom, expectedIntervalMicros,
+                                responseTime, serviceTime, errors);
+                    }
+                });
+            }
+        }
+
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(Math.max(30, TimeUnit.NANOSECONDS.toSeconds(durationNanos)), TimeUnit.SECONDS)) {
+                logger.warn("Load workers did not finish in time, abandoning {} queued iterations",
+                        workers.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        long elapsed = Math.max(1, System.nanoTime() - recordFrom);
+        Result result = new Result(name, model, elapsed, errors.get(), responseTime, serviceTime);
+        logger.info("Load result:{}{}", System.lineSeparator(), result.format());
+        return result;
+    }
+
+    /**
+     * Write results to load-report.txt in the Cucumber reports directory
+     *
+     * @param results Results to write
+     */
+    public static void writeReport(List<Result> results) {
+        List<String> sections = new ArrayList<>();
+        results.forEach(result -> sections.add(result.format()));
+        Path reportFile = Paths.get(ConfigManager.getInstance().getCucumberReportsPath(), REPORT_FILE);
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.write(reportFile, String.join(System.lineSeparator(), sections).getBytes());
+            logger.info("Load report written to: {}", reportFile);
+        } catch (IOException e) {
+            logger.error("Failed to write load report", e);
+        }
+    }
+
+    private static void iterate(Workload workload, long intendedStart, boolean recorded, long expectedIntervalMicros,
+                                LatencyHistogram responseTime, LatencyHistogram serviceTime, AtomicLong errors) {
+        long actualStart = System.nanoTime();
+        boolean failed = false;
+        try {
+            workload.run();
+        } catch (Throwable t) {
+            failed = true;
+            logger.debug("Load iteration failed: {}", t.getMessage());
+        }
+        if (!recorded) {
+            return;
+        }
+        long finished = System.nanoTime();
+        responseTime.recordWithExpectedInterval(TimeUnit.NANOSECONDS.toMicros(finished - intendedStart),
+                expectedIntervalMicros);
+        serviceTime.record(TimeUnit.NANOSECONDS.toMicros(finished - actualStart));
+        if (failed) {
+            errors.incrementAndGet();
+        }
+    }
+}
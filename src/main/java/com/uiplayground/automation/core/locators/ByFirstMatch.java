@@ -0,0 +1,185 @@
+package com.uiplayground.automation.core.locators;
+
+import com.uiplayground.automation.core.driver.StaticPageDriver;
+import com.uiplayground.automation.core.execution.ImpactAnalyzer;
+import com.uiplayground.automation.core.reporting.ReportManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Locator that tries ordered alternatives and uses the first one that matches, built from @FindFirst
+ * The primary locator is queried on its own, so a working primary costs nothing extra. When it matches
+ * nothing, the remaining alternatives are tried in one script in the browser (one by one on the static
+ * driver), and the winner is used for the field for the rest of the run. Each fallback is logged and added
+ * to the scenario's report once, so drift in the primary locator is visible. The primary and the alternative
+ * that matched are reported to the impact analysis, since the driver only sees this composite locator.
+ */
+public class ByFirstMatch extends By {
+
+    private static final Logger logger = LogManager.getLogger(ByFirstMatch.class);
+
+    // Returns [index, elements] of the first alternative with matches, or [-1, []]; alternatives are W3C strategies
+    private static final String FIRST_MATCH_SCRIPT =
+            "var root = arguments[0] || document, alternatives = arguments[1];"
+            + "for (var i = 0; i < alternatives.length; i++) {"
+            + "  var using = alternatives[i][0], value = alternatives[i][1], found = [];"
+            + "  try {"
+            + "    if (using === 'xpath') {"
+            + "      var result = document.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "      for (var j = 0; j < result.snapshotLength; j++) { found.push(result.snapshotItem(j)); }"
+            + "    } else if (using === 'link text' || using === 'partial link text') {"
+            + "      var links = root.querySelectorAll('a');"
+            + "      for (var k = 0; k < links.length; k++) {"
+            + "        var text = (links[k].innerText || links[k].textContent || '').trim();"
+            + "        if (using === 'link text' ? text === value : text.indexOf(value) >= 0) { found.push(links[k]); }"
+            + "      }"
+            + "    } else {"
+            + "      found = Array.prototype.slice.call(root.querySelectorAll(value));"
+            + "    }"
+            + "  } catch (e) {}"
+            + "  if (found.length > 0) { return [i, found]; }"
+            + "}"
+            + "return [-1, []];";
+
+    private static final Map<String, Integer> winners = new ConcurrentHashMap<>();
+    private static final Map<String, String> fallbacks = new ConcurrentHashMap<>();
+
+    private final String key;
+    private final List<By> alternatives;
+
+    /**
+     * @param field        Page object field the locator belongs to
+     * @param alternatives Locators in order of preference, the primary first
+     */
+    public ByFirstMatch(Field field, List<By> alternatives) {
+        if (alternatives.isEmpty()) {
+            throw new IllegalArgumentException("@FindFirst of " + field.getName() + " needs at least one @FindBy");
+        }
+        this.key = LocatorOptimizer.keyOf(field);
+        this.alternatives = Collections.unmodifiableList(new ArrayList<>(alternatives));
+    }
+
+    /**
+     * Describe the fallbacks used in this run
+     *
+     * @return Field and the alternative it fell back to, or null if every primary matched
+     */
+    public static String getFallbackSummary() {
+        if (fallbacks.isEmpty()) {
+            return null;
+        }
+        List<String> used = new ArrayList<>();
+        new TreeMap<>(fallbacks).forEach((key, alternative) ->
+                used.add(key.substring(key.lastIndexOf('.', key.lastIndexOf('.') - 1) + 1) + " -> " + alternative));
+        return String.join(", ", used);
+    }
+
+    @Override
+    public List<WebElement> findElements(SearchContext context) {
+        ImpactAnalyzer.recordLocator(alternatives.get(0));
+        int winner = winners.getOrDefault(key, 0);
+        List<WebElement> elements = context.findElements(alternatives.get(winner));
+        if (!elements.isEmpty() || alternatives.size() == 1) {
+            if (winner != 0) {
+                ImpactAnalyzer.recordLocator(alternatives.get(winner));
+            }
+            return elements;
+        }
+
+        // The cached alternative no longer matches: resolve the whole chain again, primary first
+        if (winner != 0) {
+            elements = context.findElements(alternatives.get(0));
+            if (!elements.isEmpty()) {
+                winners.remove(key);
+                return elements;
+            }
+        }
+        Object[] match = findFirstMatch(context);
+        if (match == null) {
+            return Collections.emptyList();
+        }
+        int index = (Integer) match[0];
+        ImpactAnalyzer.recordLocator(alternatives.get(index));
+        if (winners.put(key, index) == null && fallbacks.putIfAbsent(key, format(index)) == null) {
+            String message = String.format("Locator fallback for %s: %s matched nothing, using alternative %d %s",
+                    key, alternatives.get(0), index + 1, alternatives.get(index));
+            logger.warn(message);
+            ReportManager.logWarning(message);
+        }
+        @SuppressWarnings("unchecked")
+        List<WebElement> found = (List<WebElement>) match[1];
+        return found;
+    }
+
+    @Override
+    public String toString() {
+        return "By.firstMatch: " + alternatives;
+    }
+
+    /**
+     * Find the first alternative after the primary that matches
+     *
+     * @return Index and elements, or null if none matches
+     */
+    private Object[] findFirstMatch(SearchContext context) {
+        JavascriptExecutor js = javascriptOf(context);
+        if (js != null && alternatives.stream().allMatch(by -> by instanceof By.Remotable)) {
+            List<List<Object>> remaining = new ArrayList<>();
+            for (By alternative : alternatives.subList(1, alternatives.size())) {
+                remaining.add(LocatorCandidates.toW3C(alternative));
+            }
+            try {
+                Object result = js.executeScript(FIRST_MATCH_SCRIPT,
+                        context instanceof WebElement ? context : null, remaining);
+                if (result instanceof List && ((List<?>) result).size() == 2) {
+                    int index = ((Number) ((List<?>) result).get(0)).intValue();
+                    return index < 0 ? null : new Object[]{index + 1, ((List<?>) result).get(1)};
+                }
+            } catch (WebDriverException e) {
+                logger.debug("Could not resolve {} in the browser, trying alternatives one by one: {}",
+                        key, e.getMessage());
+            }
+        }
+        for (int index = 1; index < alternatives.size(); index++) {
+            List<WebElement> elements = context.findElements(alternatives.get(index));
+            if (!elements.isEmpty()) {
+                return new Object[]{index, elements};
+            }
+        }
+        return null;
+    }
+
+    private String format(int index) {
+        By alternative = alternatives.get(index);
+        return alternative instanceof By.Remotable ? LocatorCandidates.format(alternative) : alternative.toString();
+    }
+
+    private static JavascriptExecutor javascriptOf(SearchContext context) {
+        if (StaticPageDriver.isBrowserless(context)) {
+            return null;
+        }
+        if (context instanceof JavascriptExecutor) {
+            return (JavascriptExecutor) context;
+        }
+        if (context instanceof WrapsDriver) {
+            WebDriver driver = ((WrapsDriver) context).getWrappedDriver();
+            return driver instanceof JavascriptExecutor ? (JavascriptExecutor) driver : null;
+        }
+        return null;
+    }
+}
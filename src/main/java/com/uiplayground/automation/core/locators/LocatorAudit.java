@@ -0,0 +1,239 @@
+package com.uiplayground.automation.core.locators;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.driver.StaticPageDriver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every @FindBy locator on the live page the first time it is used
+ * Each locator is checked to match what its field expects (exactly one element for a WebElement field), and
+ * alternative locators from LocatorCandidates are tried against the same page. A candidate is only proposed if
+ * it finds exactly the same elements and is faster by locator.audit.min.gain.percent. writeReport ranks all
+ * locators by cost and saves the verified faster forms for LocatorOptimizer.
+ */
+public final class LocatorAudit {
+
+    private static final Logger logger = LogManager.getLogger(LocatorAudit.class);
+    private static final String REPORT_FILE = "locator-audit.txt";
+
+    // Average in-browser cost of one query, without the WebDriver round trip
+    private static final String TIMING_SCRIPT =
+            "var using = arguments[0], value = arguments[1], samples = arguments[2];"
+            + "var start = performance.now();"
+            + "for (var i = 0; i < samples; i++) {"
+            + "  if (using === 'xpath') {"
+            + "    document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "  } else {"
+            + "    document.querySelectorAll(value);"
+            + "  }"
+            + "}"
+            + "return (performance.now() - start) * 1000 / samples;";
+
+    /**
+     * Audit result of one page object field
+     */
+    private static final class Result {
+
+        private final String key;
+        private final By declared;
+        private final int matches;
+        private final String status;
+        private final double micros;
+        private final By proposed;
+        private final double proposedMicros;
+
+        private Result(String key, By declared, int matches, String status, double micros,
+                       By proposed, double proposedMicros) {
+            this.key = key;
+            this.declared = declared;
+            this.matches = matches;
+            this.status = status;
+            this.micros = micros;
+            this.proposed = proposed;
+            this.proposedMicros = proposedMicros;
+        }
+    }
+
+    private static final Map<String, Result> results = new ConcurrentHashMap<>();
+    private static final Map<String, By> missing = new ConcurrentHashMap<>();
+    private static final Set<String> inProgress = ConcurrentHashMap.newKeySet();
+
+    private LocatorAudit() {
+        // Utility class
+    }
+
+    /**
+     * Check whether locators are audited on first use
+     *
+     * @return true if locator.audit.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("locator.audit.enabled", false);
+    }
+
+    /**
+     * Audit a field's declared locator unless it was audited before in this run
+     * Failures are logged and never affect the lookup that triggered the audit.
+     *
+     * @param searchContext Driver or element the field is located from
+     * @param field         Page object field
+     * @param declared      Locator declared by its @FindBy
+     */
+    static void auditOnce(SearchContext searchContext, Field field, By declared) {
+        // @FindFirst chains keep their alternatives and are not rewritten
+        if (!isEnabled() || !(declared instanceof By.Remotable)) {
+            return;
+        }
+        String key = LocatorOptimizer.keyOf(field);
+        if (results.containsKey(key) || !inProgress.add(key)) {
+            return;
+        }
+        try {
+            Result result = audit(searchContext, key, declared, field.getType() == WebElement.class);
+            if (result != null) {
+                results.put(key, result);
+                missing.remove(key);
+            } else {
+                missing.put(key, declared);
+            }
+        } catch (WebDriverException e) {
+            logger.debug("Could not audit locator of {}: {}", key, e.getMessage());
+        } finally {
+            inProgress.remove(key);
+        }
+    }
+
+    /**
+     * Rank audited locators by cost, log the ranking and write locator-audit.txt to the Cucumber reports
+     * directory; verified faster locators are saved for LocatorOptimizer
+     */
+    public static void writeReport() {
+        if (results.isEmpty() && missing.isEmpty()) {
+            return;
+        }
+        List<Result> ranked = new ArrayList<>(results.values());
+        ranked.sort(Comparator.comparingDouble((Result result) -> result.micros).reversed());
+        missing.forEach((key, declared) -> {
+            if (!results.containsKey(key)) {
+                ranked.add(new Result(key, declared, 0, "MISSING", 0, null, 0));
+            }
+        });
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-40s %-50s %7s %9s %-40s %9s %7s %s%n",
+                "Field", "Locator", "Matches", "us", "Proposed", "us", "Speedup", "Status"));
+        Map<String, By> replacements = new LinkedHashMap<>();
+        Map<String, By> originals = new LinkedHashMap<>();
+        for (Result result : ranked) {
+            String field = result.key.substring(result.key.lastIndexOf('.', result.key.lastIndexOf('.') - 1) + 1);
+            report.append(String.format(Locale.ROOT, "%-40s %-50s %7d %9.1f %-40s %9s %7s %s%n",
+                    truncate(field, 40), truncate(LocatorCandidates.format(result.declared), 50), result.matches,
+                    result.micros,
+                    result.proposed == null ? "-" : truncate(LocatorCandidates.format(result.proposed), 40),
+                    result.proposed == null ? "-" : String.format(Locale.ROOT, "%.1f", result.proposedMicros),
+                    result.proposed == null ? "-" : String.format(Locale.ROOT, "%.1fx",
+                            result.micros / Math.max(result.proposedMicros, 0.1)),
+                    result.status));
+            if (result.proposed != null) {
+                replacements.put(result.key, result.proposed);
+                originals.put(result.key, result.declared);
+            }
+        }
+        logger.info("Locator audit:{}{}", System.lineSeparator(), report);
+
+        Path reportFile = Paths.get(ConfigManager.getInstance().getCucumberReportsPath(), REPORT_FILE);
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.write(reportFile, report.toString().getBytes());
+        } catch (IOException e) {
+            logger.error("Failed to write locator audit", e);
+        }
+        LocatorOptimizer.save(replacements, originals);
+    }
+
+    private static Result audit(SearchContext searchContext, String key, By declared, boolean expectsOne) {
+        List<WebElement> expected = searchContext.findElements(declared);
+        if (expected.isEmpty()) {
+            // Page objects touch their fields before the page is loaded, so audit again on the next lookup
+            return null;
+        }
+        double micros = time(searchContext, declared);
+        if (expectsOne && expected.size() > 1) {
+            String status = "MATCHES " + expected.size();
+            logger.warn("Locator of {} ({}) is ambiguous: {}", key, declared, status);
+            return new Result(key, declared, expected.size(), status, micros, null, 0);
+        }
+
+        By best = null;
+        double bestMicros = micros;
+        for (By candidate : LocatorCandidates.generate(declared, expected)) {
+            if (!expected.equals(searchContext.findElements(candidate))) {
+                continue;
+            }
+            double candidateMicros = time(searchContext, candidate);
+            if (candidateMicros < bestMicros) {
+                best = candidate;
+                bestMicros = candidateMicros;
+            }
+        }
+        double minGain = ConfigManager.getInstance().getDouble("locator.audit.min.gain.percent", 20.0);
+        if (best != null && bestMicros > micros * (1 - minGain / 100)) {
+            best = null;
+        }
+        if (best != null) {
+            logger.info("Locator of {}: {} finds the same elements as {} in {} instead of {} us", key,
+                    best, declared, String.format(Locale.ROOT, "%.1f", bestMicros),
+                    String.format(Locale.ROOT, "%.1f", micros));
+        }
+        return new Result(key, declared, expected.size(), "OK", micros, best, bestMicros);
+    }
+
+    /**
+     * Time a locator in the browser where possible, otherwise by the median findElements round trip
+     */
+    private static double time(SearchContext searchContext, By by) {
+        int samples = Math.max(1, ConfigManager.getInstance().getInt("locator.audit.samples", 20));
+        String using = LocatorCandidates.using(by);
+        if (searchContext instanceof JavascriptExecutor && !StaticPageDriver.isBrowserless(searchContext)
+                && ("css selector".equals(using) || "xpath".equals(using) || "tag name".equals(using))) {
+            Object micros = ((JavascriptExecutor) searchContext).executeScript(
+                    TIMING_SCRIPT, using, LocatorCandidates.value(by), samples);
+            if (micros instanceof Number) {
+                return ((Number) micros).doubleValue();
+            }
+        }
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            searchContext.findElements(by);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[samples / 2] / 1000.0;
+    }
+
+    private static String truncate(String text, int length) {
+        return text.length() <= length ? text : text.substring(0, length - 3) + "...";
+    }
+}
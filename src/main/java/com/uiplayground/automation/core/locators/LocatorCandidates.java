@@ -0,0 +1,174 @@
+package com.uiplayground.automation.core.locators;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Proposes alternative locators for the elements a locator matched
+ * Candidates are only proposals: LocatorAudit keeps those that find exactly the same elements on the live page.
+ * Forms that only match by accident of one render, such as a bare tag, a tag with classes or a selector without
+ * its ancestors, are not proposed.
+ */
+final class LocatorCandidates {
+
+    private static final Pattern SIMPLE_XPATH = Pattern.compile("^//([\\w-]+|\\*)((?:\\[@[\\w-]+='[^']*'\\])*)$");
+    private static final Pattern XPATH_ATTRIBUTE = Pattern.compile("\\[@([\\w-]+)='([^']*)'\\]");
+    private static final Pattern CSS_IDENTIFIER = Pattern.compile("-?[A-Za-z_][\\w-]*");
+    private static final Pattern CSS_SPECIAL = Pattern.compile("([\\s'\"\\\\#.:;,!?+<>=~*^$|%&@`{}\\-/\\[\\]()])");
+    private static final Pattern GENERATED_VALUE = Pattern.compile(
+            "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-|\\d{4,}|[0-9a-fA-F]{16,}");
+    private static final List<String> TEST_ATTRIBUTES = Arrays.asList(
+            "data-testid", "data-test", "data-qa", "name", "aria-label");
+
+    private LocatorCandidates() {
+        // Utility class
+    }
+
+    /**
+     * Propose candidates for a locator
+     *
+     * @param declared Locator declared by @FindBy
+     * @param matches  Elements it matched on the live page
+     * @return Candidates in proposal order, without the declared locator
+     */
+    static Set<By> generate(By declared, List<WebElement> matches) {
+        Set<By> candidates = new LinkedHashSet<>();
+        String using = using(declared);
+        String value = value(declared);
+        if ("xpath".equals(using)) {
+            By css = xpathToCss(value);
+            if (css != null) {
+                candidates.add(css);
+            }
+        }
+        if (matches.size() == 1) {
+            candidates.addAll(fromElement(matches.get(0)));
+        }
+        candidates.removeIf(candidate -> candidate.toString().equals(declared.toString()));
+        return candidates;
+    }
+
+    /**
+     * Format a locator as "strategy: value", e.g. "css selector: button.btn-primary"
+     */
+    static String format(By by) {
+        return using(by) + ": " + value(by);
+    }
+
+    /**
+     * Parse a locator written by format
+     *
+     * @return Locator, or null if the strategy is unknown
+     */
+    static By parse(String formatted) {
+        int separator = formatted.indexOf(": ");
+        if (separator < 0) {
+            return null;
+        }
+        String value = formatted.substring(separator + 2);
+        switch (formatted.substring(0, separator)) {
+            case "css selector":
+                return By.cssSelector(value);
+            case "xpath":
+                return By.xpath(value);
+            case "tag name":
+                return By.tagName(value);
+            case "link text":
+                return By.linkText(value);
+            case "partial link text":
+                return By.partialLinkText(value);
+            default:
+                return null;
+        }
+    }
+
+    static String using(By by) {
+        return by instanceof By.Remotable ? ((By.Remotable) by).getRemoteParameters().using() : "";
+    }
+
+    static String value(By by) {
+        return by instanceof By.Remotable
+                ? String.valueOf(((By.Remotable) by).getRemoteParameters().value()) : by.toString();
+    }
+
+    /**
+     * Strategy and value in the form a W3C browser accepts, converting id, name, class name and tag name to CSS
+     * the way Selenium does before sending a lookup
+     *
+     * @return Strategy and value, e.g. ["css selector", "#title"] for By.id("title")
+     */
+    static List<Object> toW3C(By by) {
+        String value = value(by);
+        switch (using(by)) {
+            case "id":
+                return List.of("css selector", "#" + cssEscape(value));
+            case "name":
+                return List.of("css selector", "*[name='" + value.replace("'", "\\'") + "']");
+            case "class name":
+                return List.of("css selector", "." + cssEscape(value));
+            case "tag name":
+                return List.of("css selector", value);
+            default:
+                return List.of(using(by), value);
+        }
+    }
+
+    /**
+     * //tag[@attr='value'] has an exact CSS equivalent, which browsers match natively
+     */
+    private static By xpathToCss(String xpath) {
+        Matcher matcher = SIMPLE_XPATH.matcher(xpath);
+        if (!matcher.matches()) {
+            return null;
+        }
+        StringBuilder css = new StringBuilder("*".equals(matcher.group(1)) ? "" : matcher.group(1));
+        Matcher attribute = XPATH_ATTRIBUTE.matcher(matcher.group(2));
+        while (attribute.find()) {
+            css.append('[').append(attribute.group(1)).append("=\"")
+                    .append(escape(attribute.group(2))).append("\"]");
+        }
+        return css.length() == 0 ? null : By.cssSelector(css.toString());
+    }
+
+    /**
+     * Identifying attributes of a single element: test ids, name and a non-generated id
+     */
+    private static List<By> fromElement(WebElement element) {
+        List<By> candidates = new ArrayList<>();
+        String tag = element.getTagName().toLowerCase();
+        for (String attribute : TEST_ATTRIBUTES) {
+            String value = element.getAttribute(attribute);
+            if (value != null && !value.isEmpty()) {
+                candidates.add(By.cssSelector(tag + "[" + attribute + "=\"" + escape(value) + "\"]"));
+            }
+        }
+        String id = element.getAttribute("id");
+        if (id != null && CSS_IDENTIFIER.matcher(id).matches() && !GENERATED_VALUE.matcher(id).find()) {
+            candidates.add(By.cssSelector("#" + id));
+        }
+        return candidates;
+    }
+
+    /**
+     * Escape an identifier for CSS, as Selenium's own id and class name conversion does
+     */
+    private static String cssEscape(String identifier) {
+        String escaped = CSS_SPECIAL.matcher(identifier).replaceAll("\\\\$1");
+        if (!escaped.isEmpty() && Character.isDigit(escaped.charAt(0))) {
+            escaped = "\\" + (30 + Character.digit(escaped.charAt(0), 10)) + " " + escaped.substring(1);
+        }
+        return escaped;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,131 @@
+package com.uiplayground.automation.core.locators;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Applies the faster locators verified by LocatorAudit when pages are initialized
+ * A replacement is stored per page object field together with the locator it replaces, so it is only used
+ * while the field's @FindBy still declares that locator.
+ */
+public final class LocatorOptimizer {
+
+    private static final Logger logger = LogManager.getLogger(LocatorOptimizer.class);
+    private static final String DEFAULT_FILE = "reports/locator-optimizations.properties";
+    private static final String SEPARATOR = " => ";
+
+    private static volatile Properties optimizations;
+
+    private LocatorOptimizer() {
+        // Utility class
+    }
+
+    /**
+     * Check whether verified faster locators replace the declared ones
+     *
+     * @return true if locator.optimizer.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("locator.optimizer.enabled", false);
+    }
+
+    /**
+     * Get the locator to use for a field
+     *
+     * @param field    Page object field
+     * @param declared Locator declared by its @FindBy
+     * @return Verified faster locator, or the declared one
+     */
+    public static By optimize(Field field, By declared) {
+        if (!isEnabled()) {
+            return declared;
+        }
+        String entry = getOptimizations().getProperty(keyOf(field));
+        if (entry == null || !entry.contains(SEPARATOR)) {
+            return declared;
+        }
+        String original = entry.substring(0, entry.indexOf(SEPARATOR));
+        if (!original.equals(declared.toString())) {
+            logger.debug("Ignoring stale locator optimization for {}: declared locator changed", keyOf(field));
+            return declared;
+        }
+        By faster = LocatorCandidates.parse(entry.substring(entry.indexOf(SEPARATOR) + SEPARATOR.length()));
+        if (faster == null) {
+            return declared;
+        }
+        logger.debug("Using {} instead of {} for {}", faster, declared, keyOf(field));
+        return faster;
+    }
+
+    /**
+     * Merge verified replacements into the optimizations file
+     *
+     * @param replacements Verified faster locator by field key
+     * @param originals    Declared locator by field key
+     */
+    static synchronized void save(Map<String, By> replacements, Map<String, By> originals) {
+        if (replacements.isEmpty()) {
+            return;
+        }
+        Properties merged = new Properties();
+        merged.putAll(getOptimizations());
+        replacements.forEach((key, faster) ->
+                merged.setProperty(key, originals.get(key) + SEPARATOR + LocatorCandidates.format(faster)));
+        Path file = getFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream os = Files.newOutputStream(file)) {
+                merged.store(os, "Faster locators verified by the locator audit: declared => replacement");
+            }
+            optimizations = merged;
+            logger.info("Saved {} verified locator optimizations to: {}", replacements.size(), file);
+        } catch (IOException e) {
+            logger.error("Failed to save locator optimizations", e);
+        }
+    }
+
+    /**
+     * Key of a page object field, e.g. com.example.DynamicIdPage.dynamicIdButton
+     */
+    static String keyOf(Field field) {
+        return field.getDeclaringClass().getName() + "." + field.getName();
+    }
+
+    private static Properties getOptimizations() {
+        if (optimizations == null) {
+            synchronized (LocatorOptimizer.class) {
+                if (optimizations == null) {
+                    Properties loaded = new Properties();
+                    Path file = getFile();
+                    if (Files.exists(file)) {
+                        try (InputStream is = Files.newInputStream(file)) {
+                            loaded.load(is);
+                        } catch (IOException e) {
+                            logger.warn("Could not read locator optimizations from: {}", file);
+                        }
+                    }
+                    optimizations = loaded;
+                }
+            }
+        }
+        return optimizations;
+    }
+
+    private static Path getFile() {
+        return Paths.get(ConfigManager.getInstance().getProperty("locator.optimizations.file", DEFAULT_FILE));
+    }
+}
@@ -0,0 +1,84 @@
+package com.uiplayground.automation.core.locators;
+
+import com.uiplayground.automation.core.execution.ImpactAnalyzer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+/**
+ * Element locator factory used by BasePage to initialize @FindBy fields
+ * Replaces a locator with its verified faster form when locator.optimizer.enabled is set, and audits each
+ * locator on its first lookup when locator.audit.enabled is set. A replaced locator is reported to the impact
+ * analysis as the declared one, whose value is the selector constant.
+ */
+public class PageLocatorFactory implements ElementLocatorFactory {
+
+    private final SearchContext searchContext;
+
+    public PageLocatorFactory(SearchContext searchContext) {
+        this.searchContext = searchContext;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        return new PageElementLocator(searchContext, field);
+    }
+
+    /**
+     * Default locator with the optimized By and the audit hook
+     */
+    private static final class PageElementLocator extends DefaultElementLocator {
+
+        private final SearchContext searchContext;
+        private final Field field;
+        private final By declared;
+        private final boolean optimized;
+
+        private PageElementLocator(SearchContext searchContext, Field field) {
+            this(searchContext, field, new Annotations(field).buildBy());
+        }
+
+        private PageElementLocator(SearchContext searchContext, Field field, By declared) {
+            this(searchContext, field, declared, LocatorOptimizer.optimize(field, declared));
+        }
+
+        private PageElementLocator(SearchContext searchContext, Field field, By declared, By locator) {
+            super(searchContext, new Annotations(field) {
+                @Override
+                public By buildBy() {
+                    return locator;
+                }
+            });
+            this.searchContext = searchContext;
+            this.field = field;
+            this.declared = declared;
+            this.optimized = locator != declared;
+        }
+
+        @Override
+        public WebElement findElement() {
+            beforeLookup();
+            return super.findElement();
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            beforeLookup();
+            return super.findElements();
+        }
+
+        private void beforeLookup() {
+            LocatorAudit.auditOnce(searchContext, field, declared);
+            if (optimized) {
+                ImpactAnalyzer.recordLocator(declared);
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.uiplayground.automation.core.locators;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calibrates explicit waits per page element from the time it took to become ready in earlier runs
+ * Every successful wait is recorded; wait.history.file keeps the last wait.history.size times per element.
+ * With wait.adaptive.enabled, an element with at least wait.adaptive.min.samples recorded times waits for the
+ * wait.adaptive.percentile of them plus wait.adaptive.margin.percent, never less than wait.adaptive.min.ms
+ * and never more than the global explicit wait. A broken locator then fails after its calibrated budget.
+ * A wait that runs out of its budget is kept as a censored time (">budget"): later budgets are at least twice
+ * the largest censored time, so an element that became slower widens its budget instead of failing every run.
+ */
+public final class WaitBudgets {
+
+    private static final Logger logger = LogManager.getLogger(WaitBudgets.class);
+    private static final String DEFAULT_HISTORY_FILE = "reports/wait-history.properties";
+    private static final String CENSORED = ">";
+
+    private static final Map<String, List<String>> recordedWaits = new ConcurrentHashMap<>();
+    private static final LongAdder calibratedWaits = new LongAdder();
+    private static final LongAdder calibratedTimeouts = new LongAdder();
+    private static volatile Properties waitHistory;
+
+    private WaitBudgets() {
+        // Utility class
+    }
+
+    /**
+     * Check whether waits use calibrated budgets
+     *
+     * @return true if wait.adaptive.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("wait.adaptive.enabled", false);
+    }
+
+    /**
+     * Get the wait budget of an element
+     *
+     * @param page    Page object class
+     * @param element Element name
+     * @return Calibrated budget, or the global explicit wait without enough history
+     */
+    public static Duration getBudget(Class<?> page, String element) {
+        ConfigManager config = ConfigManager.getInstance();
+        long maxMillis = Duration.ofSeconds(config.getExplicitWait()).toMillis();
+        if (!isEnabled()) {
+            return Duration.ofMillis(maxMillis);
+        }
+        String[] entries = split(getWaitHistory().getProperty(keyOf(page, element), ""));
+        if (entries.length < Math.max(1, config.getInt("wait.adaptive.min.samples", 10))) {
+            return Duration.ofMillis(maxMillis);
+        }
+        long[] history = parse(entries, false);
+        long[] censored = parse(entries, true);
+        if (history == null || censored == null) {
+            return Duration.ofMillis(maxMillis);
+        }
+        long budget = config.getLong("wait.adaptive.min.ms", 500);
+        if (history.length > 0) {
+            Arrays.sort(history);
+            double percentile = config.getDouble("wait.adaptive.percentile", 95.0);
+            int index = (int) Math.ceil(percentile / 100 * history.length) - 1;
+            long observed = history[Math.max(0, Math.min(history.length - 1, index))];
+            budget = Math.max(budget,
+                    Math.round(observed * (1 + config.getDouble("wait.adaptive.margin.percent", 50.0) / 100)));
+        }
+        for (long atLeast : censored) {
+            budget = Math.max(budget, 2 * atLeast);
+        }
+        calibratedWaits.increment();
+        return Duration.ofMillis(Math.min(budget, maxMillis));
+    }
+
+    /**
+     * Record how long an element took to become ready
+     *
+     * @param page    Page object class
+     * @param element Element name
+     * @param millis  Time from the start of the wait until the element was ready
+     */
+    public static void recordReady(Class<?> page, String element, long millis) {
+        record(page, element, String.valueOf(millis));
+    }
+
+    /**
+     * Record a wait that ran out of its calibrated budget, widening the element's later budgets
+     *
+     * @param page         Page object class
+     * @param element      Element name
+     * @param budgetMillis Budget that ran out; the element was not ready within it
+     */
+    public static void recordTimeout(Class<?> page, String element, long budgetMillis) {
+        calibratedTimeouts.increment();
+        record(page, element, CENSORED + budgetMillis);
+    }
+
+    /**
+     * Describe the calibrated waits of this run
+     *
+     * @return Summary, or null if no wait was calibrated
+     */
+    public static String getSummary() {
+        if (calibratedWaits.sum() == 0) {
+            return null;
+        }
+        return String.format(Locale.ROOT, "%d calibrated waits, %d timed out early",
+                calibratedWaits.sum(), calibratedTimeouts.sum());
+    }
+
+    /**
+     * Append this run's ready times to the wait history file
+     */
+    public static synchronized void saveHistory() {
+        if (recordedWaits.isEmpty()) {
+            return;
+        }
+        int historySize = Math.max(1, ConfigManager.getInstance().getInt("wait.history.size", 50));
+        Properties history = getWaitHistory();
+        recordedWaits.forEach((key, waits) -> {
+            List<String> merged = new ArrayList<>();
+            String previous = history.getProperty(key, "").trim();
+            if (!previous.isEmpty()) {
+                merged.addAll(Arrays.asList(previous.split("\\s+")));
+            }
+            synchronized (waits) {
+                merged.addAll(waits);
+            }
+            history.setProperty(key,
+                    String.join(" ", merged.subList(Math.max(0, merged.size() - historySize), merged.size())));
+        });
+        recordedWaits.clear();
+
+        Path file = getHistoryFile();
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream os = Files.newOutputStream(file)) {
+                history.store(os, "Recent wait times in ms per page element, oldest first; >N ran out of N ms");
+            }
+            logger.info("Saved wait history of {} elements to: {}", history.size(), file);
+        } catch (IOException e) {
+            logger.error("Failed to save wait history", e);
+        }
+    }
+
+    private static void record(Class<?> page, String element, String entry) {
+        recordedWaits.computeIfAbsent(keyOf(page, element), k -> Collections.synchronizedList(new ArrayList<>()))
+                .add(entry);
+    }
+
+    private static String[] split(String history) {
+        return history.isBlank() ? new String[0] : history.trim().split("\\s+");
+    }
+
+    /**
+     * Ready times, or censored times without their prefix
+     *
+     * @return Times, or null if the history is malformed
+     */
+    private static long[] parse(String[] entries, boolean censored) {
+        try {
+            return Arrays.stream(entries).filter(entry -> entry.startsWith(CENSORED) == censored)
+                    .mapToLong(entry -> Long.parseLong(censored ? entry.substring(CENSORED.length()) : entry))
+                    .toArray();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String keyOf(Class<?> page, String element) {
+        return page.getSimpleName() + "." + element.replace(' ', '_');
+    }
+
+    private static Properties getWaitHistory() {
+        if (waitHistory == null) {
+            synchronized (WaitBudgets.class) {
+                if (waitHistory == null) {
+                    Properties history = new Properties();
+                    Path file = getHistoryFile();
+                    if (Files.exists(file)) {
+                        try (InputStream is = Files.newInputStream(file)) {
+                            history.load(is);
+                        } catch (IOException e) {
+                            logger.warn("Could not read wait history from: {}", file);
+                        }
+                    }
+                    waitHistory = history;
+                }
+            }
+        }
+        return waitHistory;
+    }
+
+    private static Path getHistoryFile() {
+        return Paths.get(ConfigManager.getInstance().getProperty("wait.history.file", DEFAULT_HISTORY_FILE));
+    }
+}
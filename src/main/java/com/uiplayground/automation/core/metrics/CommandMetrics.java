@@ -0,0 +1,330 @@
+package com.uiplayground.automation.core.metrics;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.load.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects WebDriver command latencies tagged by command, page object and Cucumber step
+ * Each thread records into its own histograms, so recording never contends; the histograms of all
+ * threads are merged when the report is written. Latencies are kept in microseconds. Histograms are
+ * keyed by step definition pattern rather than step text, so scenario outlines and parameters do not
+ * multiply them, and use a 3% precision to stay small.
+ */
+public final class CommandMetrics {
+
+    private static final Logger logger = LogManager.getLogger(CommandMetrics.class);
+    private static final String REPORT_FILE = "webdriver-metrics.txt";
+    private static final String HOOK_STEP = "(hooks)";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+    private static final int PRECISION_BITS = 5;
+
+    /**
+     * Command, page object and step pattern a latency is recorded under
+     */
+    private static final class Key {
+
+        private final String command;
+        private final String page;
+        private final String step;
+
+        private Key(String command, String page, String step) {
+            this.command = command;
+            this.page = page;
+            this.step = step;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return command.equals(key.command) && page.equals(key.page) && step.equals(key.step);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(command, page, step);
+        }
+    }
+
+    /**
+     * One slow command kept for the top-N list
+     */
+    private static final class Sample {
+
+        private final Key key;
+        private final String stepText;
+        private final long micros;
+
+        private Sample(Key key, String stepText, long micros) {
+            this.key = key;
+            this.stepText = stepText;
+            this.micros = micros;
+        }
+    }
+
+    /**
+     * WebDriver time spent in one step of the running scenario
+     */
+    private static final class StepTotals {
+
+        private long commands;
+        private long micros;
+        private String slowestCommand;
+        private long slowestMicros = -1;
+    }
+
+    /**
+     * Measurements of one thread
+     */
+    private static final class Recorder {
+
+        private final Map<Key, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+        private final PriorityQueue<Sample> slowest = new PriorityQueue<>(Comparator.comparingLong(s -> s.micros));
+        private final Map<String, StepTotals> scenarioSteps = new LinkedHashMap<>();
+        private final int topN = ConfigManager.getInstance().getInt("metrics.commands.top.n", 10);
+        private String step = HOOK_STEP;
+        private String stepPattern = HOOK_STEP;
+    }
+
+    private static final Queue<Recorder> recorders = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<Recorder> recorder = ThreadLocal.withInitial(() -> {
+        Recorder threadRecorder = new Recorder();
+        recorders.add(threadRecorder);
+        return threadRecorder;
+    });
+
+    private CommandMetrics() {
+        // Utility class
+    }
+
+    /**
+     * Check whether WebDriver commands should be timed
+     *
+     * @return true if metrics.commands.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("metrics.commands.enabled", true);
+    }
+
+    /**
+     * Start a new scenario on the current thread
+     */
+    public static void scenarioStarted() {
+        Recorder threadRecorder = recorder.get();
+        threadRecorder.scenarioSteps.clear();
+        threadRecorder.step = HOOK_STEP;
+        threadRecorder.stepPattern = HOOK_STEP;
+    }
+
+    /**
+     * Attribute the current thread's commands to a step
+     *
+     * @param stepText    Step text, for the scenario breakdown
+     * @param stepPattern Pattern of the matching step definition, null for an undefined step
+     */
+    public static void stepStarted(String stepText, String stepPattern) {
+        Recorder threadRecorder = recorder.get();
+        threadRecorder.step = stepText;
+        threadRecorder.stepPattern = stepPattern != null ? stepPattern : stepText;
+    }
+
+    /**
+     * Attribute the current thread's commands to hooks again
+     */
+    public static void stepFinished() {
+        Recorder threadRecorder = recorder.get();
+        threadRecorder.step = HOOK_STEP;
+        threadRecorder.stepPattern = HOOK_STEP;
+    }
+
+    /**
+     * Record one command on the current thread
+     *
+     * @param command      Command, e.g. WebElement.click
+     * @param page         Simple name of the page object that issued it, "-" if none
+     * @param elapsedNanos Duration
+     */
+    public static void record(String command, String page, long elapsedNanos) {
+        Recorder threadRecorder = recorder.get();
+        long micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+        Key key = new Key(command, page, threadRecorder.stepPattern);
+        threadRecorder.histograms.computeIfAbsent(key, k -> new LatencyHistogram(PRECISION_BITS)).record(micros);
+
+        synchronized (threadRecorder.slowest) {
+            if (threadRecorder.slowest.size() < threadRecorder.topN) {
+                threadRecorder.slowest.add(new Sample(key, threadRecorder.step, micros));
+            } else if (!threadRecorder.slowest.isEmpty() && threadRecorder.slowest.peek().micros < micros) {
+                threadRecorder.slowest.poll();
+                threadRecorder.slowest.add(new Sample(key, threadRecorder.step, micros));
+            }
+        }
+
+        StepTotals totals = threadRecorder.scenarioSteps.computeIfAbsent(threadRecorder.step, s -> new StepTotals());
+        totals.commands++;
+        totals.micros += micros;
+        if (micros > totals.slowestMicros) {
+            totals.slowestMicros = micros;
+            totals.slowestCommand = command + " (" + page + ")";
+        }
+    }
+
+    /**
+     * Get WebDriver time per step of the scenario running on the current thread
+     *
+     * @return Table rows with a header row, or null if no command was recorded
+     */
+    public static String[][] getScenarioBreakdown() {
+        Map<String, StepTotals> steps = recorder.get().scenarioSteps;
+        if (steps.isEmpty()) {
+            return null;
+        }
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Step", "Commands", "WebDriver ms", "Slowest command", "Slowest ms"});
+        steps.forEach((step, totals) -> rows.add(new String[]{step, String.valueOf(totals.commands),
+                millis(totals.micros), totals.slowestCommand, millis(totals.slowestMicros)}));
+        return rows.toArray(new String[0][]);
+    }
+
+    /**
+     * Describe the slowest commands of the run
+     *
+     * @param count Number of commands
+     * @return Summary such as "WebDriver.get (HomePage) 812.4 ms; ...", or null if nothing was recorded
+     */
+    public static String getSlowestSummary(int count) {
+        List<Sample> slowest = mergeSlowest();
+        if (slowest.isEmpty()) {
+            return null;
+        }
+        List<String> parts = new ArrayList<>();
+        for (Sample sample : slowest.subList(0, Math.min(count, slowest.size()))) {
+            parts.add(sample.key.command + " (" + sample.key.page + ") " + millis(sample.micros) + " ms");
+        }
+        return String.join("; ", parts);
+    }
+
+    /**
+     * Merge all threads, log the command, slowest-command and step tables and write webdriver-metrics.txt
+     * to the Cucumber reports directory in Prometheus text format
+     */
+    public static void writeReport() {
+        Map<Key, LatencyHistogram> merged = new LinkedHashMap<>();
+        for (Recorder threadRecorder : recorders) {
+            threadRecorder.histograms.forEach((key, histogram) ->
+                    merged.computeIfAbsent(key, k -> new LatencyHistogram(PRECISION_BITS)).add(histogram));
+        }
+        if (merged.isEmpty()) {
+            return;
+        }
+        logger.info("WebDriver command latency:{}{}", System.lineSeparator(), formatTables(merged));
+
+        StringBuilder metrics = new StringBuilder();
+        metrics.append("# HELP webdriver_command_seconds WebDriver command latency by command, page object and step")
+                .append('\n');
+        metrics.append("# TYPE webdriver_command_seconds summary").append('\n');
+        merged.forEach((key, histogram) -> {
+            String labels = String.format(Locale.ROOT, "command=\"%s\",page=\"%s\",step=\"%s\"",
+                    escape(key.command), escape(key.page), escape(key.step));
+            for (double quantile : QUANTILES) {
+                metrics.append(String.format(Locale.ROOT, "webdriver_command_seconds{%s,quantile=\"%s\"} %.6f%n",
+                        labels, quantile, histogram.getValueAtPercentile(quantile * 100) / 1_000_000.0));
+            }
+            metrics.append(String.format(Locale.ROOT, "webdriver_command_seconds_sum{%s} %.6f%n", labels,
+                    histogram.getMean() * histogram.getTotalCount() / 1_000_000.0));
+            metrics.append(String.format(Locale.ROOT, "webdriver_command_seconds_count{%s} %d%n", labels,
+                    histogram.getTotalCount()));
+        });
+
+        Path reportFile = Paths.get(ConfigManager.getInstance().getCucumberReportsPath(), REPORT_FILE);
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.write(reportFile, metrics.toString().getBytes());
+            logger.info("WebDriver metrics written to: {}", reportFile);
+        } catch (IOException e) {
+            logger.error("Failed to write WebDriver metrics", e);
+        }
+    }
+
+    private static String formatTables(Map<Key, LatencyHistogram> merged) {
+        Map<String, LatencyHistogram> byCommand = new TreeMap<>();
+        Map<String, LatencyHistogram> byStep = new TreeMap<>();
+        merged.forEach((key, histogram) -> {
+            byCommand.computeIfAbsent(key.command, k -> new LatencyHistogram(PRECISION_BITS)).add(histogram);
+            byStep.computeIfAbsent(key.step, k -> new LatencyHistogram(PRECISION_BITS)).add(histogram);
+        });
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-40s %8s %10s %9s %9s %9s %9s%n",
+                "Command", "Count", "Total ms", "p50", "p90", "p99", "max"));
+        byCommand.forEach((command, histogram) -> appendRow(report, 40, command, histogram));
+
+        report.append(String.format(Locale.ROOT, "%n%-60s %8s %10s %9s %9s %9s %9s%n",
+                "Step", "Count", "Total ms", "p50", "p90", "p99", "max"));
+        byStep.forEach((step, histogram) -> appendRow(report, 60, truncate(step, 60), histogram));
+
+        report.append(String.format(Locale.ROOT, "%n%10s  %s%n", "Slowest ms", "Command (page) in step"));
+        for (Sample sample : mergeSlowest()) {
+            report.append(String.format(Locale.ROOT, "%10s  %s (%s) in \"%s\"%n", millis(sample.micros),
+                    sample.key.command, sample.key.page, sample.stepText));
+        }
+        return report.toString();
+    }
+
+    private static void appendRow(StringBuilder report, int width, String label, LatencyHistogram histogram) {
+        report.append(String.format(Locale.ROOT, "%-" + width + "s %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n", label,
+                histogram.getTotalCount(), histogram.getMean() * histogram.getTotalCount() / 1000.0,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getMaxValue() / 1000.0));
+    }
+
+    /**
+     * Slowest commands across all threads, slowest first
+     */
+    private static List<Sample> mergeSlowest() {
+        List<Sample> all = new ArrayList<>();
+        for (Recorder threadRecorder : recorders) {
+            synchronized (threadRecorder.slowest) {
+                all.addAll(threadRecorder.slowest);
+            }
+        }
+        all.sort(Comparator.comparingLong((Sample s) -> s.micros).reversed());
+        int topN = ConfigManager.getInstance().getInt("metrics.commands.top.n", 10);
+        return all.subList(0, Math.min(topN, all.size()));
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.1f", micros / 1000.0);
+    }
+
+    private static String truncate(String text, int length) {
+        return text.length() <= length ? text : text.substring(0, length - 3) + "...";
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
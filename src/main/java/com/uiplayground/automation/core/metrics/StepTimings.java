@@ -0,0 +1,180 @@
+package com.uiplayground.automation.core.metrics;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.load.LatencyHistogram;
+import com.uiplayground.automation.core.reporting.ReportManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates step and hook durations across the run by step definition pattern
+ * All uses of "I navigate to the homepage" fall under one pattern, so the hotspot report shows which
+ * step definitions cost the most in total and at p95. Steps slower than steps.slow.threshold.ms are
+ * flagged in the log and the scenario's report as soon as they finish.
+ */
+public final class StepTimings {
+
+    private static final Logger logger = LogManager.getLogger(StepTimings.class);
+    private static final String REPORT_FILE = "step-hotspots.txt";
+
+    /**
+     * Durations of one step definition or hook
+     */
+    private static final class Timing {
+
+        private final String kind;
+        private final String pattern;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder totalMicros = new LongAdder();
+        private final LongAdder slowCount = new LongAdder();
+
+        private Timing(String kind, String pattern) {
+            this.kind = kind;
+            this.pattern = pattern;
+        }
+
+        private long total() {
+            return totalMicros.sum();
+        }
+
+        private long p95() {
+            return histogram.getValueAtPercentile(95);
+        }
+    }
+
+    private static final Map<String, Timing> timings = new ConcurrentHashMap<>();
+    private static final AtomicBoolean addedToReport = new AtomicBoolean();
+
+    private StepTimings() {
+        // Utility class
+    }
+
+    /**
+     * Record a finished step and flag it if it exceeded the slow-step threshold
+     *
+     * @param pattern  Step definition pattern
+     * @param stepText Step text as written in the scenario
+     * @param duration Step duration
+     */
+    public static void recordStep(String pattern, String stepText, Duration duration) {
+        long micros = record("step", pattern, duration);
+        long thresholdMillis = ConfigManager.getInstance().getLong("steps.slow.threshold.ms", 5000);
+        if (thresholdMillis > 0 && micros > TimeUnit.MILLISECONDS.toMicros(thresholdMillis)) {
+            timings.get(key("step", pattern)).slowCount.increment();
+            String message = String.format(Locale.ROOT, "Slow step (%d ms, threshold %d ms): %s",
+                    TimeUnit.MICROSECONDS.toMillis(micros), thresholdMillis, stepText);
+            logger.warn(message);
+            ReportManager.logWarning(message);
+        }
+    }
+
+    /**
+     * Record a finished hook
+     *
+     * @param hookType     Hook type, e.g. BEFORE
+     * @param codeLocation Hook method, e.g. com.example.Hooks.setUp(io.cucumber.java.Scenario)
+     * @param duration     Hook duration
+     */
+    public static void recordHook(String hookType, String codeLocation, Duration duration) {
+        String method = codeLocation.contains("(") ? codeLocation.substring(0, codeLocation.indexOf('(')) : codeLocation;
+        int classStart = method.lastIndexOf('.', method.lastIndexOf('.') - 1);
+        record("hook", hookType + " " + method.substring(classStart + 1), duration);
+    }
+
+    /**
+     * Rank step definitions and hooks by total and p95 time, log the ranking and write step-hotspots.txt to the
+     * Cucumber reports directory
+     * Every runner calls this when it finishes, and the file is rewritten with the whole run so far. The Extent
+     * report's log view appends rather than replaces, so the ranking is only added to it once per JVM.
+     */
+    public static void writeReport() {
+        if (timings.isEmpty()) {
+            return;
+        }
+        int topN = ConfigManager.getInstance().getInt("steps.hotspots.top.n", 15);
+        List<Timing> byTotal = rank(Comparator.comparingLong(Timing::total), topN);
+        List<Timing> byP95 = rank(Comparator.comparingLong(Timing::p95), topN);
+
+        StringBuilder report = new StringBuilder();
+        report.append("Step hotspots by total time").append(System.lineSeparator());
+        appendTable(report, byTotal);
+        report.append(System.lineSeparator()).append("Step hotspots by p95").append(System.lineSeparator());
+        appendTable(report, byP95);
+        logger.info("Step hotspots:{}{}", System.lineSeparator(), report);
+
+        if (addedToReport.compareAndSet(false, true)) {
+            ReportManager.addRunnerTable(toRows(byTotal));
+        }
+
+        Path reportFile = Paths.get(ConfigManager.getInstance().getCucumberReportsPath(), REPORT_FILE);
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.write(reportFile, report.toString().getBytes());
+        } catch (IOException e) {
+            logger.error("Failed to write step hotspots", e);
+        }
+    }
+
+    private static long record(String kind, String pattern, Duration duration) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(duration.toNanos());
+        Timing timing = timings.computeIfAbsent(key(kind, pattern), k -> new Timing(kind, pattern));
+        timing.histogram.record(micros);
+        timing.totalMicros.add(micros);
+        return micros;
+    }
+
+    private static String key(String kind, String pattern) {
+        return kind + " " + pattern;
+    }
+
+    private static List<Timing> rank(Comparator<Timing> comparator, int topN) {
+        List<Timing> ranked = new ArrayList<>(timings.values());
+        ranked.sort(comparator.reversed());
+        return ranked.subList(0, Math.min(topN, ranked.size()));
+    }
+
+    private static void appendTable(StringBuilder report, List<Timing> ranked) {
+        report.append(String.format(Locale.ROOT, "%-5s %-60s %6s %10s %9s %9s %9s %5s%n",
+                "Kind", "Pattern", "Count", "Total ms", "Mean ms", "p95 ms", "Max ms", "Slow"));
+        for (Timing timing : ranked) {
+            long count = timing.histogram.getTotalCount();
+            report.append(String.format(Locale.ROOT, "%-5s %-60s %6d %10.0f %9.1f %9.1f %9.1f %5d%n",
+                    timing.kind, truncate(timing.pattern, 60), count, timing.total() / 1000.0,
+                    timing.total() / 1000.0 / count, timing.p95() / 1000.0,
+                    timing.histogram.getMaxValue() / 1000.0, timing.slowCount.sum()));
+        }
+    }
+
+    private static String[][] toRows(List<Timing> ranked) {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(new String[]{"Step hotspot", "Kind", "Count", "Total ms", "p95 ms", "Max ms", "Slow"});
+        for (Timing timing : ranked) {
+            rows.add(new String[]{timing.pattern, timing.kind,
+                    String.valueOf(timing.histogram.getTotalCount()),
+                    String.format(Locale.ROOT, "%.0f", timing.total() / 1000.0),
+                    String.format(Locale.ROOT, "%.1f", timing.p95() / 1000.0),
+                    String.format(Locale.ROOT, "%.1f", timing.histogram.getMaxValue() / 1000.0),
+                    String.valueOf(timing.slowCount.sum())});
+        }
+        return rows.toArray(new String[0][]);
+    }
+
+    private static String truncate(String text, int length) {
+        return text.length() <= length ? text : text.substring(0, length - 3) + "...";
+    }
+}
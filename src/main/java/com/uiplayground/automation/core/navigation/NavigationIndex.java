@@ -0,0 +1,215 @@
+package com.uiplayground.automation.core.navigation;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maps link texts of a start page to the URLs they lead to, so pages can be opened by deep link
+ * The start page is fetched over HTTP and parsed once per run, without a browser. An entry older than
+ * navigation.index.ttl.seconds is re-validated with a HEAD request before it is used again; if that fails
+ * the start page is crawled again. Links that cannot be resolved return null so callers can fall back to
+ * clicking through the start page.
+ */
+public final class NavigationIndex {
+
+    private static final Logger logger = LogManager.getLogger(NavigationIndex.class);
+
+    /**
+     * URL of one link and when it was last known to load
+     */
+    private static final class Entry {
+
+        private final String url;
+        private volatile long validatedNanos;
+
+        private Entry(String url, long validatedNanos) {
+            this.url = url;
+            this.validatedNanos = validatedNanos;
+        }
+    }
+
+    /**
+     * Links of one start page by link text, and the parsed page for lookups by link selector
+     */
+    private static final class Crawl {
+
+        private final Document document;
+        private final Map<String, Entry> byText;
+
+        private Crawl(Document document, Map<String, Entry> byText) {
+            this.document = document;
+            this.byText = byText;
+        }
+    }
+
+    private static final Map<String, Crawl> crawls = new ConcurrentHashMap<>();
+    private static final LongAdder resolved = new LongAdder();
+    private static final LongAdder revalidated = new LongAdder();
+    private static final LongAdder recrawled = new LongAdder();
+    private static volatile HttpClient httpClient;
+
+    private NavigationIndex() {
+        // Utility class
+    }
+
+    /**
+     * Check whether pages should be opened by deep link
+     *
+     * @return true unless navigation.index.enabled is set to false
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("navigation.index.enabled", true);
+    }
+
+    /**
+     * Resolve the URL a link on a start page leads to
+     *
+     * @param startUrl      Page whose links are indexed, e.g. the homepage
+     * @param linksSelector CSS selector of the indexed links
+     * @param linkText      Link text, e.g. "Dynamic ID"
+     * @param linkSelector  CSS selector of the link, used when no link has this text
+     * @return Absolute URL, or null if the link cannot be resolved
+     */
+    public static String resolve(String startUrl, String linksSelector, String linkText, String linkSelector) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String key = startUrl + " " + linksSelector;
+        Crawl crawl = crawls.computeIfAbsent(key, k -> crawl(startUrl, linksSelector));
+        Entry entry = find(crawl, linkText, linkSelector);
+        if (entry != null && !isStale(entry)) {
+            resolved.increment();
+            return entry.url;
+        }
+        if (entry != null && isReachable(entry.url)) {
+            revalidated.increment();
+            entry.validatedNanos = System.nanoTime();
+            resolved.increment();
+            return entry.url;
+        }
+
+        // Missing or no longer loading: the start page may have changed since it was crawled
+        recrawled.increment();
+        crawl = crawl(startUrl, linksSelector);
+        crawls.put(key, crawl);
+        entry = find(crawl, linkText, linkSelector);
+        if (entry == null) {
+            logger.warn("Navigation index has no link '{}' ({}) on {}", linkText, linkSelector, startUrl);
+            return null;
+        }
+        resolved.increment();
+        return entry.url;
+    }
+
+    /**
+     * Describe how often the index was used
+     *
+     * @return Summary, or null if no link was resolved
+     */
+    public static String getSummary() {
+        if (resolved.sum() == 0) {
+            return null;
+        }
+        return String.format(Locale.ROOT, "%d deep links, %d re-validated, %d re-crawls",
+                resolved.sum(), revalidated.sum(), recrawled.sum());
+    }
+
+    private static Entry find(Crawl crawl, String linkText, String linkSelector) {
+        Entry entry = crawl.byText.get(linkText);
+        if (entry == null && linkSelector != null && crawl.document != null) {
+            Element link = crawl.document.selectFirst(linkSelector);
+            if (link != null && !link.absUrl("href").isEmpty()) {
+                entry = new Entry(link.absUrl("href"), System.nanoTime());
+                crawl.byText.put(linkText, entry);
+            }
+        }
+        return entry;
+    }
+
+    private static boolean isStale(Entry entry) {
+        long ttlSeconds = ConfigManager.getInstance().getLong("navigation.index.ttl.seconds", 600);
+        return System.nanoTime() - entry.validatedNanos > TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    /**
+     * Fetch the start page and index its links; an unreachable page gives an empty index
+     */
+    private static Crawl crawl(String startUrl, String linksSelector) {
+        long start = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(startUrl))
+                .timeout(getTimeout())
+                .header("Accept", "text/html,application/xhtml+xml")
+                .GET()
+                .build();
+        try {
+            HttpResponse<String> response = getHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+            Document document = Jsoup.parse(response.body(), response.uri().toString());
+            Map<String, Entry> byText = new LinkedHashMap<>();
+            for (Element link : document.select(linksSelector)) {
+                String url = link.absUrl("href");
+                if (!url.isEmpty()) {
+                    byText.putIfAbsent(link.text().trim(), new Entry(url, System.nanoTime()));
+                }
+            }
+            logger.info("Indexed {} links of {} in {} ms", byText.size(), startUrl,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return new Crawl(document, new ConcurrentHashMap<>(byText));
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Could not index links of {}: {}", startUrl, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new Crawl(null, new ConcurrentHashMap<>());
+    }
+
+    private static boolean isReachable(String url) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(getTimeout())
+                .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                .build();
+        try {
+            int status = getHttpClient().send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Duration getTimeout() {
+        return Duration.ofMillis(ConfigManager.getInstance().getLong("navigation.index.timeout.ms", 10000));
+    }
+
+    private static HttpClient getHttpClient() {
+        if (httpClient == null) {
+            synchronized (NavigationIndex.class) {
+                if (httpClient == null) {
+                    httpClient = HttpClient.newBuilder()
+                            .followRedirects(HttpClient.Redirect.NORMAL)
+                            .connectTimeout(getTimeout())
+                            .build();
+                }
+            }
+        }
+        return httpClient;
+    }
+}
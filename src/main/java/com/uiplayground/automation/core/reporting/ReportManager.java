@@ -2,9 +2,14 @@ package com.uiplayground.automation.core.reporting;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.JsonFormatter;
 import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.execution.ShardPlanner;
+import com.uiplayground.automation.core.execution.StartupProfiler;
 
+import java.io.File;
 import java.util.Collection;
 
 import org.apache.logging.log4j.LogManager;
@@ -17,7 +22,7 @@ import org.apache.logging.log4j.Logger;
 public class ReportManager {
     
     private static final Logger logger = LogManager.getLogger(ReportManager.class);
-    private static ExtentReports extent;
+    private static volatile ExtentReports extent;
     private static final ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
     
     private ReportManager() {
@@ -26,9 +31,11 @@ public class ReportManager {
     
     /**
      * Initialize the ExtentReports instance
+     * Called lazily on the first report access so runs that never create a test skip the cost
      */
-    public static void initReports() {
+    public static synchronized void initReports() {
         if (extent == null) {
+            long start = System.nanoTime();
             String reportsPath = ConfigManager.getInstance().getProperty("reportsPath");
             if (reportsPath == null) {
                 reportsPath = "reports/extent-reports/test-report.html";
@@ -40,13 +47,23 @@ public class ReportManager {
             sparkReporter.config().setDocumentTitle("UI Playground Automation Report");
             sparkReporter.config().setReportName("Cucumber Test Execution Report");
             
-            extent = new ExtentReports();
-            extent.attachReporter(sparkReporter);
-            extent.setSystemInfo("OS", System.getProperty("os.name"));
-            extent.setSystemInfo("Java Version", System.getProperty("java.version"));
-            extent.setSystemInfo("Browser", ConfigManager.getInstance().getBrowser());
-            extent.setSystemInfo("Base URL", ConfigManager.getInstance().getBaseUrl());
+            ExtentReports reports = new ExtentReports();
+            reports.attachReporter(sparkReporter);
+            reports.setSystemInfo("OS", System.getProperty("os.name"));
+            reports.setSystemInfo("Java Version", System.getProperty("java.version"));
+            reports.setSystemInfo("Browser", ConfigManager.getInstance().getBrowser());
+            reports.setSystemInfo("Base URL", ConfigManager.getInstance().getBaseUrl());
+
+            if (ShardPlanner.isSharded()) {
+                // JSON archive lets ShardReportMerger rebuild one report from all shards
+                String archivePath = new File(reportsPath).getParent() + "/extent-shard-"
+                        + ShardPlanner.getShardIndex() + ".json";
+                reports.attachReporter(new JsonFormatter(archivePath));
+                reports.setSystemInfo("Shard", (ShardPlanner.getShardIndex() + 1) + "/" + ShardPlanner.getShardCount());
+            }
             
+            extent = reports;
+            StartupProfiler.record("extent reports init", start);
             logger.info("ExtentReports initialized successfully at: {}", reportsPath);
         }
     }
@@ -147,6 +164,17 @@ public class ReportManager {
         }
     }
     
+    /**
+     * Add a table to the current test
+     * @param rows Table cells, the first row being the header
+     */
+    public static void logTable(String[][] rows) {
+        ExtentTest test = getTest();
+        if (test != null) {
+            test.info(MarkupHelper.createTable(rows));
+        }
+    }
+    
     /**
      * Add pass log to current test
      * @param message Pass message
@@ -169,6 +197,49 @@ public class ReportManager {
         }
     }
     
+    /**
+     * Add warning log to current test
+     * @param message Warning message
+     */
+    public static void logWarning(String message) {
+        ExtentTest test = getTest();
+        if (test != null) {
+            test.warning(message);
+        }
+    }
+    
+    /**
+     * Add skip log to current test
+     * @param message Skip message
+     */
+    public static void logSkip(String message) {
+        ExtentTest test = getTest();
+        if (test != null) {
+            test.skip(message);
+        }
+    }
+    
+    /**
+     * Add system info to the report if it has been created
+     * @param key Info label
+     * @param value Info value
+     */
+    public static void setSystemInfo(String key, String value) {
+        if (extent != null) {
+            extent.setSystemInfo(key, value);
+        }
+    }
+    
+    /**
+     * Add a table to the run-level log view of the report if it has been created
+     * @param rows Table cells, the first row being the header
+     */
+    public static void addRunnerTable(String[][] rows) {
+        if (extent != null) {
+            extent.addTestRunnerOutput(MarkupHelper.createTable(rows).getMarkup());
+        }
+    }
+    
     /**
      * Flush reports to disk
      */
@@ -2,10 +2,12 @@ package com.uiplayground.automation.core.reporting;
 
 import com.uiplayground.automation.core.config.ConfigManager;
 import com.uiplayground.automation.core.driver.DriverManager;
+import com.uiplayground.automation.core.jfr.ScreenshotEvent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.UnsupportedCommandException;
 import org.openqa.selenium.WebDriver;
 import java.io.File;
 import java.io.IOException;
@@ -64,15 +66,25 @@ public class ScreenshotManager {
                 }
 
                 // Take screenshot
+                ScreenshotEvent event = new ScreenshotEvent();
+                event.begin();
                 File scrFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
                 Path targetPath = Paths.get(screenshotDir, fileName);
                 Files.copy(scrFile.toPath(), targetPath);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.path = targetPath.toString();
+                    event.bytes = Files.size(targetPath);
+                    event.commit();
+                }
 
                 logger.info("Screenshot saved to: " + targetPath);
                 return targetPath.toString();
 
             } catch (IOException e) {
                 logger.error("Failed to take screenshot", e);
+            } catch (UnsupportedCommandException e) {
+                logger.warn("WebDriver doesn't support screenshots: {}", e.getMessage());
             }
         } else {
             logger.warn("WebDriver doesn't support screenshots");
@@ -81,6 +93,35 @@ public class ScreenshotManager {
         return null;
     }
 
+    /**
+     * Capture the current page as PNG without writing a file, e.g. for visual checks
+     *
+     * @return PNG bytes, or null if the driver cannot take screenshots
+     */
+    public static byte[] captureScreenshot() {
+        WebDriver driver = DriverManager.getDriver();
+        if (!(driver instanceof TakesScreenshot)) {
+            logger.warn("WebDriver doesn't support screenshots");
+            return null;
+        }
+        ScreenshotEvent event = new ScreenshotEvent();
+        event.begin();
+        byte[] png;
+        try {
+            png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } catch (UnsupportedCommandException e) {
+            logger.warn("WebDriver doesn't support screenshots: {}", e.getMessage());
+            return null;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = "(in memory)";
+            event.bytes = png.length;
+            event.commit();
+        }
+        return png;
+    }
+
     // Backward compatibility method
     public static String takeScreenshot(String testName) {
         return takeScreenshot(testName, null);
@@ -0,0 +1,244 @@
+package com.uiplayground.automation.core.reporting;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.google.gson.GsonBuilder;
+import com.uiplayground.automation.core.execution.ShardPlanner;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Merges the report outputs of several shard runs into one report set
+ * Usage: ShardReportMerger &lt;outputDir&gt; &lt;shardDir&gt;...
+ * Each shard directory is scanned for Cucumber JSON, JUnit XML, Extent JSON archives (extent-*.json) and the
+ * scenario durations the shard measured, which are merged into the durations history. A JSON file only counts as
+ * a Cucumber report if it is an array of features, each with a uri and elements.
+ */
+public final class ShardReportMerger {
+
+    private static final Logger logger = LogManager.getLogger(ShardReportMerger.class);
+    private static final String EXTENT_ARCHIVE_PREFIX = "extent-";
+
+    private ShardReportMerger() {
+        // Utility class
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: ShardReportMerger <outputDir> <shardDir>...");
+            System.exit(1);
+        }
+        Path outputDir = Paths.get(args[0]);
+        List<Path> shardDirs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            shardDirs.add(Paths.get(args[i]));
+        }
+        merge(outputDir, shardDirs);
+    }
+
+    /**
+     * Merge all shard outputs into the output directory
+     *
+     * @param outputDir Directory for cucumber.json, junit.xml and extent-report.html
+     * @param shardDirs Output directories of the individual shards
+     */
+    public static void merge(Path outputDir, List<Path> shardDirs) throws Exception {
+        List<Path> cucumberJson = new ArrayList<>();
+        List<Path> junitXml = new ArrayList<>();
+        List<Path> extentArchives = new ArrayList<>();
+        List<Path> durations = new ArrayList<>();
+        for (Path shardDir : shardDirs) {
+            for (Path file : listFiles(shardDir)) {
+                String name = file.getFileName().toString();
+                if (ShardPlanner.isDurationsOutput(file)) {
+                    durations.add(file);
+                } else if (name.startsWith(EXTENT_ARCHIVE_PREFIX) && name.endsWith(".json")) {
+                    extentArchives.add(file);
+                } else if (name.endsWith(".json") && isCucumberReport(file)) {
+                    cucumberJson.add(file);
+                } else if (name.endsWith(".xml") && isJUnitReport(file)) {
+                    junitXml.add(file);
+                }
+            }
+        }
+
+        Files.createDirectories(outputDir);
+        mergeCucumberJson(cucumberJson, outputDir.resolve("cucumber.json"));
+        mergeJUnitXml(junitXml, outputDir.resolve("junit.xml"));
+        mergeExtentArchives(extentArchives, outputDir.resolve("extent-report.html"));
+        if (!durations.isEmpty()) {
+            ShardPlanner.mergeDurations(durations, outputDir.resolve("scenario-durations.properties"));
+        }
+        logger.info("Merged {} Cucumber JSON, {} JUnit XML, {} Extent archives and {} duration files into: {}",
+                cucumberJson.size(), junitXml.size(), extentArchives.size(), durations.size(), outputDir);
+    }
+
+    /**
+     * Concatenate features, combining the scenarios of a feature that was split across shards
+     */
+    static void mergeCucumberJson(List<Path> files, Path target) throws IOException {
+        Map<String, JsonObject> features = new LinkedHashMap<>();
+        for (Path file : files) {
+            JsonElement root = parseJson(file);
+            if (!isCucumberReport(root)) {
+                logger.warn("Skipping {}: not a Cucumber JSON report", file);
+                continue;
+            }
+            for (JsonElement element : root.getAsJsonArray()) {
+                JsonObject feature = element.getAsJsonObject();
+                JsonObject existing = features.get(feature.get("uri").getAsString());
+                if (existing == null) {
+                    features.put(feature.get("uri").getAsString(), feature);
+                } else {
+                    existing.getAsJsonArray("elements").addAll(feature.getAsJsonArray("elements"));
+                }
+            }
+        }
+        JsonArray merged = new JsonArray();
+        features.values().forEach(merged::add);
+        Files.write(target, new GsonBuilder().setPrettyPrinting().create().toJson(merged)
+                .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Combine all test cases into one test suite and recompute the totals
+     */
+    static void mergeJUnitXml(List<Path> files, Path target) throws Exception {
+        DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        Document merged = builder.newDocument();
+        Element mergedSuite = merged.createElement("testsuite");
+        merged.appendChild(mergedSuite);
+
+        int tests = 0;
+        int failures = 0;
+        int errors = 0;
+        int skipped = 0;
+        double time = 0;
+        for (Path file : files) {
+            NodeList testCases = builder.parse(file.toFile()).getElementsByTagName("testcase");
+            for (int i = 0; i < testCases.getLength(); i++) {
+                Element testCase = (Element) testCases.item(i);
+                tests++;
+                failures += testCase.getElementsByTagName("failure").getLength() > 0 ? 1 : 0;
+                errors += testCase.getElementsByTagName("error").getLength() > 0 ? 1 : 0;
+                skipped += testCase.getElementsByTagName("skipped").getLength() > 0 ? 1 : 0;
+                time += parseDouble(testCase.getAttribute("time"));
+                Node imported = merged.importNode(testCase, true);
+                mergedSuite.appendChild(imported);
+            }
+        }
+        mergedSuite.setAttribute("name", "Merged shard results");
+        mergedSuite.setAttribute("tests", String.valueOf(tests));
+        mergedSuite.setAttribute("failures", String.valueOf(failures));
+        mergedSuite.setAttribute("errors", String.valueOf(errors));
+        mergedSuite.setAttribute("skipped", String.valueOf(skipped));
+        mergedSuite.setAttribute("time", String.format(Locale.ROOT, "%.3f", time));
+
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(merged), new StreamResult(target.toFile()));
+    }
+
+    /**
+     * Rebuild one Spark report from the Extent JSON archives written by each shard
+     */
+    static void mergeExtentArchives(List<Path> archives, Path target) throws IOException {
+        if (archives.isEmpty()) {
+            return;
+        }
+        ExtentReports extent = new ExtentReports();
+        extent.attachReporter(new ExtentSparkReporter(target.toString()));
+        for (Path archive : archives) {
+            extent.createDomainFromJsonArchive(archive.toFile());
+        }
+        extent.flush();
+    }
+
+    private static List<Path> listFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static JsonElement parseJson(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return JsonParser.parseReader(reader);
+        } catch (JsonParseException e) {
+            throw new IOException("Invalid JSON in " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isCucumberReport(Path file) {
+        try {
+            return isCucumberReport(parseJson(file));
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A Cucumber JSON report is an array of features, each with a uri and an array of elements
+     */
+    static boolean isCucumberReport(JsonElement root) {
+        if (!root.isJsonArray()) {
+            return false;
+        }
+        for (JsonElement element : root.getAsJsonArray()) {
+            if (!element.isJsonObject()) {
+                return false;
+            }
+            JsonObject feature = element.getAsJsonObject();
+            if (!feature.has("uri") || !feature.get("uri").isJsonPrimitive()
+                    || !feature.has("elements") || !feature.get("elements").isJsonArray()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isJUnitReport(Path file) {
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            return lines.limit(5).anyMatch(line -> line.contains("<testsuite"));
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return value == null || value.isEmpty() ? 0 : Double.parseDouble(value.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
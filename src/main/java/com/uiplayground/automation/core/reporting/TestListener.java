@@ -1,20 +1,51 @@
 package com.uiplayground.automation.core.reporting;
 
+import com.uiplayground.automation.core.driver.BrowserContextPool;
+import com.uiplayground.automation.core.driver.BrowserFootprint;
+import com.uiplayground.automation.core.execution.AbortPolicy;
+import com.uiplayground.automation.core.execution.ImpactAnalyzer;
+import com.uiplayground.automation.core.execution.RerunPolicy;
+import com.uiplayground.automation.core.execution.ShardPlanner;
+import com.uiplayground.automation.core.execution.StartupProfiler;
+import com.uiplayground.automation.core.jfr.FlightRecording;
+import com.uiplayground.automation.core.jfr.ScenarioEvent;
+import com.uiplayground.automation.core.jfr.StepEvent;
+import com.uiplayground.automation.core.locators.WaitBudgets;
+import com.uiplayground.automation.core.metrics.CommandMetrics;
+import com.uiplayground.automation.core.metrics.StepTimings;
+import com.uiplayground.automation.core.server.FixtureServer;
+import com.uiplayground.automation.core.state.SharedSetup;
 import io.cucumber.plugin.ConcurrentEventListener;
 import io.cucumber.plugin.event.*;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 public class TestListener implements ITestListener, ConcurrentEventListener {
 
+    private final AtomicLong testRunStartedNanos = new AtomicLong(-1);
+    private final ThreadLocal<ScenarioEvent> scenarioEvent = new ThreadLocal<>();
+    private final ThreadLocal<StepEvent> stepEvent = new ThreadLocal<>();
+
     @Override
     public void onStart(ITestContext context) {
-        ReportManager.initReports();
+        if (FlightRecording.isEnabled()) {
+            FlightRecording.start();
+        }
+        // ExtentReports is created lazily by the first scenario
+        startFixtureServer();
     }
 
     @Override
     public void onFinish(ITestContext context) {
+        ShardPlanner.saveDurations();
+        RerunPolicy.saveFlakeStats();
+        WaitBudgets.saveHistory();
+        BrowserFootprint.save();
+        BrowserContextPool.quitIdleHosts();
+        StartupProfiler.writeReport();
         ReportManager.flushReports();
     }
 
@@ -42,16 +73,77 @@ public class TestListener implements ITestListener, ConcurrentEventListener {
     @Override
     public void setEventPublisher(EventPublisher publisher) {
         // Register for Cucumber events
+        publisher.registerHandlerFor(TestRunStarted.class, this::handleTestRunStarted);
+        publisher.registerHandlerFor(TestStepStarted.class, this::handleTestStepStarted);
         publisher.registerHandlerFor(TestCaseStarted.class, this::handleTestCaseStarted);
         publisher.registerHandlerFor(TestStepFinished.class, this::handleTestStepFinished);
         publisher.registerHandlerFor(TestCaseFinished.class, this::handleTestCaseFinished);
     }
 
+    private void handleTestRunStarted(TestRunStarted event) {
+        testRunStartedNanos.set(System.nanoTime());
+        // Runners started by surefire directly never call onStart
+        if (FlightRecording.isEnabled()) {
+            FlightRecording.start();
+        }
+        startFixtureServer();
+    }
+
+    /**
+     * Start the fixture server before any scenario reads the base URL
+     */
+    private void startFixtureServer() {
+        if (FixtureServer.isEnabled() && FixtureServer.getBaseUrl() == null) {
+            long start = System.nanoTime();
+            FixtureServer.start();
+            StartupProfiler.record("fixture server start", start);
+        }
+    }
+
     private void handleTestCaseStarted(TestCaseStarted event) {
+        long runStarted = testRunStartedNanos.getAndSet(-1);
+        if (runStarted > 0) {
+            // Glue is loaded lazily when the runner dispatches its first scenario
+            StartupProfiler.record("glue load and first scenario dispatch", runStarted);
+        }
+        CommandMetrics.scenarioStarted();
+        ImpactAnalyzer.scenarioStarted();
+        ScenarioEvent jfrEvent = new ScenarioEvent();
+        if (jfrEvent.isEnabled()) {
+            jfrEvent.begin();
+            scenarioEvent.set(jfrEvent);
+        }
+        String attemptLabel = RerunPolicy.getAttemptLabel();
         ReportManager.createTest(
-                event.getTestCase().getName(),
+                attemptLabel == null ? event.getTestCase().getName()
+                        : event.getTestCase().getName() + " [" + attemptLabel + "]",
                 event.getTestCase().getUri().toString(),
                 event.getTestCase().getTags());
+        if (attemptLabel != null) {
+            ReportManager.getTest().assignCategory(RerunPolicy.isQuarantineLane() ? "Quarantine" : "Retry");
+        }
+
+        AbortPolicy.evaluate(event.getTestCase());
+        SharedSetup.scenarioStarted(event.getTestCase());
+        String skipReason = AbortPolicy.getSkipReason();
+        if (skipReason != null) {
+            ReportManager.logSkip("Skipped without starting a browser: " + skipReason);
+        }
+    }
+
+    private void handleTestStepStarted(TestStepStarted event) {
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            StartupProfiler.firstStepStarted();
+            PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+            CommandMetrics.stepStarted(step.getStep().getText(), step.getPattern());
+            SharedSetup.stepStarted(step);
+            ImpactAnalyzer.recordStepDefinition(step.getCodeLocation());
+            StepEvent jfrEvent = new StepEvent();
+            if (jfrEvent.isEnabled()) {
+                jfrEvent.begin();
+                stepEvent.set(jfrEvent);
+            }
+        }
     }
 
     private void handleTestStepFinished(TestStepFinished event) {
@@ -60,10 +152,53 @@ public class TestListener implements ITestListener, ConcurrentEventListener {
             String stepText = step.getStep().getText();
             String status = event.getResult().getStatus().name();
             ReportManager.logStep(stepText, status);
+            CommandMetrics.stepFinished();
+            SharedSetup.stepFinished(step, event.getResult().getStatus() == Status.PASSED,
+                    event.getResult().getDuration());
+            if (event.getResult().getStatus() != Status.SKIPPED) {
+                String pattern = step.getPattern() != null ? step.getPattern() : stepText;
+                StepTimings.recordStep(pattern, stepText, event.getResult().getDuration());
+            }
+            StepEvent jfrEvent = stepEvent.get();
+            if (jfrEvent != null) {
+                stepEvent.remove();
+                jfrEvent.end();
+                if (jfrEvent.shouldCommit()) {
+                    jfrEvent.text = stepText;
+                    jfrEvent.scenario = event.getTestCase().getName();
+                    jfrEvent.status = status;
+                    jfrEvent.commit();
+                }
+            }
+        } else if (event.getTestStep() instanceof HookTestStep) {
+            HookTestStep hook = (HookTestStep) event.getTestStep();
+            StepTimings.recordHook(hook.getHookType().name(), hook.getCodeLocation(), event.getResult().getDuration());
+        }
+        if (event.getResult().getStatus() == Status.FAILED) {
+            AbortPolicy.recordStepFailure(event.getTestCase(), event.getTestStep());
         }
     }
 
     private void handleTestCaseFinished(TestCaseFinished event) {
-        // Handle test case completion
+        ShardPlanner.recordDuration(event.getTestCase().getUri(),
+                event.getTestCase().getLocation().getLine(), event.getResult().getDuration());
+        if (!RerunPolicy.isQuarantineLane()) {
+            AbortPolicy.recordScenarioFinished(event.getTestCase(),
+                    event.getResult().getStatus() == Status.FAILED);
+        }
+        ImpactAnalyzer.scenarioFinished(event.getTestCase().getUri(), event.getTestCase().getLocation().getLine(),
+                event.getResult().getStatus() == Status.PASSED);
+        ScenarioEvent jfrEvent = scenarioEvent.get();
+        if (jfrEvent != null) {
+            scenarioEvent.remove();
+            jfrEvent.end();
+            if (jfrEvent.shouldCommit()) {
+                jfrEvent.name = event.getTestCase().getName();
+                jfrEvent.uri = event.getTestCase().getUri().toString();
+                jfrEvent.line = event.getTestCase().getLocation().getLine();
+                jfrEvent.status = event.getResult().getStatus().name();
+                jfrEvent.commit();
+            }
+        }
     }
 }
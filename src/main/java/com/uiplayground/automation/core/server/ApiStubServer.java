@@ -0,0 +1,182 @@
+package com.uiplayground.automation.core.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.uiplayground.automation.core.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded HTTP server that answers API requests with stubbed responses
+ * Stubs are registered per method and path, so API scenarios run without any external service.
+ * Distinct client connections are counted to verify connection reuse.
+ */
+public final class ApiStubServer {
+
+    private static final Logger logger = LogManager.getLogger(ApiStubServer.class);
+
+    /**
+     * Canned response for one method and path
+     */
+    private static final class Stub {
+
+        private final int status;
+        private final byte[] body;
+
+        private Stub(int status, String body) {
+            this.status = status;
+            this.body = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final Map<String, Stub> stubs = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+    private static final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+    private static volatile HttpServer server;
+    private static volatile String baseUrl;
+    private static ExecutorService executor;
+
+    private ApiStubServer() {
+        // Utility class
+    }
+
+    /**
+     * Start the server if it is not already running
+     *
+     * @return Base URL of the server
+     */
+    public static synchronized String start() {
+        if (server != null) {
+            return baseUrl;
+        }
+        ConfigManager config = ConfigManager.getInstance();
+        FixtureServer.disableNagle();
+        try {
+            HttpServer httpServer = HttpServer.create(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), config.getInt("api.stub.port", 0)), 0);
+            executor = Executors.newFixedThreadPool(config.getInt("api.stub.threads", 16), runnable -> {
+                Thread thread = new Thread(runnable, "api-stub-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+            httpServer.createContext("/", ApiStubServer::handle);
+            httpServer.setExecutor(executor);
+            // Started from a daemon thread so the dispatcher never keeps the JVM alive
+            Thread starter = new Thread(httpServer::start, "api-stub-server-start");
+            starter.setDaemon(true);
+            starter.start();
+            starter.join();
+
+            server = httpServer;
+            baseUrl = "http://localhost:" + httpServer.getAddress().getPort();
+            Runtime.getRuntime().addShutdownHook(new Thread(ApiStubServer::stop, "api-stub-server-shutdown"));
+            logger.info("API stub server started at {}", baseUrl);
+            return baseUrl;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start API stub server", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while starting API stub server", e);
+        }
+    }
+
+    /**
+     * Stop the server and release its threads
+     */
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            baseUrl = null;
+            logger.info("API stub server stopped");
+        }
+    }
+
+    /**
+     * Get the base URL, starting the server on first use
+     *
+     * @return Base URL such as http://localhost:54321
+     */
+    public static String getBaseUrl() {
+        String url = baseUrl;
+        return url != null ? url : start();
+    }
+
+    /**
+     * Register the response for a method and path, replacing any earlier stub
+     *
+     * @param method HTTP method
+     * @param path   Request path without query string
+     * @param status Response status
+     * @param body   JSON response body, may be null
+     */
+    public static void stub(String method, String path, int status, String body) {
+        stubs.put(key(method, path), new Stub(status, body));
+        logger.debug("Stubbed {} {} -> {}", method, path, status);
+    }
+
+    /**
+     * Get the number of requests received for a method and path
+     *
+     * @param method HTTP method
+     * @param path   Request path
+     * @return Request count
+     */
+    public static long getRequestCount(String method, String path) {
+        AtomicLong count = requestCounts.get(key(method, path));
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Get the number of distinct client connections the server has accepted
+     *
+     * @return Connection count
+     */
+    public static int getConnectionCount() {
+        return connections.size();
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            requestBody.readAllBytes();
+            connections.add(exchange.getRemoteAddress());
+            String key = key(exchange.getRequestMethod(), exchange.getRequestURI().getPath());
+            requestCounts.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+
+            Stub stub = stubs.get(key);
+            if (stub == null) {
+                logger.debug("No stub for {}", key);
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(stub.status, stub.body.length == 0 ? -1 : stub.body.length);
+            if (stub.body.length > 0) {
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(stub.body);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String key(String method, String path) {
+        return method.toUpperCase(Locale.ROOT) + " " + path;
+    }
+}
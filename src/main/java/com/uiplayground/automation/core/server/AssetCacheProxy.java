@@ -0,0 +1,401 @@
+package com.uiplayground.automation.core.server;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local forward proxy that serves repeated static assets from a JVM-wide StaticAssetCache
+ * DriverManager points every browser at it when asset.cache.enabled is set, so parallel sessions share
+ * one warm cache instead of each downloading the same CSS, JS, font and image files.
+ * Plain HTTP GETs of static assets are cached; HTTPS is tunneled through unchanged because it cannot be
+ * inspected without intercepting certificates.
+ */
+public final class AssetCacheProxy {
+
+    private static final Logger logger = LogManager.getLogger(AssetCacheProxy.class);
+    private static final int CONNECT_TIMEOUT_MS = 30_000;
+    private static final int READ_TIMEOUT_MS = 60_000;
+    private static final HttpClient upstreamClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofMillis(CONNECT_TIMEOUT_MS))
+            .build();
+    private static final Set<String> STATIC_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "css", "js", "mjs", "woff", "woff2", "ttf", "otf", "eot",
+            "png", "jpg", "jpeg", "gif", "svg", "ico", "webp"));
+    private static final Set<String> HOP_BY_HOP_HEADERS = new HashSet<>(Arrays.asList(
+            "connection", "keep-alive", "proxy-connection", "proxy-authorization", "proxy-authenticate",
+            "te", "trailer", "transfer-encoding", "upgrade", "content-length", "host", "expect"));
+
+    private static volatile ServerSocket serverSocket;
+    private static volatile StaticAssetCache cache;
+    private static ExecutorService executor;
+
+    private AssetCacheProxy() {
+        // Utility class
+    }
+
+    /**
+     * Check whether browsers should be routed through the asset cache
+     *
+     * @return true if asset.cache.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("asset.cache.enabled", false);
+    }
+
+    /**
+     * Start the proxy if it is not already running
+     *
+     * @return Proxy address in host:port form for the browser proxy capability
+     */
+    public static synchronized String start() {
+        if (serverSocket != null) {
+            return getAddress();
+        }
+        ConfigManager config = ConfigManager.getInstance();
+        try {
+            ServerSocket socket = new ServerSocket();
+            socket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                    config.getInt("asset.cache.proxy.port", 0)));
+            // Tunnels hold a thread for the life of the browser connection, so the pool is unbounded
+            executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "asset-cache-proxy");
+                thread.setDaemon(true);
+                return thread;
+            });
+            cache = new StaticAssetCache(config.getLong("asset.cache.max.mb", 64) * 1024 * 1024,
+                    config.getLong("asset.cache.max.entry.kb", 2048) * 1024);
+            serverSocket = socket;
+            executor.execute(AssetCacheProxy::acceptLoop);
+            Runtime.getRuntime().addShutdownHook(new Thread(AssetCacheProxy::stop, "asset-cache-proxy-shutdown"));
+            logger.info("Static asset cache proxy started at {}", getAddress());
+            return getAddress();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start static asset cache proxy", e);
+        }
+    }
+
+    /**
+     * Stop the proxy and log the cache statistics
+     */
+    public static synchronized void stop() {
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                logger.debug("Error closing asset cache proxy socket", e);
+            }
+            executor.shutdownNow();
+            serverSocket = null;
+            logger.info("Static asset cache proxy stopped: {}", cache.getSummary());
+        }
+    }
+
+    /**
+     * Get the address browsers should use as their HTTP and SSL proxy
+     *
+     * @return host:port of the running proxy
+     */
+    public static String getAddress() {
+        ServerSocket socket = serverSocket;
+        return socket == null ? null : "localhost:" + socket.getLocalPort();
+    }
+
+    /**
+     * Get the shared cache for statistics
+     *
+     * @return Cache, or null if the proxy was never started
+     */
+    public static StaticAssetCache getCache() {
+        return cache;
+    }
+
+    private static void acceptLoop() {
+        ServerSocket socket = serverSocket;
+        while (socket != null && !socket.isClosed()) {
+            try {
+                Socket client = socket.accept();
+                executor.execute(() -> handle(client));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    logger.warn("Asset cache proxy failed to accept a connection", e);
+                }
+            }
+        }
+    }
+
+    private static void handle(Socket client) {
+        try (Socket clientSocket = client) {
+            clientSocket.setSoTimeout(READ_TIMEOUT_MS);
+            InputStream in = new BufferedInputStream(clientSocket.getInputStream());
+            OutputStream out = clientSocket.getOutputStream();
+            String head = readHead(in);
+            if (head == null) {
+                return;
+            }
+            String[] lines = head.split("\r\n");
+            String[] requestLine = lines[0].split(" ");
+            if (requestLine.length < 3) {
+                writeError(out, 400, "Bad Request");
+                return;
+            }
+            Map<String, String> headers = parseHeaders(lines);
+            if ("CONNECT".equalsIgnoreCase(requestLine[0])) {
+                tunnel(clientSocket, in, out, requestLine[1]);
+            } else {
+                forward(in, out, requestLine[0].toUpperCase(Locale.ROOT), requestLine[1], headers);
+            }
+        } catch (IOException e) {
+            logger.debug("Asset cache proxy connection closed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Serve a plain HTTP request from the cache or the origin, one request per connection
+     */
+    private static void forward(InputStream in, OutputStream out, String method, String target,
+                                Map<String, String> headers) throws IOException {
+        String cacheKey = isCacheable(method, target)
+                ? target + "|" + headers.getOrDefault("accept-encoding", "")
+                : null;
+        if (cacheKey != null) {
+            StaticAssetCache.Entry cached = cache.get(cacheKey);
+            if (cached != null) {
+                writeResponse(out, cached.getStatus(), cached.getHeaders(), cached.getBody());
+                return;
+            }
+        }
+
+        byte[] requestBody;
+        try {
+            if (headers.getOrDefault("transfer-encoding", "").toLowerCase(Locale.ROOT).contains("chunked")) {
+                requestBody = readChunked(in);
+            } else {
+                requestBody = in.readNBytes(Integer.parseInt(headers.getOrDefault("content-length", "0")));
+            }
+        } catch (NumberFormatException e) {
+            writeError(out, 400, "Bad Request");
+            return;
+        }
+        HttpRequest.Builder request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(target))
+                    .timeout(Duration.ofMillis(READ_TIMEOUT_MS))
+                    .method(method, requestBody.length > 0 ? HttpRequest.BodyPublishers.ofByteArray(requestBody)
+                            : HttpRequest.BodyPublishers.noBody());
+        } catch (IllegalArgumentException e) {
+            writeError(out, 400, "Bad Request");
+            return;
+        }
+        headers.forEach((name, value) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name)) {
+                try {
+                    request.header(name, value);
+                } catch (IllegalArgumentException e) {
+                    // Headers the HTTP client sets itself, e.g. Date on older JDKs
+                    logger.debug("Asset cache proxy dropped request header {}", name);
+                }
+            }
+        });
+
+        HttpResponse<byte[]> response;
+        try {
+            response = upstreamClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            logger.debug("Asset cache proxy could not reach {}: {}", target, e.getMessage());
+            writeError(out, 502, "Bad Gateway");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(out, 502, "Bad Gateway");
+            return;
+        }
+        int status = response.statusCode();
+        Map<String, List<String>> responseHeaders = new LinkedHashMap<>();
+        response.headers().map().forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                responseHeaders.put(name, values);
+            }
+        });
+        byte[] bytes = response.body();
+
+        if (cacheKey != null && status == 200
+                && isStorable(response.headers().firstValue("Cache-Control").orElse(null))) {
+            cache.put(cacheKey, new StaticAssetCache.Entry(status, Collections.unmodifiableMap(responseHeaders), bytes));
+        }
+        writeResponse(out, status, responseHeaders, "HEAD".equals(method) ? new byte[0] : bytes);
+    }
+
+    /**
+     * Relay an HTTPS CONNECT tunnel byte for byte in both directions
+     */
+    private static void tunnel(Socket client, InputStream in, OutputStream out, String authority)
+            throws IOException {
+        int colon = authority.lastIndexOf(':');
+        String host = colon > 0 ? authority.substring(0, colon) : authority;
+        int port = colon > 0 ? Integer.parseInt(authority.substring(colon + 1)) : 443;
+        try (Socket upstream = new Socket()) {
+            upstream.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
+            client.setSoTimeout(0);
+            out.write("HTTP/1.1 200 Connection Established\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+            executor.execute(() -> pipe(in, upstream));
+            pipe(upstream.getInputStream(), client);
+        } catch (IOException e) {
+            writeError(out, 502, "Bad Gateway");
+        }
+    }
+
+    private static void pipe(InputStream from, Socket to) {
+        byte[] buffer = new byte[8192];
+        try {
+            OutputStream out = to.getOutputStream();
+            int read;
+            while ((read = from.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+                out.flush();
+            }
+            to.shutdownOutput();
+        } catch (SocketException e) {
+            // The other side closed the tunnel
+        } catch (IOException e) {
+            logger.debug("Asset cache proxy tunnel closed: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isCacheable(String method, String target) {
+        if (!"GET".equals(method) || !target.startsWith("http://")) {
+            return false;
+        }
+        String path = target.replaceFirst("[?#].*$", "");
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/')
+                && STATIC_EXTENSIONS.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    private static boolean isStorable(String cacheControl) {
+        if (cacheControl == null) {
+            return true;
+        }
+        String directives = cacheControl.toLowerCase(Locale.ROOT);
+        return !directives.contains("no-store") && !directives.contains("private");
+    }
+
+    /**
+     * Read the request line and headers up to the blank line
+     */
+    private static String readHead(InputStream in) throws IOException {
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        int matched = 0;
+        int b;
+        while ((b = in.read()) != -1) {
+            head.write(b);
+            if (b == '\r') {
+                matched = matched == 2 ? 3 : 1;
+            } else {
+                matched = b == '\n' && (matched == 1 || matched == 3) ? matched + 1 : 0;
+            }
+            if (matched == 4) {
+                return head.toString(StandardCharsets.ISO_8859_1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read a chunked request body up to the last chunk, dropping chunk extensions and trailers
+     */
+    private static byte[] readChunked(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        while (true) {
+            String sizeLine = readLine(in);
+            int extension = sizeLine.indexOf(';');
+            int size = Integer.parseInt((extension >= 0 ? sizeLine.substring(0, extension) : sizeLine).trim(), 16);
+            if (size == 0) {
+                while (!readLine(in).isEmpty()) {
+                    // Skip trailers
+                }
+                return body.toByteArray();
+            }
+            byte[] chunk = in.readNBytes(size);
+            if (chunk.length < size) {
+                throw new IOException("Request body ended inside a chunk");
+            }
+            body.write(chunk);
+            readLine(in);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        if (b == -1) {
+            throw new IOException("Request body ended before the last chunk");
+        }
+        return line.toString(StandardCharsets.ISO_8859_1);
+    }
+
+    private static Map<String, String> parseHeaders(String[] lines) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0) {
+                headers.put(lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                        lines[i].substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+
+    private static void writeResponse(OutputStream out, int status, Map<String, List<String>> headers,
+                                      byte[] body) throws IOException {
+        StringBuilder head = new StringBuilder("HTTP/1.1 ").append(status).append(" \r\n");
+        headers.forEach((name, values) -> values.forEach(value ->
+                head.append(name).append(": ").append(value).append("\r\n")));
+        head.append("Content-Length: ").append(body.length).append("\r\n");
+        head.append("Connection: close\r\n\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        out.write(body);
+        out.flush();
+    }
+
+    private static void writeError(OutputStream out, int status, String reason) throws IOException {
+        out.write(("HTTP/1.1 " + status + " " + reason + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n")
+                .getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+    }
+}
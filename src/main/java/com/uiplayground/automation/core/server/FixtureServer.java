@@ -0,0 +1,256 @@
+package com.uiplayground.automation.core.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.uiplayground.automation.core.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded HTTP server that serves recorded snapshots of the UI Testing Playground
+ * Pages and assets are read from the classpath (fixture.resource.root). Latency, jitter and bandwidth
+ * can be injected to benchmark the framework deterministically or reproduce slow networks.
+ */
+public final class FixtureServer {
+
+    private static final Logger logger = LogManager.getLogger(FixtureServer.class);
+    private static final String DYNAMIC_ID_PLACEHOLDER = "{{dynamicId}}";
+    private static final int CHUNK_SIZE = 1024;
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "html", "text/html; charset=utf-8",
+            "css", "text/css; charset=utf-8",
+            "js", "application/javascript; charset=utf-8",
+            "png", "image/png",
+            "svg", "image/svg+xml",
+            "ico", "image/x-icon",
+            "woff2", "font/woff2");
+
+    private static final Map<String, byte[]> resourceCache = new ConcurrentHashMap<>();
+    private static volatile HttpServer server;
+    private static volatile String baseUrl;
+    private static ExecutorService executor;
+    private static Random jitterRandom;
+
+    private FixtureServer() {
+        // Utility class
+    }
+
+    /**
+     * Start the server if it is not already running
+     *
+     * @return Base URL of the server
+     */
+    public static synchronized String start() {
+        if (server != null) {
+            return baseUrl;
+        }
+        ConfigManager config = ConfigManager.getInstance();
+        disableNagle();
+        try {
+            HttpServer httpServer = HttpServer.create(
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), config.getInt("fixture.port", 0)), 0);
+            executor = Executors.newFixedThreadPool(config.getInt("fixture.threads", 8), runnable -> {
+                Thread thread = new Thread(runnable, "fixture-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+            jitterRandom = new Random(config.getLong("fixture.seed", 42));
+            httpServer.createContext("/", FixtureServer::handle);
+            httpServer.setExecutor(executor);
+            startDispatcher(httpServer);
+
+            server = httpServer;
+            baseUrl = "http://localhost:" + httpServer.getAddress().getPort();
+            config.publishBaseUrl(baseUrl);
+            Runtime.getRuntime().addShutdownHook(new Thread(FixtureServer::stop, "fixture-server-shutdown"));
+            logger.info("Fixture server started at {} (latency {} ms, jitter {} ms, bandwidth {} kbps)", baseUrl,
+                    config.getLong("fixture.latency.ms", 0), config.getLong("fixture.jitter.ms", 0),
+                    config.getLong("fixture.bandwidth.kbps", 0));
+            return baseUrl;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start fixture server", e);
+        }
+    }
+
+    /**
+     * Stop the server and release its threads
+     */
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            server = null;
+            baseUrl = null;
+            ConfigManager.getInstance().publishBaseUrl(null);
+            logger.info("Fixture server stopped");
+        }
+    }
+
+    /**
+     * Check whether the local profile wants the fixture server instead of the real site
+     *
+     * @return true if fixture.server.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("fixture.server.enabled", false);
+    }
+
+    /**
+     * Get the base URL of the running server
+     *
+     * @return Base URL such as http://localhost:54321, or null if the server is not running
+     */
+    public static String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Send responses without waiting for delayed ACKs; with Nagle on, every keep-alive request stalls ~40 ms
+     * The property is read once when the JDK server classes load, so it must be set before the first server
+     */
+    static void disableNagle() {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * The dispatcher thread inherits the daemon flag of the thread that starts it, so start it from a
+     * daemon thread to keep it from holding the JVM open after the suite
+     */
+    private static void startDispatcher(HttpServer httpServer) {
+        Thread starter = new Thread(httpServer::start, "fixture-server-start");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while starting fixture server", e);
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String resource = toResourcePath(path);
+            byte[] body = loadResource(resource);
+            injectLatency();
+
+            if (body == null) {
+                exchange.sendResponseHeaders(404, -1);
+                logger.debug("Fixture not found: {}", path);
+                return;
+            }
+            String extension = resource.substring(resource.lastIndexOf('.') + 1);
+            if ("html".equals(extension)) {
+                // Replicate the playground's dynamic element IDs on every request
+                body = new String(body, StandardCharsets.UTF_8)
+                        .replace(DYNAMIC_ID_PLACEHOLDER, UUID.randomUUID().toString())
+                        .getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.getResponseHeaders().set("Content-Type",
+                    CONTENT_TYPES.getOrDefault(extension, "application/octet-stream"));
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(body.length));
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                write(os, body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Map a request path to a fixture file, e.g. / to index.html and /dynamicid to dynamicid.html
+     */
+    private static String toResourcePath(String path) {
+        String root = ConfigManager.getInstance().getProperty("fixture.resource.root", "fixtures/playground");
+        String relative = path.replaceAll("^/+", "").replaceAll("/+$", "");
+        if (relative.contains("..")) {
+            relative = "";
+        }
+        if (relative.isEmpty()) {
+            relative = "index.html";
+        } else if (!relative.contains(".")) {
+            relative = relative + ".html";
+        }
+        return root + "/" + relative;
+    }
+
+    private static byte[] loadResource(String resource) throws IOException {
+        byte[] cached = resourceCache.get(resource);
+        if (cached != null) {
+            return cached;
+        }
+        try (InputStream is = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource)) {
+            if (is == null) {
+                return null;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            is.transferTo(buffer);
+            byte[] bytes = buffer.toByteArray();
+            resourceCache.put(resource, bytes);
+            return bytes;
+        }
+    }
+
+    private static void injectLatency() {
+        ConfigManager config = ConfigManager.getInstance();
+        long latency = config.getLong("fixture.latency.ms", 0);
+        long jitter = config.getLong("fixture.jitter.ms", 0);
+        if (jitter > 0) {
+            synchronized (FixtureServer.class) {
+                latency += (long) (jitterRandom.nextDouble() * jitter);
+            }
+        }
+        sleep(latency);
+    }
+
+    /**
+     * Write the body in chunks, pausing between them to honor fixture.bandwidth.kbps
+     */
+    private static void write(OutputStream os, byte[] body) throws IOException {
+        long bandwidthKbps = ConfigManager.getInstance().getLong("fixture.bandwidth.kbps", 0);
+        if (bandwidthKbps <= 0) {
+            os.write(body);
+            return;
+        }
+        double bytesPerMilli = bandwidthKbps * 1024.0 / 8.0 / 1000.0;
+        for (int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, body.length - offset);
+            os.write(body, offset, length);
+            os.flush();
+            sleep((long) (length / bytesPerMilli));
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.uiplayground.automation.core.server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JVM-wide LRU cache of static asset responses shared by every browser session
+ * Bounded by total body size; least recently used entries are evicted first.
+ */
+public final class StaticAssetCache {
+
+    /**
+     * Recorded response of a static asset
+     */
+    public static final class Entry {
+
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+
+        public Entry(int status, Map<String, List<String>> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private long currentBytes;
+
+    /**
+     * @param maxBytes      Total size cap of all cached bodies
+     * @param maxEntryBytes Largest body that is cached
+     */
+    public StaticAssetCache(long maxBytes, long maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxBytes, maxEntryBytes);
+    }
+
+    /**
+     * Look up an asset and count the hit or miss
+     *
+     * @param key Cache key
+     * @return Cached entry, or null on a miss
+     */
+    public Entry get(String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+            bytesServed.addAndGet(entry.getBody().length);
+        }
+        return entry;
+    }
+
+    /**
+     * Store an asset, evicting the least recently used entries to stay under the size cap
+     *
+     * @param key   Cache key
+     * @param entry Response to cache
+     * @return true if the entry was stored
+     */
+    public boolean put(String key, Entry entry) {
+        long size = entry.getBody().length;
+        if (size > maxEntryBytes) {
+            return false;
+        }
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                currentBytes -= previous.getBody().length;
+            }
+            currentBytes += size;
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (currentBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Entry> evicted = eldest.next();
+                eldest.remove();
+                currentBytes -= evicted.getValue().getBody().length;
+                evictions.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getBytesServed() {
+        return bytesServed.get();
+    }
+
+    /**
+     * Get the fraction of lookups served from the cache
+     *
+     * @return Hit ratio between 0 and 1
+     */
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getCurrentBytes() {
+        synchronized (entries) {
+            return currentBytes;
+        }
+    }
+
+    /**
+     * One-line summary for logs and reports
+     *
+     * @return Hit, miss and size statistics
+     */
+    public String getSummary() {
+        return String.format(Locale.ROOT,
+                "%d hits, %d misses (%.1f%% hit ratio), %d entries, %d KB cached, %d KB served from cache, %d evictions",
+                getHits(), getMisses(), getHitRatio() * 100, size(), getCurrentBytes() / 1024,
+                getBytesServed() / 1024, getEvictions());
+    }
+}
@@ -0,0 +1,369 @@
+package com.uiplayground.automation.core.state;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.driver.DriverManager;
+import com.uiplayground.automation.core.execution.RerunPolicy;
+import com.uiplayground.automation.core.reporting.ReportManager;
+import io.cucumber.plugin.event.DataTableArgument;
+import io.cucumber.plugin.event.DocStringArgument;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.StepArgument;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestStep;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a setup prefix shared by several scenarios once and restores its browser state for the others
+ * With shared.setup.enabled, scenarios tagged shared.setup.tag (e.g. on the Feature) share their setup steps,
+ * the Background and Given steps before the first When or Then. The first scenario with a prefix runs it and
+ * snapshots the URL, cookies, localStorage and sessionStorage of the page it ends on. A later scenario with
+ * the same prefix restores the snapshot before its first step and, if the restored page matches the snapshot,
+ * its prefix step definitions return early through isRestored(). A restore that cannot be verified is undone,
+ * the snapshot is dropped and the scenario runs its setup steps in full.
+ */
+public final class SharedSetup {
+
+    private static final Logger logger = LogManager.getLogger(SharedSetup.class);
+
+    // Returns {local: {...}, session: {...}} for the current page
+    private static final String READ_STORAGE_SCRIPT =
+            "function read(storage) { var entries = {};"
+            + "  for (var i = 0; i < storage.length; i++) { var key = storage.key(i); entries[key] = storage.getItem(key); }"
+            + "  return entries; }"
+            + "return {local: read(window.localStorage), session: read(window.sessionStorage)};";
+    private static final String WRITE_STORAGE_SCRIPT =
+            "window.localStorage.clear(); window.sessionStorage.clear();"
+            + "for (var key in arguments[0]) { window.localStorage.setItem(key, arguments[0][key]); }"
+            + "for (var key in arguments[1]) { window.sessionStorage.setItem(key, arguments[1][key]); }";
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "window.localStorage.clear(); window.sessionStorage.clear();";
+
+    /**
+     * Browser state at the end of a setup prefix
+     */
+    private static final class Snapshot {
+
+        private final String url;
+        private final String title;
+        private final Set<Cookie> cookies;
+        private final Map<String, String> localStorage;
+        private final Map<String, String> sessionStorage;
+        private final long setupNanos;
+
+        private Snapshot(String url, String title, Set<Cookie> cookies, Map<String, String> localStorage,
+                         Map<String, String> sessionStorage, long setupNanos) {
+            this.url = url;
+            this.title = title;
+            this.cookies = cookies;
+            this.localStorage = localStorage;
+            this.sessionStorage = sessionStorage;
+            this.setupNanos = setupNanos;
+        }
+    }
+
+    /**
+     * Shared setup prefix of the current thread's scenario
+     */
+    private static final class Plan {
+
+        private final String key;
+        private final List<String> stepTexts;
+        private final List<TestStep> steps;
+        private boolean inBrowser;
+        private boolean restored;
+        private boolean inPrefix;
+        private long setupNanos;
+
+        private Plan(String key, List<String> stepTexts, List<TestStep> steps) {
+            this.key = key;
+            this.stepTexts = stepTexts;
+            this.steps = steps;
+        }
+    }
+
+    private static final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Plan> plan = new ThreadLocal<>();
+    private static final LongAdder recorded = new LongAdder();
+    private static final LongAdder restored = new LongAdder();
+    private static final LongAdder fallbacks = new LongAdder();
+    private static final LongAdder savedNanos = new LongAdder();
+
+    private SharedSetup() {
+        // Utility class
+    }
+
+    /**
+     * Check whether setup prefixes are shared between scenarios
+     *
+     * @return true if shared.setup.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("shared.setup.enabled", false);
+    }
+
+    /**
+     * Work out the shared setup prefix of a scenario that is about to start
+     * Retries always run their setup steps in full.
+     *
+     * @param testCase Scenario about to run
+     */
+    public static void scenarioStarted(TestCase testCase) {
+        plan.remove();
+        String tag = ConfigManager.getInstance().getProperty("shared.setup.tag", "@shared-setup");
+        if (!isEnabled() || !testCase.getTags().contains(tag) || RerunPolicy.getAttemptLabel() != null) {
+            return;
+        }
+        List<String> stepTexts = new ArrayList<>();
+        List<TestStep> steps = new ArrayList<>();
+        for (TestStep testStep : testCase.getTestSteps()) {
+            if (!(testStep instanceof PickleStepTestStep)) {
+                continue;
+            }
+            PickleStepTestStep step = (PickleStepTestStep) testStep;
+            String keyword = step.getStep().getKeyword().trim();
+            if ("When".equals(keyword) || "Then".equals(keyword)) {
+                break;
+            }
+            stepTexts.add(step.getStep().getText());
+            steps.add(testStep);
+        }
+        if (!steps.isEmpty()) {
+            plan.set(new Plan(keyOf(steps), stepTexts, steps));
+        }
+    }
+
+    /**
+     * Restore the snapshot of the scenario's setup prefix, once its browser session is up
+     * Scenarios on the static page driver neither restore nor record snapshots.
+     */
+    public static void restore() {
+        Plan current = plan.get();
+        if (current == null) {
+            return;
+        }
+        current.inBrowser = true;
+        Snapshot snapshot = snapshots.get(current.key);
+        if (snapshot == null) {
+            return;
+        }
+        WebDriver driver = DriverManager.getDriver();
+        long start = System.nanoTime();
+        String mismatch;
+        try {
+            apply(driver, snapshot);
+            mismatch = verify(driver, snapshot);
+        } catch (WebDriverException e) {
+            mismatch = e.getMessage();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (mismatch != null) {
+            fallbacks.increment();
+            snapshots.remove(current.key, snapshot);
+            undo(driver);
+            String message = "Shared setup not restored, running setup steps: " + mismatch;
+            logger.warn(message);
+            ReportManager.logWarning(message);
+            return;
+        }
+        current.restored = true;
+        restored.increment();
+        savedNanos.add(snapshot.setupNanos - elapsed);
+        String message = String.format(Locale.ROOT, "Shared setup restored in %d ms instead of running %s (%d ms)",
+                TimeUnit.NANOSECONDS.toMillis(elapsed), current.stepTexts,
+                TimeUnit.NANOSECONDS.toMillis(snapshot.setupNanos));
+        logger.info(message);
+        ReportManager.logInfo(message);
+    }
+
+    /**
+     * Check whether the running step belongs to a setup prefix whose state was restored
+     * Step definitions that may be shared return early when this is true.
+     *
+     * @return true if the step should not run again
+     */
+    public static boolean isRestored() {
+        Plan current = plan.get();
+        return current != null && current.restored && current.inPrefix;
+    }
+
+    /**
+     * Track whether the running step is part of the setup prefix
+     *
+     * @param testStep Step about to run
+     */
+    public static void stepStarted(TestStep testStep) {
+        Plan current = plan.get();
+        if (current != null) {
+            current.inPrefix = current.steps.contains(testStep);
+        }
+    }
+
+    /**
+     * Snapshot the browser state when the last step of a recording prefix passed
+     *
+     * @param testStep Step that finished
+     * @param passed   true if the step passed
+     * @param duration Step duration
+     */
+    public static void stepFinished(TestStep testStep, boolean passed, Duration duration) {
+        Plan current = plan.get();
+        if (current == null || !current.inPrefix) {
+            return;
+        }
+        current.inPrefix = false;
+        if (current.restored || !current.inBrowser) {
+            return;
+        }
+        if (!passed) {
+            plan.remove();
+            return;
+        }
+        current.setupNanos += duration.toNanos();
+        if (testStep.equals(current.steps.get(current.steps.size() - 1)) && !snapshots.containsKey(current.key)) {
+            record(current);
+        }
+    }
+
+    /**
+     * Describe the shared setups of this run
+     *
+     * @return Summary, or null if no setup was shared
+     */
+    public static String getSummary() {
+        if (recorded.sum() == 0 && fallbacks.sum() == 0) {
+            return null;
+        }
+        return String.format(Locale.ROOT, "%d recorded, %d restored, %d fell back, %d ms saved", recorded.sum(),
+                restored.sum(), fallbacks.sum(), TimeUnit.NANOSECONDS.toMillis(savedNanos.sum()));
+    }
+
+    private static void record(Plan current) {
+        WebDriver driver = DriverManager.getDriver();
+        if (!(driver instanceof JavascriptExecutor)) {
+            return;
+        }
+        try {
+            Map<?, ?> storage = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT);
+            Snapshot snapshot = new Snapshot(driver.getCurrentUrl(), driver.getTitle(),
+                    new HashSet<>(driver.manage().getCookies()), toStrings(storage.get("local")),
+                    toStrings(storage.get("session")), current.setupNanos);
+            if (snapshots.putIfAbsent(current.key, snapshot) == null) {
+                recorded.increment();
+                logger.info("Recorded shared setup {} at {} ({} cookies, {} storage entries)", current.stepTexts,
+                        snapshot.url, snapshot.cookies.size(),
+                        snapshot.localStorage.size() + snapshot.sessionStorage.size());
+            }
+        } catch (WebDriverException | ClassCastException | NullPointerException e) {
+            logger.warn("Could not snapshot shared setup {}: {}", current.stepTexts, e.getMessage());
+        }
+    }
+
+    /**
+     * Load the snapshot page with the snapshot's cookies and storage
+     * Cookies and storage can only be written on their origin, so a light page of the origin is loaded first.
+     */
+    private static void apply(WebDriver driver, Snapshot snapshot) {
+        if (!snapshot.cookies.isEmpty() || !snapshot.localStorage.isEmpty() || !snapshot.sessionStorage.isEmpty()) {
+            URI url = URI.create(snapshot.url);
+            driver.get(url.getScheme() + "://" + url.getRawAuthority()
+                    + ConfigManager.getInstance().getProperty("state.seeding.origin.path", "/favicon.ico"));
+            driver.manage().deleteAllCookies();
+            snapshot.cookies.forEach(cookie -> driver.manage().addCookie(cookie));
+            ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT, snapshot.localStorage,
+                    snapshot.sessionStorage);
+        }
+        driver.get(snapshot.url);
+    }
+
+    /**
+     * Compare the restored page with the snapshot
+     *
+     * @return Description of the first difference, or null if the page matches
+     */
+    private static String verify(WebDriver driver, Snapshot snapshot) {
+        if (!snapshot.url.equals(driver.getCurrentUrl())) {
+            return "landed on " + driver.getCurrentUrl() + " instead of " + snapshot.url;
+        }
+        if (!snapshot.title.equals(driver.getTitle())) {
+            return "page title '" + driver.getTitle() + "' instead of '" + snapshot.title + "'";
+        }
+        Set<String> cookieNames = driver.manage().getCookies().stream().map(Cookie::getName)
+                .collect(Collectors.toSet());
+        for (Cookie cookie : snapshot.cookies) {
+            if (!cookieNames.contains(cookie.getName())) {
+                return "cookie '" + cookie.getName() + "' was not restored";
+            }
+        }
+        if (!(driver instanceof JavascriptExecutor)) {
+            return snapshot.localStorage.isEmpty() && snapshot.sessionStorage.isEmpty() ? null
+                    : "storage cannot be checked without JavaScript";
+        }
+        Map<?, ?> storage = (Map<?, ?>) ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT);
+        if (!toStrings(storage.get("local")).keySet().containsAll(snapshot.localStorage.keySet())
+                || !toStrings(storage.get("session")).keySet().containsAll(snapshot.sessionStorage.keySet())) {
+            return "storage entries were not restored";
+        }
+        return null;
+    }
+
+    /**
+     * Remove restored cookies and storage so the full setup starts from a clean session
+     */
+    private static void undo(WebDriver driver) {
+        try {
+            driver.manage().deleteAllCookies();
+            if (driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+            }
+        } catch (WebDriverException e) {
+            logger.debug("Could not clear restored state: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Prefixes are equal when their step texts and step arguments are equal
+     */
+    private static String keyOf(List<TestStep> steps) {
+        StringBuilder key = new StringBuilder();
+        for (TestStep testStep : steps) {
+            PickleStepTestStep step = (PickleStepTestStep) testStep;
+            key.append(step.getStep().getText()).append('\n');
+            StepArgument argument = step.getStep().getArgument();
+            if (argument instanceof DocStringArgument) {
+                key.append(((DocStringArgument) argument).getContent()).append('\n');
+            } else if (argument instanceof DataTableArgument) {
+                key.append(((DataTableArgument) argument).cells()).append('\n');
+            }
+        }
+        return key.toString();
+    }
+
+    private static Map<String, String> toStrings(Object entries) {
+        if (!(entries instanceof Map)) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> strings = new HashMap<>();
+        ((Map<?, ?>) entries).forEach((key, value) -> strings.put(String.valueOf(key), String.valueOf(value)));
+        return strings;
+    }
+}
@@ -0,0 +1,192 @@
+package com.uiplayground.automation.core.state;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.driver.DriverManager;
+import com.uiplayground.automation.core.reporting.ReportManager;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Prepares scenario preconditions out of band instead of clicking through the UI
+ * A state has a seeded setup (deep link, cookies, localStorage or HTTP calls) and the UI setup it replaces.
+ * state.seeding.enabled picks which one runs; both are timed so the savings can be reported side by side.
+ * With state.seeding.baseline the UI setup also runs once per state and JVM to give seeded runs a comparison.
+ */
+public final class StateSeeder {
+
+    private static final Logger logger = LogManager.getLogger(StateSeeder.class);
+    private static final String REPORT_FILE = "setup-timings.txt";
+
+    /**
+     * How a state was reached
+     */
+    public enum Mode {
+        SEEDED, UI
+    }
+
+    /**
+     * Setup timings of one state
+     */
+    private static final class Timings {
+
+        private final LongAdder[] counts = {new LongAdder(), new LongAdder()};
+        private final LongAdder[] nanos = {new LongAdder(), new LongAdder()};
+        private final AtomicBoolean baselineTaken = new AtomicBoolean();
+
+        private void record(Mode mode, long elapsedNanos) {
+            counts[mode.ordinal()].increment();
+            nanos[mode.ordinal()].add(elapsedNanos);
+        }
+
+        private long count(Mode mode) {
+            return counts[mode.ordinal()].sum();
+        }
+
+        private double averageMillis(Mode mode) {
+            long count = count(mode);
+            return count == 0 ? 0 : nanos[mode.ordinal()].sum() / 1_000_000.0 / count;
+        }
+    }
+
+    private static final Map<String, Timings> timings = new ConcurrentHashMap<>();
+
+    private StateSeeder() {
+        // Utility class
+    }
+
+    /**
+     * Check whether states should be seeded instead of reached through the UI
+     *
+     * @return true if state.seeding.enabled is set
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getInstance().getBoolean("state.seeding.enabled", true);
+    }
+
+    /**
+     * Reach a state with the seeded setup when enabled, otherwise through the UI, and record the time taken
+     *
+     * @param state  State name, e.g. the target page
+     * @param seeded Seeded setup returning the page object in the target state
+     * @param ui     UI setup returning the same page object
+     * @param <T>    Page object type
+     * @return Page object in the target state
+     */
+    public static <T> T setUp(String state, Supplier<T> seeded, Supplier<T> ui) {
+        Mode mode = isEnabled() ? Mode.SEEDED : Mode.UI;
+        Timings stateTimings = timings.computeIfAbsent(state, key -> new Timings());
+        if (mode == Mode.SEEDED && ConfigManager.getInstance().getBoolean("state.seeding.baseline", false)
+                && stateTimings.baselineTaken.compareAndSet(false, true)) {
+            long start = System.nanoTime();
+            ui.get();
+            stateTimings.record(Mode.UI, System.nanoTime() - start);
+        }
+
+        long start = System.nanoTime();
+        T page = mode == Mode.SEEDED ? seeded.get() : ui.get();
+        long elapsed = System.nanoTime() - start;
+        stateTimings.record(mode, elapsed);
+        String message = String.format(Locale.ROOT, "Setup '%s' (%s): %d ms", state,
+                mode.name().toLowerCase(Locale.ROOT), TimeUnit.NANOSECONDS.toMillis(elapsed));
+        Mode other = mode == Mode.SEEDED ? Mode.UI : Mode.SEEDED;
+        if (stateTimings.count(other) > 0) {
+            message += String.format(Locale.ROOT, ", %s setup averages %.0f ms",
+                    other.name().toLowerCase(Locale.ROOT), stateTimings.averageMillis(other));
+        }
+        logger.info(message);
+        ReportManager.logInfo(message);
+        return page;
+    }
+
+    /**
+     * Add cookies to the browser for the application origin
+     * Cookies can only be set for the page currently loaded, so the origin is loaded first if needed.
+     *
+     * @param cookies Cookie names and values
+     */
+    public static void injectCookies(Map<String, String> cookies) {
+        WebDriver driver = loadOrigin();
+        cookies.forEach((name, value) -> driver.manage().addCookie(new Cookie(name, value, "/")));
+        logger.info("Injected cookies: {}", cookies.keySet());
+    }
+
+    /**
+     * Copy the cookies an API response set, e.g. a login session, into the browser
+     *
+     * @param response Response carrying Set-Cookie headers
+     */
+    public static void injectSession(Response response) {
+        injectCookies(response.getCookies());
+    }
+
+    /**
+     * Write entries to the application's localStorage
+     *
+     * @param entries Keys and values
+     */
+    public static void injectLocalStorage(Map<String, String> entries) {
+        JavascriptExecutor js = (JavascriptExecutor) loadOrigin();
+        entries.forEach((key, value) -> js.executeScript("window.localStorage.setItem(arguments[0], arguments[1]);",
+                key, value));
+        logger.info("Injected localStorage entries: {}", entries.keySet());
+    }
+
+    /**
+     * Write seeded and UI setup timings per state to setup-timings.txt in the Cucumber reports directory
+     */
+    public static void writeReport() {
+        if (timings.isEmpty()) {
+            return;
+        }
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-30s %8s %12s %8s %12s %12s%n",
+                "State", "Seeded", "Seeded ms", "UI", "UI ms", "Saved ms"));
+        new TreeMap<>(timings).forEach((state, stateTimings) -> {
+            boolean comparable = stateTimings.count(Mode.SEEDED) > 0 && stateTimings.count(Mode.UI) > 0;
+            report.append(String.format(Locale.ROOT, "%-30s %8d %12.0f %8d %12.0f %12s%n", state,
+                    stateTimings.count(Mode.SEEDED), stateTimings.averageMillis(Mode.SEEDED),
+                    stateTimings.count(Mode.UI), stateTimings.averageMillis(Mode.UI),
+                    comparable ? String.format(Locale.ROOT, "%.0f",
+                            stateTimings.averageMillis(Mode.UI) - stateTimings.averageMillis(Mode.SEEDED)) : "-"));
+        });
+        logger.info("Setup timings:{}{}", System.lineSeparator(), report);
+
+        Path reportFile = Paths.get(ConfigManager.getInstance().getCucumberReportsPath(), REPORT_FILE);
+        try {
+            Files.createDirectories(reportFile.getParent());
+            Files.write(reportFile, report.toString().getBytes());
+        } catch (IOException e) {
+            logger.error("Failed to write setup timings", e);
+        }
+    }
+
+    /**
+     * Make sure a page of the application origin is loaded, using a lightweight path if not
+     */
+    private static WebDriver loadOrigin() {
+        WebDriver driver = DriverManager.getDriver();
+        String baseUrl = ConfigManager.getInstance().getBaseUrl();
+        String currentUrl = driver.getCurrentUrl();
+        if (currentUrl == null || !currentUrl.startsWith(baseUrl)) {
+            driver.get(baseUrl + ConfigManager.getInstance().getProperty("state.seeding.origin.path", "/favicon.ico"));
+        }
+        return driver;
+    }
+}
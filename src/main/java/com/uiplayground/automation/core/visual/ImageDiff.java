@@ -0,0 +1,345 @@
+package com.uiplayground.automation.core.visual;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Compares a screenshot with its baseline
+ * Identical pixels are detected first with one array comparison. Otherwise perceptual hashes of both images
+ * decide whether the change is gross enough to fail without looking further, provided some block also changed
+ * its mean brightness beyond the tolerance; smaller changes are counted pixel by pixel in tiles compared in
+ * parallel. Ignore regions are blanked in both images before any of
+ * these steps, so dynamic content such as clocks or ads never counts.
+ */
+public final class ImageDiff {
+
+    private static final int HASH_WIDTH = 9;
+    private static final int HASH_HEIGHT = 8;
+    private static final int DIFF_COLOR = 0xFFFF0000;
+    private static final int IGNORED_COLOR = 0xFF4060C0;
+
+    /**
+     * Outcome of one comparison
+     */
+    public static final class Result {
+
+        private final boolean matches;
+        private final boolean identical;
+        private final int hashDistance;
+        private final long diffPixels;
+        private final double diffPercent;
+        private final List<Rectangle> changedTiles;
+
+        private Result(boolean matches, boolean identical, int hashDistance, long diffPixels, double diffPercent,
+                       List<Rectangle> changedTiles) {
+            this.matches = matches;
+            this.identical = identical;
+            this.hashDistance = hashDistance;
+            this.diffPixels = diffPixels;
+            this.diffPercent = diffPercent;
+            this.changedTiles = changedTiles;
+        }
+
+        /**
+         * @return true if the screenshot is within tolerance of the baseline
+         */
+        public boolean matches() {
+            return matches;
+        }
+
+        /**
+         * @return true if no pixel outside the ignore regions changed
+         */
+        public boolean isIdentical() {
+            return identical;
+        }
+
+        /**
+         * @return Bits that differ between the perceptual hashes, 0 to 128
+         */
+        public int getHashDistance() {
+            return hashDistance;
+        }
+
+        /**
+         * @return Pixels beyond the tolerance, or -1 if the hash already decided
+         */
+        public long getDiffPixels() {
+            return diffPixels;
+        }
+
+        /**
+         * @return Share of pixels beyond the tolerance, or -1 if the hash already decided
+         */
+        public double getDiffPercent() {
+            return diffPercent;
+        }
+
+        /**
+         * @return Tiles with pixels beyond the tolerance
+         */
+        public List<Rectangle> getChangedTiles() {
+            return changedTiles;
+        }
+
+        static Result identical() {
+            return new Result(true, true, 0, 0, 0, Collections.emptyList());
+        }
+    }
+
+    private ImageDiff() {
+        // Utility class
+    }
+
+    /**
+     * Compare a screenshot with its baseline
+     *
+     * @param baseline       Baseline image
+     * @param actual         Screenshot
+     * @param ignoreRegions  Regions excluded from the comparison
+     * @param tolerance      Largest per channel difference (0 to 255) that still counts as equal
+     * @param maxDiffPercent Largest share of differing pixels that still matches
+     * @param maxHashDistance Hash distance above which the images are different without a pixel comparison
+     * @param tileSize       Edge length of the tiles compared in parallel
+     * @return Result
+     */
+    public static Result compare(BufferedImage baseline, BufferedImage actual, List<Rectangle> ignoreRegions,
+                                 int tolerance, double maxDiffPercent, int maxHashDistance, int tileSize) {
+        int width = actual.getWidth();
+        int height = actual.getHeight();
+        if (baseline.getWidth() != width || baseline.getHeight() != height) {
+            return new Result(false, false, 128, -1, -1,
+                    Collections.singletonList(new Rectangle(0, 0, width, height)));
+        }
+        int[] expected = pixels(baseline, ignoreRegions);
+        int[] pixels = pixels(actual, ignoreRegions);
+        if (Arrays.equals(expected, pixels)) {
+            return Result.identical();
+        }
+
+        double[] expectedMeans = blockMeans(expected, width, height);
+        double[] means = blockMeans(pixels, width, height);
+        int hashDistance = perceptualDistance(expectedMeans, means);
+        // On flat pages noise within the tolerance can flip many hash bits; it cannot move a block mean past it
+        if (hashDistance > maxHashDistance && maxMeanDelta(expectedMeans, means) > tolerance) {
+            return new Result(false, false, hashDistance, -1, -1, Collections.emptyList());
+        }
+
+        int size = Math.max(8, tileSize);
+        int tilesX = (width + size - 1) / size;
+        int tilesY = (height + size - 1) / size;
+        long[] tileDiffs = new long[tilesX * tilesY];
+        IntStream.range(0, tileDiffs.length).parallel().forEach(tile -> {
+            int x0 = (tile % tilesX) * size;
+            int y0 = (tile / tilesX) * size;
+            tileDiffs[tile] = countDiffs(expected, pixels, width, x0, y0,
+                    Math.min(x0 + size, width), Math.min(y0 + size, height), tolerance);
+        });
+
+        long diffPixels = 0;
+        List<Rectangle> changedTiles = new ArrayList<>();
+        for (int tile = 0; tile < tileDiffs.length; tile++) {
+            if (tileDiffs[tile] > 0) {
+                diffPixels += tileDiffs[tile];
+                int x0 = (tile % tilesX) * size;
+                int y0 = (tile / tilesX) * size;
+                changedTiles.add(new Rectangle(x0, y0, Math.min(size, width - x0), Math.min(size, height - y0)));
+            }
+        }
+        double diffPercent = 100.0 * diffPixels / ((long) width * height);
+        return new Result(diffPercent <= maxDiffPercent, diffPixels == 0, hashDistance, diffPixels, diffPercent,
+                changedTiles);
+    }
+
+    /**
+     * Render the screenshot faded, with pixels beyond the tolerance in red and ignore regions in blue
+     *
+     * @param baseline      Baseline image
+     * @param actual        Screenshot
+     * @param ignoreRegions Regions excluded from the comparison
+     * @param tolerance     Largest per channel difference that still counts as equal
+     * @return Diff image the size of the screenshot
+     */
+    public static BufferedImage render(BufferedImage baseline, BufferedImage actual, List<Rectangle> ignoreRegions,
+                                       int tolerance) {
+        int width = actual.getWidth();
+        int height = actual.getHeight();
+        int[] pixels = pixels(actual, Collections.emptyList());
+        int[] expected = baseline.getWidth() == width && baseline.getHeight() == height
+                ? pixels(baseline, Collections.emptyList()) : null;
+        int[] diff = new int[pixels.length];
+        IntStream.range(0, height).parallel().forEach(y -> {
+            for (int x = 0; x < width; x++) {
+                int i = y * width + x;
+                if (expected == null || exceeds(expected[i], pixels[i], tolerance)) {
+                    diff[i] = DIFF_COLOR;
+                } else {
+                    diff[i] = fade(pixels[i]);
+                }
+            }
+        });
+        for (Rectangle region : ignoreRegions) {
+            Rectangle clipped = region.intersection(new Rectangle(0, 0, width, height));
+            for (int y = clipped.y; y < clipped.y + clipped.height; y++) {
+                Arrays.fill(diff, y * width + clipped.x, y * width + clipped.x + clipped.width, IGNORED_COLOR);
+            }
+        }
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, width, height, diff, 0, width);
+        return image;
+    }
+
+    /**
+     * Opaque ARGB pixels of an image in a new array, with ignore regions blanked
+     * The common PNG layouts are converted in parallel straight from the raster; getRGB is far slower.
+     */
+    private static int[] pixels(BufferedImage image, List<Rectangle> ignoreRegions) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = new int[width * height];
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        int type = image.getType();
+        if ((type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB)
+                && buffer instanceof DataBufferInt && buffer.getSize() == pixels.length) {
+            int[] data = ((DataBufferInt) buffer).getData();
+            IntStream.range(0, height).parallel().forEach(y -> {
+                for (int i = y * width; i < (y + 1) * width; i++) {
+                    pixels[i] = data[i] | 0xFF000000;
+                }
+            });
+        } else if ((type == BufferedImage.TYPE_3BYTE_BGR || type == BufferedImage.TYPE_4BYTE_ABGR)
+                && buffer instanceof DataBufferByte
+                && buffer.getSize() == pixels.length * (type == BufferedImage.TYPE_3BYTE_BGR ? 3 : 4)) {
+            byte[] data = ((DataBufferByte) buffer).getData();
+            int stride = type == BufferedImage.TYPE_3BYTE_BGR ? 3 : 4;
+            int offset = stride - 3;
+            IntStream.range(0, height).parallel().forEach(y -> {
+                for (int i = y * width, b = i * stride + offset; i < (y + 1) * width; i++, b += stride) {
+                    pixels[i] = 0xFF000000 | (data[b + 2] & 0xFF) << 16 | (data[b + 1] & 0xFF) << 8 | data[b] & 0xFF;
+                }
+            });
+        } else {
+            image.getRGB(0, 0, width, height, pixels, 0, width);
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] |= 0xFF000000;
+            }
+        }
+        return blank(pixels, width, height, ignoreRegions);
+    }
+
+    private static int[] blank(int[] pixels, int width, int height, List<Rectangle> ignoreRegions) {
+        for (Rectangle region : ignoreRegions) {
+            Rectangle clipped = region.intersection(new Rectangle(0, 0, width, height));
+            for (int y = clipped.y; y < clipped.y + clipped.height; y++) {
+                Arrays.fill(pixels, y * width + clipped.x, y * width + clipped.x + clipped.width, 0);
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Perceptual distance of two images from their block luminance means, 0 to 128
+     * Sums the differing bits of a difference hash (one bit per horizontally adjacent pair of 9x8 block
+     * luminance means) and an average hash (one bit per block of the first 8 columns, set if brighter than the
+     * image). The difference hash follows edges and layout, the average hash large areas changing brightness.
+     */
+    static int perceptualDistance(double[] expectedMeans, double[] means) {
+        return Long.bitCount(differenceHash(expectedMeans) ^ differenceHash(means))
+                + Long.bitCount(averageHash(expectedMeans) ^ averageHash(means));
+    }
+
+    private static double maxMeanDelta(double[] expectedMeans, double[] means) {
+        double delta = 0;
+        for (int block = 0; block < means.length; block++) {
+            delta = Math.max(delta, Math.abs(expectedMeans[block] - means[block]));
+        }
+        return delta;
+    }
+
+    private static double[] blockMeans(int[] pixels, int width, int height) {
+        double[] means = new double[HASH_WIDTH * HASH_HEIGHT];
+        IntStream.range(0, means.length).parallel().forEach(block -> {
+            int x0 = (block % HASH_WIDTH) * width / HASH_WIDTH;
+            int x1 = Math.max(x0 + 1, (block % HASH_WIDTH + 1) * width / HASH_WIDTH);
+            int y0 = (block / HASH_WIDTH) * height / HASH_HEIGHT;
+            int y1 = Math.max(y0 + 1, (block / HASH_WIDTH + 1) * height / HASH_HEIGHT);
+            long sum = 0;
+            long count = 0;
+            // Every second row and column is plenty for a mean over thousands of pixels
+            for (int y = y0; y < Math.min(y1, height); y += 2) {
+                for (int x = x0; x < Math.min(x1, width); x += 2) {
+                    sum += luminance(pixels[y * width + x]);
+                    count++;
+                }
+            }
+            means[block] = count == 0 ? 0 : (double) sum / count;
+        });
+        return means;
+    }
+
+    private static long differenceHash(double[] means) {
+        long hash = 0;
+        for (int y = 0; y < HASH_HEIGHT; y++) {
+            for (int x = 0; x < HASH_WIDTH - 1; x++) {
+                hash <<= 1;
+                if (means[y * HASH_WIDTH + x] < means[y * HASH_WIDTH + x + 1]) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static long averageHash(double[] means) {
+        double mean = Arrays.stream(means).average().orElse(0);
+        long hash = 0;
+        for (int y = 0; y < HASH_HEIGHT; y++) {
+            for (int x = 0; x < HASH_WIDTH - 1; x++) {
+                hash <<= 1;
+                if (means[y * HASH_WIDTH + x] > mean) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static long countDiffs(int[] expected, int[] pixels, int width, int x0, int y0, int x1, int y1,
+                                   int tolerance) {
+        long diffs = 0;
+        for (int y = y0; y < y1; y++) {
+            int row = y * width;
+            for (int i = row + x0; i < row + x1; i++) {
+                if (expected[i] != pixels[i] && exceeds(expected[i], pixels[i], tolerance)) {
+                    diffs++;
+                }
+            }
+        }
+        return diffs;
+    }
+
+    private static boolean exceeds(int expected, int actual, int tolerance) {
+        return Math.abs(((expected >> 16) & 0xFF) - ((actual >> 16) & 0xFF)) > tolerance
+                || Math.abs(((expected >> 8) & 0xFF) - ((actual >> 8) & 0xFF)) > tolerance
+                || Math.abs((expected & 0xFF) - (actual & 0xFF)) > tolerance;
+    }
+
+    private static int luminance(int rgb) {
+        return (((rgb >> 16) & 0xFF) * 299 + ((rgb >> 8) & 0xFF) * 587 + (rgb & 0xFF) * 114) / 1000;
+    }
+
+    private static int fade(int rgb) {
+        int r = (((rgb >> 16) & 0xFF) + 255 * 2) / 3;
+        int g = (((rgb >> 8) & 0xFF) + 255 * 2) / 3;
+        int b = ((rgb & 0xFF) + 255 * 2) / 3;
+        return 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+}
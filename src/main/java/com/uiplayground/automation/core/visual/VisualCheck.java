@@ -0,0 +1,204 @@
+package com.uiplayground.automation.core.visual;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.reporting.ReportManager;
+import com.uiplayground.automation.core.reporting.ScreenshotManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Visual regression checks of the current page against baseline screenshots
+ * Baselines are PNG files in visual.baseline.dir, one per check name and browser. They are only written when
+ * visual.baseline.update is set; without it a missing baseline skips the check. A screenshot whose PNG
+ * bytes equal the baseline passes without decoding. Otherwise both images go through ImageDiff, and a changed
+ * screenshot gets a diff image written in the background to the screenshots directory.
+ */
+public final class VisualCheck {
+
+    private static final Logger logger = LogManager.getLogger(VisualCheck.class);
+    private static final String DEFAULT_BASELINE_DIR = "src/test/resources/visual-baselines";
+    private static final String DIFF_DIR = "visual-diffs";
+
+    private static final ExecutorService diffWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "visual-diff-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Queue<CompletableFuture<Void>> pendingDiffs = new ConcurrentLinkedQueue<>();
+    private static final LongAdder checks = new LongAdder();
+    private static final LongAdder unchanged = new LongAdder();
+    private static final LongAdder withinTolerance = new LongAdder();
+    private static final LongAdder changed = new LongAdder();
+    private static final LongAdder recorded = new LongAdder();
+    private static final LongAdder missing = new LongAdder();
+
+    private VisualCheck() {
+        // Utility class
+    }
+
+    /**
+     * Compare the current page with its baseline
+     *
+     * @param name          Check name, e.g. "homepage"
+     * @param ignoreRegions Page regions with dynamic content, in screenshot pixels
+     * @return Result, or null if the driver cannot take screenshots or there is no baseline
+     */
+    public static ImageDiff.Result verify(String name, Rectangle... ignoreRegions) {
+        byte[] png = ScreenshotManager.captureScreenshot();
+        if (png == null) {
+            ReportManager.logWarning("Visual check '" + name + "' skipped: the driver cannot take screenshots");
+            return null;
+        }
+        return verify(name, png, Arrays.asList(ignoreRegions));
+    }
+
+    /**
+     * Compare a screenshot with its baseline
+     *
+     * @param name          Check name
+     * @param png           Screenshot as PNG
+     * @param ignoreRegions Regions with dynamic content
+     * @return Result, or null if there is no baseline
+     */
+    public static ImageDiff.Result verify(String name, byte[] png, List<Rectangle> ignoreRegions) {
+        checks.increment();
+        long start = System.nanoTime();
+        ConfigManager config = ConfigManager.getInstance();
+        Path baselineFile = Paths.get(config.getProperty("visual.baseline.dir", DEFAULT_BASELINE_DIR),
+                fileName(name) + ".png");
+        try {
+            if (config.getBoolean("visual.baseline.update", false)) {
+                Files.createDirectories(baselineFile.getParent());
+                Files.write(baselineFile, png);
+                recorded.increment();
+                ReportManager.logInfo("Visual baseline recorded: " + baselineFile);
+                return ImageDiff.Result.identical();
+            }
+            if (!Files.exists(baselineFile)) {
+                missing.increment();
+                String message = "Visual check '" + name + "' skipped: no baseline at " + baselineFile
+                        + "; run with -Dvisual.baseline.update=true to record it";
+                logger.warn(message);
+                ReportManager.logWarning(message);
+                return null;
+            }
+
+            byte[] baselinePng = Files.readAllBytes(baselineFile);
+            if (Arrays.equals(baselinePng, png)) {
+                unchanged.increment();
+                logger.debug("Visual check '{}' unchanged in {} us", name,
+                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                return ImageDiff.Result.identical();
+            }
+
+            BufferedImage baseline = ImageIO.read(new ByteArrayInputStream(baselinePng));
+            BufferedImage actual = ImageIO.read(new ByteArrayInputStream(png));
+            if (baseline == null || actual == null) {
+                throw new IOException("Not a readable PNG image");
+            }
+            int tolerance = config.getInt("visual.pixel.tolerance", 16);
+            ImageDiff.Result result = ImageDiff.compare(baseline, actual, ignoreRegions, tolerance,
+                    config.getDouble("visual.max.diff.percent", 0.1), config.getInt("visual.hash.max.distance", 10),
+                    config.getInt("visual.tile.size", 128));
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            report(name, result, millis, result.isIdentical() ? null
+                    : writeDiffAsync(name, baseline, actual, ignoreRegions, tolerance));
+            return result;
+        } catch (IOException e) {
+            throw new IllegalStateException("Visual check '" + name + "' failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Wait until all diff images are written
+     */
+    public static void awaitDiffs() {
+        CompletableFuture<Void> pending;
+        while ((pending = pendingDiffs.poll()) != null) {
+            try {
+                pending.get(1, TimeUnit.MINUTES);
+            } catch (Exception e) {
+                logger.warn("Diff image was not written: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Describe the visual checks of this run
+     *
+     * @return Summary, or null if there were none
+     */
+    public static String getSummary() {
+        if (checks.sum() == 0) {
+            return null;
+        }
+        return String.format(Locale.ROOT, "%d checks: %d unchanged, %d within tolerance, %d changed, %d recorded, %d without baseline",
+                checks.sum(), unchanged.sum(), withinTolerance.sum(), changed.sum(), recorded.sum(), missing.sum());
+    }
+
+    private static void report(String name, ImageDiff.Result result, long millis, Path diffFile) {
+        String detail = result.getDiffPercent() < 0
+                ? String.format(Locale.ROOT, "hash distance %d", result.getHashDistance())
+                : String.format(Locale.ROOT, "%.3f%% of pixels in %d tiles differ", result.getDiffPercent(),
+                        result.getChangedTiles().size());
+        if (result.isIdentical()) {
+            unchanged.increment();
+            logger.debug("Visual check '{}' unchanged in {} ms", name, millis);
+        } else if (result.matches()) {
+            withinTolerance.increment();
+            logger.info("Visual check '{}' within tolerance ({}) in {} ms", name, detail, millis);
+            ReportManager.logInfo("Visual check '" + name + "' within tolerance: " + detail);
+        } else {
+            changed.increment();
+            String message = "Visual check '" + name + "' changed: " + detail;
+            logger.warn("{}; diff image: {}", message, diffFile);
+            ExtentTest test = ReportManager.getTest();
+            if (test != null) {
+                test.warning(message).addScreenCaptureFromPath(diffFile.toString());
+            }
+        }
+    }
+
+    /**
+     * Render and write the diff image in the background; the report can reference it right away
+     */
+    private static Path writeDiffAsync(String name, BufferedImage baseline, BufferedImage actual,
+                                       List<Rectangle> ignoreRegions, int tolerance) {
+        Path diffFile = Paths.get(ConfigManager.getInstance().getScreenshotsPath(), DIFF_DIR,
+                fileName(name) + "_diff.png");
+        pendingDiffs.add(CompletableFuture.runAsync(() -> {
+            try {
+                Files.createDirectories(diffFile.getParent());
+                ImageIO.write(ImageDiff.render(baseline, actual, ignoreRegions, tolerance), "png",
+                        diffFile.toFile());
+            } catch (IOException e) {
+                logger.error("Failed to write diff image " + diffFile, e);
+            }
+        }, diffWriter));
+        return diffFile;
+    }
+
+    private static String fileName(String name) {
+        return name.replaceAll("[^a-zA-Z0-9]", "_") + "_" + ConfigManager.getInstance().getBrowser();
+    }
+}
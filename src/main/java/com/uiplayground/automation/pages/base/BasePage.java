@@ -3,17 +3,24 @@ package com.uiplayground.automation.pages.base;
 import com.uiplayground.automation.core.annotations.ElementName;
 import com.uiplayground.automation.core.config.ConfigManager;
 import com.uiplayground.automation.core.driver.DriverManager;
+import com.uiplayground.automation.core.driver.StaticPageDriver;
+import com.uiplayground.automation.core.execution.ImpactAnalyzer;
+import com.uiplayground.automation.core.jfr.PageActionEvent;
+import com.uiplayground.automation.core.locators.PageLocatorFactory;
+import com.uiplayground.automation.core.locators.WaitBudgets;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import java.lang.reflect.Field;
 import java.time.Duration;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Base class for all Page Objects
@@ -24,7 +31,8 @@ public abstract class BasePage {
     protected WebDriver driver;
     protected WebDriverWait wait;
     protected final Logger logger = LogManager.getLogger(this.getClass());
-    private final Map<WebElement, String> elementNameCache = new HashMap<>();
+    // Keyed by the field proxy itself: hashing a proxy would look the element up before the page is loaded
+    private final Map<WebElement, String> elementNameCache = new IdentityHashMap<>();
 
     /**
      * Constructor initializes WebDriver, WebDriverWait, and PageFactory
@@ -33,8 +41,9 @@ public abstract class BasePage {
         this.driver = DriverManager.getDriver();
         this.wait = new WebDriverWait(driver,
                 Duration.ofSeconds(ConfigManager.getInstance().getExplicitWait()));
-        PageFactory.initElements(driver, this);
+        PageFactory.initElements(new PageLocatorFactory(driver), this);
         cacheElementNames(); // Cache element names once
+        ImpactAnalyzer.recordPage(this.getClass());
         logger.debug("Initialized page: " + this.getClass().getSimpleName());
     }
 
@@ -101,14 +110,20 @@ public abstract class BasePage {
      */
     protected void click(WebElement element) {
         String elementName = getElementName(element);
+        PageActionEvent event = new PageActionEvent();
+        event.begin();
+        boolean succeeded = false;
         try {
             waitForElementClickable(element);
             highlightElement(element);
             element.click();
+            succeeded = true;
             logger.info("Clicked on element: " + elementName);
         } catch (Exception e) {
             logger.error("Failed to click on element: " + elementName, e);
             throw e;
+        } finally {
+            commitEvent(event, "click", element, elementName, succeeded);
         }
     }
     /**
@@ -116,15 +131,21 @@ public abstract class BasePage {
      */
     protected void sendText(WebElement element, String text) {
         String elementName = getElementName(element);
+        PageActionEvent event = new PageActionEvent();
+        event.begin();
+        boolean succeeded = false;
         try {
             waitForElementVisible(element);
             highlightElement(element);
             element.clear();
             element.sendKeys(text);
+            succeeded = true;
             logger.info("Entered text in " + elementName + ": " + text);
         } catch (Exception e) {
             logger.error("Failed to enter text in element: " + elementName, e);
             throw e;
+        } finally {
+            commitEvent(event, "send text", element, elementName, succeeded);
         }
     }
 
@@ -133,15 +154,21 @@ public abstract class BasePage {
      */
     protected String getText(WebElement element) {
         String elementName = getElementName(element);
+        PageActionEvent event = new PageActionEvent();
+        event.begin();
+        boolean succeeded = false;
         try {
             waitForElementVisible(element);
             highlightElement(element);
             String text = element.getText();
+            succeeded = true;
             logger.info("Got text from " + elementName + ": " + text);
             return text;
         } catch (Exception e) {
             logger.error("Failed to get text from element: " + elementName, e);
             throw e;
+        } finally {
+            commitEvent(event, "get text", element, elementName, succeeded);
         }
     }
 
@@ -149,21 +176,80 @@ public abstract class BasePage {
      * Wait for an element to be visible
      */
     protected void waitForElementVisible(WebElement element) {
-        wait.until(ExpectedConditions.visibilityOf(element));
+        PageActionEvent event = new PageActionEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            awaitElement(element, ExpectedConditions.visibilityOf(element));
+            succeeded = true;
+        } finally {
+            commitEvent(event, "wait visible", element, null, succeeded);
+        }
     }
 
     /**
      * Wait for an element to be clickable
      */
     protected void waitForElementClickable(WebElement element) {
-        wait.until(ExpectedConditions.elementToBeClickable(element));
+        PageActionEvent event = new PageActionEvent();
+        event.begin();
+        boolean succeeded = false;
+        try {
+            awaitElement(element, ExpectedConditions.elementToBeClickable(element));
+            succeeded = true;
+        } finally {
+            commitEvent(event, "wait clickable", element, null, succeeded);
+        }
+    }
+
+    /**
+     * Wait for a named element within its calibrated budget and record how long it took
+     */
+    private void awaitElement(WebElement element, ExpectedCondition<?> condition) {
+        String elementName = elementNameCache.get(element);
+        if (elementName == null) {
+            wait.until(condition);
+            return;
+        }
+        Duration budget = WaitBudgets.getBudget(getClass(), elementName);
+        boolean calibrated = budget.compareTo(Duration.ofSeconds(ConfigManager.getInstance().getExplicitWait())) < 0;
+        long start = System.nanoTime();
+        try {
+            (calibrated ? new WebDriverWait(driver, budget) : wait).until(condition);
+        } catch (TimeoutException e) {
+            if (calibrated) {
+                WaitBudgets.recordTimeout(getClass(), elementName, budget.toMillis());
+                logger.warn(elementName + " was not ready within its calibrated wait of " + budget.toMillis()
+                        + " ms; its next budget is at least doubled, set wait.adaptive.enabled=false to wait the full "
+                        + ConfigManager.getInstance().getExplicitWait() + " s");
+            }
+            throw e;
+        }
+        WaitBudgets.recordReady(getClass(), elementName,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Commit a flight recorder event; the element name is only resolved while recording
+     */
+    private void commitEvent(PageActionEvent event, String action, WebElement element, String elementName,
+                             boolean succeeded) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.action = action;
+            event.page = getClass().getSimpleName();
+            event.element = elementName != null ? elementName : getElementName(element);
+            event.succeeded = succeeded;
+            event.commit();
+        }
     }
 
     /**
      * Highlight an element by changing its border style
+     * Skipped on a static page, where running the script would start a browser.
      */
     protected void highlightElement(WebElement element) {
-        if (driver instanceof JavascriptExecutor) {
+        if (driver instanceof JavascriptExecutor && !StaticPageDriver.isBrowserless(driver)) {
             JavascriptExecutor js = (JavascriptExecutor) driver;
             js.executeScript("arguments[0].style.border='2px solid red'", element);
         }
@@ -1,5 +1,7 @@
 package com.uiplayground.automation.pages.playground;
 
+import com.uiplayground.automation.constants.pages.HomePageConstants;
+import com.uiplayground.automation.constants.selectors.HomePageSelectors;
 import com.uiplayground.automation.core.annotations.ElementName;
 import com.uiplayground.automation.pages.base.BasePage;
 import org.openqa.selenium.WebElement;
@@ -15,6 +17,22 @@ public class DynamicIdPage extends BasePage {
     @FindBy(xpath = "//h3[normalize-space()='Dynamic ID']")
     private WebElement pageHeader;
 
+    /**
+     * Open the page directly by the URL of its homepage link instead of clicking through the homepage
+     * Falls back to the homepage link if the navigation index cannot resolve it
+     * @return this page object for method chaining
+     */
+    public DynamicIdPage open() {
+        String url = HomePage.getTestLinkUrl(HomePageConstants.DYNAMIC_ID_LINK_TITLE,
+                HomePageSelectors.DYNAMIC_ID_LINK);
+        if (url != null) {
+            navigateTo(url);
+        } else {
+            new HomePage().open().clickTestLink(HomePageConstants.DYNAMIC_ID_LINK_TITLE);
+        }
+        return this;
+    }
+
     /**
      * Verify that we are on the Dynamic ID Page
      * @return true if on the correct page
@@ -5,10 +5,12 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 
 import com.uiplayground.automation.core.annotations.ElementName;
+import com.uiplayground.automation.core.annotations.FindFirst;
 import com.uiplayground.automation.core.config.ConfigManager;
 import com.uiplayground.automation.constants.pages.HomePageConstants;
 import com.uiplayground.automation.constants.selectors.HomePageSelectors;
 import com.uiplayground.automation.constants.messages.ErrorMessages;
+import com.uiplayground.automation.core.navigation.NavigationIndex;
 import com.uiplayground.automation.pages.base.BasePage;
 import java.util.List;
 import org.openqa.selenium.NoSuchElementException;
@@ -16,7 +18,7 @@ import org.openqa.selenium.NoSuchElementException;
 public class HomePage extends BasePage {
 
     @ElementName("Page Title")
-    @FindBy(css = HomePageSelectors.PAGE_TITLE)
+    @FindFirst({@FindBy(css = HomePageSelectors.PAGE_TITLE), @FindBy(css = HomePageSelectors.PAGE_TITLE_FALLBACK)})
     private WebElement pageTitle;
 
     @ElementName("Test Scenario Links")
@@ -32,6 +34,17 @@ public class HomePage extends BasePage {
         return this;
     }
 
+    /**
+     * Look up the URL a test link leads to in the navigation index, without loading the homepage in the browser
+     * @param linkText Link text, e.g. HomePageConstants.DYNAMIC_ID_LINK_TITLE
+     * @param linkSelector Selector of the link, e.g. HomePageSelectors.DYNAMIC_ID_LINK
+     * @return URL of the test page, or null if the link cannot be resolved
+     */
+    public static String getTestLinkUrl(String linkText, String linkSelector) {
+        return NavigationIndex.resolve(ConfigManager.getInstance().getBaseUrl(), HomePageSelectors.TEST_LINKS,
+                linkText, linkSelector);
+    }
+
     public String getPageTitleText() {
         return getText(pageTitle).replaceAll("\\s+", " ").trim();
     }
@@ -0,0 +1,61 @@
+package com.uiplayground.automation.hooks;
+
+import com.uiplayground.automation.core.api.ApiClient;
+import com.uiplayground.automation.core.execution.SuitePlanner;
+import com.uiplayground.automation.core.reporting.ReportManager;
+import io.cucumber.java.After;
+import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
+import io.cucumber.java.Status;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+
+/**
+ * Cucumber hooks for @api scenarios
+ * Reports API scenarios without starting a browser or taking screenshots
+ */
+public class ApiHooks {
+
+    private static final Logger logger = LogManager.getLogger(ApiHooks.class);
+
+    @Before(value = "@api", order = 1)
+    public void beforeApiScenario(Scenario scenario) {
+        logger.info("Starting API scenario: {}", scenario.getName());
+        if (ReportManager.getTest() == null) {
+            ReportManager.createTest(scenario.getName());
+        }
+        List<String> runners = SuitePlanner.getSelectingRunners(scenario.getUri(), scenario.getLine());
+        if (runners.size() > 1) {
+            ReportManager.getTest().assignCategory(runners.toArray(new String[0]));
+        }
+        ReportManager.logInfo("API base URI: " + ApiClient.getBaseUri());
+    }
+
+    @After("@api")
+    public void afterApiScenario(Scenario scenario) {
+        SuitePlanner.recordResult(scenario.getUri(), scenario.getLine(), scenario.getStatus().name());
+        try {
+            if (scenario.isFailed()) {
+                logger.error("API scenario failed: {}", scenario.getName());
+                Response response = ApiClient.getLastResponse();
+                if (response != null) {
+                    // The last response replaces the screenshot of UI scenarios
+                    ReportManager.logInfo("Last response: " + response.getStatusLine() + "\n" + response.asString());
+                }
+                ReportManager.getTest().fail("Scenario failed: " + scenario.getName());
+            } else if (scenario.getStatus() == Status.SKIPPED) {
+                logger.info("API scenario skipped: {}", scenario.getName());
+                ReportManager.getTest().skip("Scenario skipped: " + scenario.getName());
+            } else {
+                logger.info("API scenario passed: {}", scenario.getName());
+                ReportManager.getTest().pass("Scenario passed: " + scenario.getName());
+            }
+        } finally {
+            ApiClient.clearLastResponse();
+            ReportManager.removeTest();
+        }
+    }
+}
@@ -1,40 +1,124 @@
 package com.uiplayground.automation.hooks;
 
+import com.uiplayground.automation.core.driver.BrowserAdmissionController;
+import com.uiplayground.automation.core.driver.BrowserContextPool;
+import com.uiplayground.automation.core.driver.BrowserFootprint;
+import com.uiplayground.automation.core.driver.StaticPageDriver;
+import com.uiplayground.automation.core.execution.ImpactAnalyzer;
+import com.uiplayground.automation.core.execution.RerunPolicy;
+import com.uiplayground.automation.core.execution.SuitePlanner;
+import com.uiplayground.automation.core.locators.ByFirstMatch;
+import com.uiplayground.automation.core.locators.LocatorAudit;
+import com.uiplayground.automation.core.locators.WaitBudgets;
+import com.uiplayground.automation.core.metrics.CommandMetrics;
+import com.uiplayground.automation.core.navigation.NavigationIndex;
+import com.uiplayground.automation.core.metrics.StepTimings;
 import com.uiplayground.automation.core.reporting.ReportManager;
 import com.uiplayground.automation.core.reporting.ScreenshotManager;
+import com.uiplayground.automation.core.server.AssetCacheProxy;
+import com.uiplayground.automation.core.state.SharedSetup;
+import com.uiplayground.automation.core.state.StateSeeder;
+import com.uiplayground.automation.core.visual.VisualCheck;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.BeforeAll;
 import io.cucumber.java.AfterAll;
 import io.cucumber.java.Scenario;
+import io.cucumber.java.Status;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
+
 public class ReportingHooks {
     
     private static final Logger logger = LogManager.getLogger(ReportingHooks.class);
     
     @BeforeAll
     public static void beforeAllScenarios() {
-        logger.info("Initializing test suite reports");
-        ReportManager.initReports();
+        // ExtentReports is created lazily when the first scenario creates its test
+        logger.info("Starting test suite");
     }
     
     @AfterAll
     public static void afterAllScenarios() {
         logger.info("Finalizing test suite reports");
+        SuitePlanner.writeSummary();
+        StateSeeder.writeReport();
+        CommandMetrics.writeReport();
+        StepTimings.writeReport();
+        LocatorAudit.writeReport();
+        ImpactAnalyzer.saveDependencies();
+        RerunPolicy.saveFlakeStats();
+        WaitBudgets.saveHistory();
+        VisualCheck.awaitDiffs();
+        BrowserFootprint.save();
+        BrowserContextPool.quitIdleHosts();
+        if (CommandMetrics.getSlowestSummary(3) != null) {
+            ReportManager.setSystemInfo("Slowest WebDriver Commands", CommandMetrics.getSlowestSummary(3));
+        }
+        ReportManager.setSystemInfo("Browser Admission Wait (total ms)",
+                String.valueOf(BrowserAdmissionController.getTotalWaitMillis()));
+        ReportManager.setSystemInfo("Browser Admission Wait (max ms)",
+                String.valueOf(BrowserAdmissionController.getMaxWaitMillis()));
+        if (BrowserFootprint.getSummary() != null) {
+            ReportManager.setSystemInfo("Browser Footprint", BrowserFootprint.getSummary());
+        }
+        if (RerunPolicy.getSummary() != null) {
+            ReportManager.setSystemInfo("Scenario Retries", RerunPolicy.getSummary());
+        }
+        if (SharedSetup.getSummary() != null) {
+            ReportManager.setSystemInfo("Shared Setup", SharedSetup.getSummary());
+        }
+        if (ByFirstMatch.getFallbackSummary() != null) {
+            ReportManager.setSystemInfo("Locator Fallbacks", ByFirstMatch.getFallbackSummary());
+        }
+        if (VisualCheck.getSummary() != null) {
+            ReportManager.setSystemInfo("Visual Checks", VisualCheck.getSummary());
+        }
+        if (WaitBudgets.getSummary() != null) {
+            ReportManager.setSystemInfo("Calibrated Waits", WaitBudgets.getSummary());
+        }
+        if (NavigationIndex.getSummary() != null) {
+            ReportManager.setSystemInfo("Navigation Index", NavigationIndex.getSummary());
+        }
+        if (StaticPageDriver.getSummary() != null) {
+            ReportManager.setSystemInfo("Static Page Driver", StaticPageDriver.getSummary());
+        }
+        if (AssetCacheProxy.getCache() != null) {
+            ReportManager.setSystemInfo("Static Asset Cache", AssetCacheProxy.getCache().getSummary());
+        }
         ReportManager.flushReports();
     }
     
-    @Before
+    @Before("not @api")
     public void beforeScenario(Scenario scenario) {
         logger.info("Starting Cucumber scenario: {}", scenario.getName());
-        ReportManager.createTest(scenario.getName());
+        if (ReportManager.getTest() == null) {
+            // TestListener normally creates the test with feature and tag context
+            ReportManager.createTest(scenario.getName());
+        }
+
+        List<String> runners = SuitePlanner.getSelectingRunners(scenario.getUri(), scenario.getLine());
+        if (runners.size() > 1) {
+            ReportManager.getTest().assignCategory(runners.toArray(new String[0]));
+            ReportManager.logInfo("Selected by runners: " + String.join(", ", runners));
+        }
+
+        long admissionWait = BrowserAdmissionController.getLastWaitMillis();
+        if (admissionWait > 0) {
+            ReportManager.logInfo("Waited " + admissionWait + " ms for browser admission");
+        }
     }
     
-    @After
+    @After("not @api")
     public void afterScenario(Scenario scenario) {
+        SuitePlanner.recordResult(scenario.getUri(), scenario.getLine(), scenario.getStatus().name());
         try {
+            String[][] commandTimes = CommandMetrics.getScenarioBreakdown();
+            if (commandTimes != null) {
+                ReportManager.logTable(commandTimes);
+            }
             if (scenario.isFailed()) {
                 logger.error("Cucumber scenario failed: {}", scenario.getName());
                 String screenshotPath = ScreenshotManager.takeScreenshot(scenario.getName());
@@ -45,6 +129,9 @@ public class ReportingHooks {
                 } else {
                     ReportManager.getTest().fail("Scenario failed: " + scenario.getName());
                 }
+            } else if (scenario.getStatus() == Status.SKIPPED) {
+                logger.info("Cucumber scenario skipped: {}", scenario.getName());
+                ReportManager.getTest().skip("Scenario skipped: " + scenario.getName());
             } else {
                 logger.info("Cucumber scenario passed: {}", scenario.getName());
                 ReportManager.getTest().pass("Scenario passed: " + scenario.getName());
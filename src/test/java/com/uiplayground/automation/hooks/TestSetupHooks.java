@@ -1,32 +1,57 @@
 package com.uiplayground.automation.hooks;
 
 import com.uiplayground.automation.core.driver.DriverManager;
+import com.uiplayground.automation.core.driver.StaticPageDriver;
+import com.uiplayground.automation.core.execution.AbortPolicy;
+import com.uiplayground.automation.core.state.SharedSetup;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
+import io.cucumber.java.Scenario;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.testng.SkipException;
 
 /**
  * Cucumber hooks for test setup and teardown
- * Handles WebDriver lifecycle for each scenario
+ * Handles WebDriver lifecycle for each scenario; @api scenarios never start a browser
+ * and @static scenarios only start one if they use something the static page driver cannot do
  */
 public class TestSetupHooks {
     
     private static final Logger logger = LogManager.getLogger(TestSetupHooks.class);
+    private static final String STATIC_TAG = "@static";
     
+    /**
+     * Runs before any other hook so skipped scenarios never acquire a browser
+     */
+    @Before(order = 0)
+    public void checkAbortPolicy(Scenario scenario) {
+        String skipReason = AbortPolicy.getSkipReason();
+        if (skipReason != null) {
+            logger.warn("Skipping scenario '{}': {}", scenario.getName(), skipReason);
+            throw new SkipException(skipReason);
+        }
+    }
+
     /**
      * Runs before each Cucumber scenario
      */
-    @Before(order = 1)
-    public void setUp() {
+    @Before(value = "not @api", order = 1)
+    public void setUp(Scenario scenario) {
+        if (scenario.getSourceTagNames().contains(STATIC_TAG) && StaticPageDriver.isEnabled()) {
+            logger.info("Setting up test scenario - initializing static page driver");
+            DriverManager.initializeStaticDriver();
+            return;
+        }
         logger.info("Setting up test scenario - initializing WebDriver");
         DriverManager.initializeDriver();
+        SharedSetup.restore();
     }
     
     /**
      * Runs after each Cucumber scenario
      */
-    @After(order = 1)
+    @After(value = "not @api", order = 1)
     public void tearDown() {
         logger.info("Tearing down test scenario - quitting WebDriver");
         DriverManager.quitDriver();
@@ -1,14 +1,197 @@
 package com.uiplayground.automation.runners;
 
+import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.execution.ImpactAnalyzer;
+import com.uiplayground.automation.core.execution.RerunPolicy;
+import com.uiplayground.automation.core.execution.ShardPlanner;
+import com.uiplayground.automation.core.execution.StartupProfiler;
+import com.uiplayground.automation.core.execution.SuitePlanner;
 import io.cucumber.testng.AbstractTestNGCucumberTests;
-import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.PickleWrapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestContext;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Base class for all test runners
  * Contains common configurations and settings
  */
 public abstract class BaseTestRunner extends AbstractTestNGCucumberTests {
-    // Common configurations or overrides can go here
+
+    private static final Logger logger = LogManager.getLogger(BaseTestRunner.class);
+
+    private final Queue<Object[]> failedScenarios = new ConcurrentLinkedQueue<>();
+    private ExecutorService quarantineLane;
+
+    /**
+     * Build the suite wide scenario plan before the first runner provides its scenarios
+     */
+    @Override
+    @BeforeClass(alwaysRun = true)
+    public void setUpClass(ITestContext context) {
+        long start = System.nanoTime();
+        super.setUpClass(context);
+        StartupProfiler.record("cucumber runner setup (features, plugins)", start);
+
+        start = System.nanoTime();
+        SuitePlanner.planSuite(context.getSuite().getXmlSuite());
+        StartupProfiler.record("suite plan", start);
+    }
+
+    /**
+     * Provide only the scenarios this runner owns in the suite plan, that are impacted by the change
+     * under test and that belong to this shard. Quarantined scenarios are handed to the quarantine lane.
+     */
+    @Override
+    @DataProvider
+    public Object[][] scenarios() {
+        Object[][] planned = ShardPlanner.filterScenarios(ImpactAnalyzer.filterScenarios(
+                SuitePlanner.filterScenarios(getClass(), super.scenarios())));
+        List<Object[]> mainLane = new ArrayList<>();
+        for (Object[] row : planned) {
+            if (RerunPolicy.isQuarantined((PickleWrapper) row[0])) {
+                startQuarantined((PickleWrapper) row[0], (FeatureWrapper) row[1]);
+            } else {
+                mainLane.add(row);
+            }
+        }
+        return mainLane.toArray(new Object[0][]);
+    }
+
+    /**
+     * Run a scenario; with rerun.max.attempts set, a failure is reported as skipped and the scenario
+     * is retried by retryScenario once every scenario of the runner has run
+     */
+    @Override
+    @Test(groups = "cucumber", description = "Runs Cucumber Scenarios", dataProvider = "scenarios")
+    public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        try {
+            super.runScenario(pickleWrapper, featureWrapper);
+        } catch (SkipException e) {
+            throw e;
+        } catch (RuntimeException | Error e) {
+            if (RerunPolicy.getMaxRetries() <= 0) {
+                RerunPolicy.recordOutcome(pickleWrapper, RerunPolicy.Outcome.FAILED);
+                throw e;
+            }
+            RerunPolicy.retryQueued();
+            failedScenarios.add(new Object[]{pickleWrapper, featureWrapper});
+            logger.warn("Scenario '{}' failed, retrying it at the end of the run: {}",
+                    pickleWrapper.getPickle().getName(), e.getMessage());
+            throw new SkipException("Failed, retried at the end of the run: " + e.getMessage(), e);
+        }
+        RerunPolicy.recordOutcome(pickleWrapper, RerunPolicy.Outcome.PASSED);
+    }
+
+    /**
+     * Retry a failed scenario in this JVM; it fails only if every attempt fails
+     */
+    @Test(groups = "cucumber", description = "Retries failed Cucumber Scenarios", dataProvider = "failedScenarios",
+            dependsOnMethods = "runScenario", alwaysRun = true)
+    public void retryScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        retry(pickleWrapper, featureWrapper, "Retry");
+    }
+
+    /**
+     * Provide the scenarios that failed in runScenario, evaluated after all of them have run
+     */
+    @DataProvider
+    public Object[][] failedScenarios() {
+        return failedScenarios.toArray(new Object[0][]);
+    }
+
+    /**
+     * Wait for the quarantine lane before Cucumber finishes the run
+     */
+    @Override
+    @AfterClass(alwaysRun = true)
+    public void tearDownClass() {
+        if (quarantineLane != null) {
+            quarantineLane.shutdown();
+            try {
+                quarantineLane.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        super.tearDownClass();
+    }
+
+    private void retry(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper, String lane) {
+        int maxRetries = RerunPolicy.getMaxRetries();
+        for (int attempt = 1; ; attempt++) {
+            RerunPolicy.setAttemptLabel(lane + " " + attempt + " of " + maxRetries);
+            try {
+                super.runScenario(pickleWrapper, featureWrapper);
+                RerunPolicy.recordOutcome(pickleWrapper, RerunPolicy.Outcome.FLAKY);
+                return;
+            } catch (SkipException e) {
+                throw e;
+            } catch (RuntimeException | Error e) {
+                if (attempt >= maxRetries) {
+                    RerunPolicy.recordOutcome(pickleWrapper, RerunPolicy.Outcome.FAILED);
+                    throw e;
+                }
+            } finally {
+                RerunPolicy.setAttemptLabel(null);
+            }
+        }
+    }
+
+    /**
+     * Run a quarantined scenario next to the main lane; its result is recorded but never fails the build
+     */
+    private synchronized void startQuarantined(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        if (quarantineLane == null) {
+            quarantineLane = Executors.newFixedThreadPool(
+                    Math.max(1, ConfigManager.getInstance().getInt("flake.quarantine.threads", 2)));
+        }
+        RerunPolicy.quarantined();
+        logger.info("Scenario '{}' is quarantined for flakiness and runs in the quarantine lane",
+                pickleWrapper.getPickle().getName());
+        quarantineLane.submit(() -> {
+            RerunPolicy.setAttemptLabel("Quarantine");
+            try {
+                super.runScenario(pickleWrapper, featureWrapper);
+                RerunPolicy.recordOutcome(pickleWrapper, RerunPolicy.Outcome.PASSED);
+            } catch (SkipException e) {
+                logger.info("Quarantined scenario '{}' skipped: {}", pickleWrapper.getPickle().getName(),
+                        e.getMessage());
+            } catch (RuntimeException | Error e) {
+                Throwable failure = e;
+                if (RerunPolicy.getMaxRetries() <= 0) {
+                    RerunPolicy.recordOutcome(pickleWrapper, RerunPolicy.Outcome.FAILED);
+                } else {
+                    try {
+                        retry(pickleWrapper, featureWrapper, "Quarantine retry");
+                        failure = null;
+                    } catch (RuntimeException | Error last) {
+                        failure = last;
+                    }
+                }
+                if (failure != null) {
+                    logger.warn("Quarantined scenario '{}' failed: {}", pickleWrapper.getPickle().getName(),
+                            failure.getMessage());
+                }
+            } finally {
+                RerunPolicy.setAttemptLabel(null);
+            }
+        });
+    }
 }
 
 // Command to run dev tests (tests that are currently being developed): 
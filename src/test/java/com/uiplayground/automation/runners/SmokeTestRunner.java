@@ -14,7 +14,8 @@ import io.cucumber.testng.CucumberOptions;
         "html:target/cucumber-reports/html/smoke",                    
         "json:target/cucumber-reports/json/smoke.json",      
         "junit:target/cucumber-reports/junit/smoke.xml",
-        "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:"
+        "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:",
+        "com.uiplayground.automation.core.reporting.TestListener"
     },
     tags = "@smoke"
 )
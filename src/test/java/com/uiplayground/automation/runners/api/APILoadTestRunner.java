@@ -0,0 +1,55 @@
+package com.uiplayground.automation.runners.api;
+
+import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.load.LoadGenerator;
+import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import io.cucumber.testng.TestNGCucumberRunner;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reuses the API scenarios as load tests
+ * Run with mvn test -Dtest=APILoadTestRunner -Dload.scenario="..." and the load.* settings.
+ * Only step definitions are glued in, so no hooks or report plugins add overhead to each iteration.
+ */
+@CucumberOptions(
+    features = "src/test/resources/features/api",
+    glue = {
+        "com.uiplayground.automation.steps.api"
+    },
+    tags = "@api"
+)
+public class APILoadTestRunner {
+
+    @Test
+    public void runLoad() {
+        ConfigManager config = ConfigManager.getInstance();
+        String scenarioName = config.getProperty("load.scenario", "");
+        TestNGCucumberRunner cucumberRunner = new TestNGCucumberRunner(getClass());
+        List<LoadGenerator.Result> results = new ArrayList<>();
+        try {
+            for (Object[] row : cucumberRunner.provideScenarios()) {
+                Pickle pickle = ((PickleWrapper) row[0]).getPickle();
+                if (scenarioName.isEmpty() || pickle.getName().contains(scenarioName)) {
+                    results.add(LoadGenerator.run(pickle.getName(), () -> cucumberRunner.runScenario(pickle)));
+                }
+            }
+        } finally {
+            cucumberRunner.finish();
+        }
+        LoadGenerator.writeReport(results);
+
+        Assert.assertFalse(results.isEmpty(), "No API scenario matches load.scenario '" + scenarioName + "'");
+        double maxErrorPercent = config.getDouble("load.max.error.percent", 1.0);
+        for (LoadGenerator.Result result : results) {
+            Assert.assertTrue(result.getIterations() > 0, "No iterations completed within load.duration.seconds");
+            Assert.assertTrue(result.getErrorPercent() <= maxErrorPercent, String.format(
+                    "%.2f%% of iterations failed, limit is %.2f%%", result.getErrorPercent(), maxErrorPercent));
+        }
+    }
+}
@@ -15,7 +15,8 @@ import io.cucumber.testng.CucumberOptions;
         "html:target/cucumber-reports/html/api",                    
         "json:target/cucumber-reports/json/api.json",      
         "junit:target/cucumber-reports/junit/api.xml",
-        "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:"
+        "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:",
+        "com.uiplayground.automation.core.reporting.TestListener"
     },
     tags = "@api"
 )
@@ -1,6 +1,6 @@
 package com.uiplayground.automation.runners.ui;
 
-import io.cucumber.testng.AbstractTestNGCucumberTests;
+import com.uiplayground.automation.runners.BaseTestRunner;
 import io.cucumber.testng.CucumberOptions;
 
 @CucumberOptions(
@@ -14,10 +14,11 @@ import io.cucumber.testng.CucumberOptions;
         "html:target/cucumber-reports/html",                    
         "json:target/cucumber-reports/json/cucumber.json",      
         "junit:target/cucumber-reports/junit/cucumber.xml",
-        "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:"
+        "com.aventstack.extentreports.cucumber.adapter.ExtentCucumberAdapter:",
+        "com.uiplayground.automation.core.reporting.TestListener"
     },
     tags = "@smoke or @homepage"
 )
 
-public class HomePageTestRunner extends AbstractTestNGCucumberTests {
+public class HomePageTestRunner extends BaseTestRunner {
 }
@@ -0,0 +1,60 @@
+package com.uiplayground.automation.steps;
+
+import com.uiplayground.automation.constants.pages.HomePageConstants;
+import com.uiplayground.automation.core.state.SharedSetup;
+import com.uiplayground.automation.core.state.StateSeeder;
+import com.uiplayground.automation.pages.playground.DynamicIdPage;
+import com.uiplayground.automation.pages.playground.HomePage;
+import com.uiplayground.automation.utils.AssertionUtils;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class DynamicIdSteps {
+
+    private static final Logger logger = LogManager.getLogger(DynamicIdSteps.class);
+
+    private final HomePage homePage;
+    private final DynamicIdPage dynamicIdPage;
+
+    public DynamicIdSteps(HomePage homePage, DynamicIdPage dynamicIdPage) {
+        this.homePage = homePage;
+        this.dynamicIdPage = dynamicIdPage;
+    }
+
+    @Given("I am on the Dynamic ID page")
+    public void i_am_on_the_dynamic_id_page() {
+        if (SharedSetup.isRestored()) {
+            return;
+        }
+        logger.info("Preparing the Dynamic ID page");
+        StateSeeder.setUp(HomePageConstants.DYNAMIC_ID_LINK_TITLE,
+                dynamicIdPage::open,
+                () -> {
+                    homePage.open().clickTestLink(HomePageConstants.DYNAMIC_ID_LINK_TITLE);
+                    return dynamicIdPage;
+                });
+    }
+
+    @When("I click the button with a dynamic ID")
+    public void i_click_the_button_with_a_dynamic_id() {
+        logger.info("Clicking the button with a dynamic ID");
+        dynamicIdPage.clickDynamicIdButton();
+    }
+
+    @Then("I should be on the Dynamic ID page")
+    public void i_should_be_on_the_dynamic_id_page() {
+        AssertionUtils.assertTrue(dynamicIdPage.isOnPage(), "Expected to be on the Dynamic ID page");
+    }
+
+    @Then("the button text should be {string}")
+    public void the_button_text_should_be(String expected) {
+        String actual = dynamicIdPage.getButtonText();
+        AssertionUtils.assertTrue(expected.equals(actual),
+                String.format("Expected button text '%s' but got '%s'", expected, actual));
+    }
+}
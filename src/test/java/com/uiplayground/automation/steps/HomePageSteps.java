@@ -2,6 +2,7 @@ package com.uiplayground.automation.steps;
 
 import com.uiplayground.automation.constants.messages.ValidationMessages;
 import com.uiplayground.automation.constants.pages.HomePageConstants;
+import com.uiplayground.automation.core.state.SharedSetup;
 import com.uiplayground.automation.pages.playground.HomePage;
 import com.uiplayground.automation.utils.AssertionUtils;
 
@@ -27,6 +28,9 @@ public class HomePageSteps {
 
     @Given("I navigate to the homepage")
     public void i_navigate_to_the_homepage() {
+        if (SharedSetup.isRestored()) {
+            return;
+        }
         logger.info("Navigating to homepage");
         homePage.open();
     }
@@ -0,0 +1,39 @@
+package com.uiplayground.automation.steps;
+
+import com.uiplayground.automation.core.visual.ImageDiff;
+import com.uiplayground.automation.core.visual.VisualCheck;
+import com.uiplayground.automation.utils.AssertionUtils;
+
+import io.cucumber.java.en.Then;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.SkipException;
+
+import java.awt.Rectangle;
+
+public class VisualSteps {
+
+    private static final Logger logger = LogManager.getLogger(VisualSteps.class);
+
+    @Then("the page should match the visual baseline {string}")
+    public void the_page_should_match_the_visual_baseline(String name) {
+        logger.info("Comparing the page with visual baseline '{}'", name);
+        assertMatches(name, VisualCheck.verify(name));
+    }
+
+    @Then("the page should match the visual baseline {string} ignoring {int},{int} {int}x{int}")
+    public void the_page_should_match_the_visual_baseline_ignoring(String name, int x, int y, int width,
+                                                                   int height) {
+        logger.info("Comparing the page with visual baseline '{}', ignoring {},{} {}x{}", name, x, y, width, height);
+        assertMatches(name, VisualCheck.verify(name, new Rectangle(x, y, width, height)));
+    }
+
+    private void assertMatches(String name, ImageDiff.Result result) {
+        if (result == null) {
+            throw new SkipException(String.format("Visual check '%s' skipped: no baseline (record it with "
+                    + "-Dvisual.baseline.update=true) or the driver cannot take screenshots", name));
+        }
+        AssertionUtils.assertTrue(result.matches(), String.format("Page differs from visual baseline '%s'", name));
+    }
+}
@@ -0,0 +1,84 @@
+package com.uiplayground.automation.steps.api;
+
+import com.uiplayground.automation.constants.messages.ValidationMessages;
+import com.uiplayground.automation.core.api.ApiClient;
+import com.uiplayground.automation.core.config.ConfigManager;
+import com.uiplayground.automation.core.server.ApiStubServer;
+import com.uiplayground.automation.utils.AssertionUtils;
+
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import io.restassured.response.Response;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+
+public class ApiSteps {
+
+    private static final Logger logger = LogManager.getLogger(ApiSteps.class);
+
+    private Response response;
+    private List<Response> responses;
+    private int connectionsBefore;
+
+    @Given("the stub API responds to {word} {string} with status {int} and body:")
+    public void the_stub_api_responds_with_body(String method, String path, int status, String body) {
+        logger.info("Stubbing {} {} with status {}", method, path, status);
+        ApiStubServer.stub(method, path, status, body);
+    }
+
+    @Given("the stub API responds to {word} {string} with status {int}")
+    public void the_stub_api_responds(String method, String path, int status) {
+        logger.info("Stubbing {} {} with status {}", method, path, status);
+        ApiStubServer.stub(method, path, status, null);
+    }
+
+    @When("I send a {word} request to {string}")
+    public void i_send_a_request_to(String method, String path) {
+        response = ApiClient.send(method, path);
+    }
+
+    @When("I send {int} concurrent {word} requests to {string}")
+    public void i_send_concurrent_requests_to(int count, String method, String path) {
+        logger.info("Sending {} concurrent {} requests to {}", count, method, path);
+        connectionsBefore = ApiStubServer.getConnectionCount();
+        responses = ApiClient.fanOut(count, i -> ApiClient.request().request(method, path));
+        response = responses.get(responses.size() - 1);
+    }
+
+    @Then("the response status should be {int}")
+    public void the_response_status_should_be(int status) {
+        AssertionUtils.assertTrue(response.getStatusCode() == status,
+                String.format(ValidationMessages.STATUS_CODE_MISMATCH, status, response.getStatusCode()));
+    }
+
+    @Then("the response field {string} should be {string}")
+    public void the_response_field_should_be(String field, String expected) {
+        String actual = response.jsonPath().getString(field);
+        AssertionUtils.assertTrue(expected.equals(actual),
+                String.format(ValidationMessages.JSON_FIELD_MISMATCH, field, expected, actual));
+    }
+
+    @Then("all responses should have status {int}")
+    public void all_responses_should_have_status(int status) {
+        for (Response each : responses) {
+            AssertionUtils.assertTrue(each.getStatusCode() == status,
+                    String.format(ValidationMessages.STATUS_CODE_MISMATCH, status, each.getStatusCode()));
+        }
+    }
+
+    @Then("the requests should reuse pooled connections")
+    public void the_requests_should_reuse_pooled_connections() {
+        int opened = ApiStubServer.getConnectionCount() - connectionsBefore;
+        // At most one connection per concurrent request, and no more than the pool allows per route
+        ConfigManager config = ConfigManager.getInstance();
+        int maxConnections = Math.min(config.getInt("api.fanout.threads", 16),
+                config.getInt("api.pool.max.per.route", 50));
+        logger.info("{} requests used {} new connections (at most {})", responses.size(), opened, maxConnections);
+        AssertionUtils.assertTrue(opened <= maxConnections,
+                String.format(ValidationMessages.CONNECTION_REUSE_FAILED, responses.size(), maxConnections, opened));
+    }
+}
@@ -0,0 +1,27 @@
+@api
+Feature: API client
+    As a test automation engineer
+    I want to exercise the shared API client against a local stub
+    So that API scenarios run fast and without a browser
+
+  Scenario: Read a single resource
+    Given the stub API responds to GET "/api/users/1" with status 200 and body:
+      """
+      {"id": 1, "name": "Playground User"}
+      """
+    When I send a GET request to "/api/users/1"
+    Then the response status should be 200
+    And the response field "name" should be "Playground User"
+
+  Scenario: Unknown resource returns not found
+    When I send a GET request to "/api/missing"
+    Then the response status should be 404
+
+  Scenario: Fan out concurrent requests over pooled connections
+    Given the stub API responds to GET "/api/health" with status 200 and body:
+      """
+      {"status": "UP"}
+      """
+    When I send 50 concurrent GET requests to "/api/health"
+    Then all responses should have status 200
+    And the requests should reuse pooled connections
@@ -0,0 +1,17 @@
+@shared-setup
+Feature: Dynamic ID
+    As a user
+    I want to click a button whose ID changes on every page load
+    So that I can verify locators do not depend on generated IDs
+
+  @smoke @dynamicid
+  Scenario: Click the button with a dynamic ID
+    Given I am on the Dynamic ID page
+    When I click the button with a dynamic ID
+    Then I should be on the Dynamic ID page
+    And the button text should be "Button with Dynamic ID"
+
+  @smoke @dynamicid
+  Scenario: Dynamic ID button shows its label
+    Given I am on the Dynamic ID page
+    Then the button text should be "Button with Dynamic ID"
@@ -3,15 +3,20 @@ Feature: Homepage functionality
     I want to access the homepage 
     So that I can view the page title and navigate to test scenarios
 
-  @smoke @homepage
+  @smoke @homepage @static
   Scenario: Verify homepage loads with correct title
     Given I navigate to the homepage
     When I view the page title
     Then the page title should be displayed correctly
     And the page title should not be empty
 
-  @regression @homepage
+  @regression @homepage @static
   Scenario: Verify test scenario links are available
     Given I navigate to the homepage
     When I check the available test links
     Then I should see test scenario links on the page
+
+  @regression @homepage @visual
+  Scenario: Verify homepage matches its visual baseline
+    Given I navigate to the homepage
+    Then the page should match the visual baseline "homepage"
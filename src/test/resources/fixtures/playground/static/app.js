@@ -0,0 +1,4 @@
+// Placeholder for the playground client script
+document.addEventListener("DOMContentLoaded", function () {
+    document.body.setAttribute("data-loaded", "true");
+});